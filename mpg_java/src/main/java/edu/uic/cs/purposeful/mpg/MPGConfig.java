@@ -36,6 +36,17 @@ public class MPGConfig extends AbstractConfig {
   public static final String MINIMAX_SOLVER_CLASS = INSTANCE.getStringValue("minimax_solver_class");
   public static final String MINIMAX_SOLVER_CLASS_BACKUP =
       INSTANCE.getStringValue("minimax_solver_class_backup");
+  public static final boolean MINIMAX_SOLVER_RACING =
+      INSTANCE.getBooleanValue("minimax_solver_racing");
+  public static final boolean MINIMAX_DOMINANCE_PRESOLVE =
+      INSTANCE.getBooleanValue("minimax_dominance_presolve");
+  public static final int GUROBI_THREADS_PER_ENV = INSTANCE.getIntValue("gurobi_threads_per_env");
+  public static final double MIRROR_PROX_DUALITY_GAP =
+      INSTANCE.getDoubleValue("mirror_prox_duality_gap");
+  public static final int MIRROR_PROX_MAX_NUMBER_OF_ITERATIONS =
+      INSTANCE.getIntValue("mirror_prox_max_number_of_iterations");
+  public static final double MIRROR_PROX_STEP_SIZE =
+      INSTANCE.getDoubleValue("mirror_prox_step_size");
 
   public static final double BIAS_FEATURE_VALUE = INSTANCE.getDoubleValue("bias_feature_value");
   public static final boolean REGULARIZE_BIAS_FEATURE =
@@ -52,6 +63,28 @@ public class MPGConfig extends AbstractConfig {
 
   public static final int MAX_NUM_OF_DOUBLE_ORACLE_PERMUTATIONS =
       INSTANCE.getIntValue("max_num_of_double_oracle_permutations");
+  public static final int MAX_NUM_OF_DOUBLE_ORACLE_WARM_START_PERMUTATIONS =
+      INSTANCE.getIntValue("max_num_of_double_oracle_warm_start_permutations");
+  public static final int NUM_OF_DOUBLE_ORACLE_RESPONSES =
+      INSTANCE.getIntValue("num_of_double_oracle_responses");
+  public static final boolean DOUBLE_ORACLE_SIMULTANEOUS_RESPONSES =
+      INSTANCE.getBooleanValue("double_oracle_simultaneous_responses");
+  public static final int MAX_NUM_OF_CACHED_DOUBLE_ORACLE_PERMUTATIONS =
+      INSTANCE.getIntValue("max_num_of_cached_double_oracle_permutations");
+  public static final int MAX_NUM_OF_CACHED_DOUBLE_ORACLE_SCORES =
+      INSTANCE.getIntValue("max_num_of_cached_double_oracle_scores");
+  public static final int MIN_NUM_OF_DOUBLE_ORACLE_SCORES_PER_TASK =
+      INSTANCE.getIntValue("min_num_of_double_oracle_scores_per_task");
+  public static final String DOUBLE_ORACLE_EVICTION_POLICY =
+      INSTANCE.getStringValue("double_oracle_eviction_policy");
+  public static final int DOUBLE_ORACLE_EVICTION_IDLE_ITERATIONS =
+      INSTANCE.getIntValue("double_oracle_eviction_idle_iterations");
+  public static final double INITIAL_EQUILIBRIUM_TOLERANCE =
+      INSTANCE.getDoubleValue("initial_equilibrium_tolerance");
+  public static final int INITIAL_MAX_NUM_OF_DOUBLE_ORACLE_PERMUTATIONS =
+      INSTANCE.getIntValue("initial_max_num_of_double_oracle_permutations");
+  public static final int MIN_NUM_OF_GFM_COLUMNS_PER_TASK =
+      INSTANCE.getIntValue("min_num_of_gfm_columns_per_task");
 
   public static final int MAX_DISPLAY_VECTOR_LENGTH =
       INSTANCE.getIntValue("max_display_vector_length");
@@ -1,53 +1,179 @@
 package edu.uic.cs.purposeful.mpg.common;
 
+import java.util.Arrays;
+
 import org.apache.commons.io.IOUtils;
 
 import edu.uic.cs.purposeful.common.assertion.Assert;
-import gnu.trove.impl.Constants;
-import gnu.trove.map.hash.TObjectDoubleHashMap;
-import net.mintern.primitive.pair.IntPair;
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
 
 /**
  * This is a matrix that can grow the size when needed, and it keeps tracking the maximum and
  * minimum score within it.
+ * <p>
+ * Cells are kept in one dense row-major <code>double[]</code> block (empty cells hold NaN). Both
+ * the row and the column capacity double when exceeded, so appending a row or a column costs
+ * amortized O(1) per cell, and reading a cell never allocates.
  */
 public class ScoreMatrix {
-  private final TObjectDoubleHashMap<IntPair> data;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  // row-major, the stride of a row is columnCapacity
+  private double[] data;
+  private int rowCapacity;
+  private int columnCapacity;
+  private int rowSize = 0;
+  private int columnSize = 0;
   private double maximumScore = Double.NEGATIVE_INFINITY;
   private double minimumScore = Double.POSITIVE_INFINITY;
-  private int maxRowIndex = -1;
-  private int maxColumnIndex = -1;
+  private int numberOfCompactions = 0;
 
   public ScoreMatrix() {
-    this(Constants.DEFAULT_CAPACITY, 1);
+    this(DEFAULT_CAPACITY, DEFAULT_CAPACITY);
   }
 
   public ScoreMatrix(int rowCapacity, int columnCapacity) {
-    data = new TObjectDoubleHashMap<>(rowCapacity * columnCapacity, Constants.DEFAULT_LOAD_FACTOR,
-        Double.NaN);
+    this.rowCapacity = Math.max(rowCapacity, 1);
+    this.columnCapacity = Math.max(columnCapacity, 1);
+    this.data = new double[this.rowCapacity * this.columnCapacity];
+    Arrays.fill(data, Double.NaN);
   }
 
   public void put(int rowIndex, int columnIndex, double value) {
     Assert.isTrue(rowIndex >= 0);
     Assert.isTrue(columnIndex >= 0);
-    Assert.isTrue(Double.isNaN(data.put(IntPair.of(rowIndex, columnIndex), value)),
-        "Cell[" + rowIndex + "," + columnIndex + "] already has value.");
-    maximumScore = Math.max(maximumScore, value);
-    minimumScore = Math.min(minimumScore, value);
-    maxRowIndex = Math.max(maxRowIndex, rowIndex);
-    maxColumnIndex = Math.max(maxColumnIndex, columnIndex);
+    ensureCapacity(rowIndex + 1, columnIndex + 1);
+
+    int offset = rowIndex * columnCapacity + columnIndex;
+    if (!Double.isNaN(data[offset])) {
+      throw new PurposefulBaseException(
+          "Cell[" + rowIndex + "," + columnIndex + "] already has value.");
+    }
+    data[offset] = value;
+    trackScore(value);
+    rowSize = Math.max(rowSize, rowIndex + 1);
+    columnSize = Math.max(columnSize, columnIndex + 1);
+  }
+
+  /**
+   * Appends a new row after the last one; <code>rowValues</code> holds one value per existing
+   * column. Returns the index of the new row.
+   */
+  public int appendRow(double[] rowValues) {
+    Assert.isTrue(rowSize == 0 || rowValues.length == columnSize,
+        "rowValues.length != getColumnSize()");
+    int rowIndex = rowSize;
+    ensureCapacity(rowIndex + 1, rowValues.length);
+    System.arraycopy(rowValues, 0, data, rowIndex * columnCapacity, rowValues.length);
+    for (double value : rowValues) {
+      trackScore(value);
+    }
+    rowSize = rowIndex + 1;
+    columnSize = Math.max(columnSize, rowValues.length);
+    return rowIndex;
+  }
+
+  /**
+   * Appends a new column after the last one; <code>columnValues</code> holds one value per
+   * existing row. Returns the index of the new column.
+   */
+  public int appendColumn(double[] columnValues) {
+    Assert.isTrue(columnSize == 0 || columnValues.length == rowSize,
+        "columnValues.length != getRowSize()");
+    int columnIndex = columnSize;
+    ensureCapacity(columnValues.length, columnIndex + 1);
+    for (int rowIndex = 0; rowIndex < columnValues.length; rowIndex++) {
+      data[rowIndex * columnCapacity + columnIndex] = columnValues[rowIndex];
+      trackScore(columnValues[rowIndex]);
+    }
+    columnSize = columnIndex + 1;
+    rowSize = Math.max(rowSize, columnValues.length);
+    return columnIndex;
+  }
+
+  /**
+   * Removes the rows and the columns not retained, the rest keep their order and move up or left
+   * to fill the gaps. A <code>null</code> array retains all of the rows or the columns. The
+   * maximum and minimum score are those of the remaining cells afterwards.
+   */
+  public void retain(boolean[] retainsRows, boolean[] retainsColumns) {
+    Assert.isTrue(retainsRows == null || retainsRows.length == rowSize,
+        "retainsRows.length != getRowSize()");
+    Assert.isTrue(retainsColumns == null || retainsColumns.length == columnSize,
+        "retainsColumns.length != getColumnSize()");
+
+    maximumScore = Double.NEGATIVE_INFINITY;
+    minimumScore = Double.POSITIVE_INFINITY;
+    int newRowSize = 0;
+    int newColumnSize = columnSize;
+    for (int rowIndex = 0; rowIndex < rowSize; rowIndex++) {
+      if (retainsRows != null && !retainsRows[rowIndex]) {
+        continue;
+      }
+      // a cell never moves right or down, so it's safe to compact in place
+      int fromOffset = rowIndex * columnCapacity;
+      int toOffset = newRowSize * columnCapacity;
+      newColumnSize = 0;
+      for (int columnIndex = 0; columnIndex < columnSize; columnIndex++) {
+        if (retainsColumns == null || retainsColumns[columnIndex]) {
+          double value = data[fromOffset + columnIndex];
+          data[toOffset + newColumnSize++] = value;
+          if (!Double.isNaN(value)) {
+            trackScore(value);
+          }
+        }
+      }
+      Arrays.fill(data, toOffset + newColumnSize, toOffset + columnSize, Double.NaN);
+      newRowSize++;
+    }
+    Arrays.fill(data, newRowSize * columnCapacity, rowSize * columnCapacity, Double.NaN);
+
+    rowSize = newRowSize;
+    columnSize = (newRowSize == 0) ? 0 : newColumnSize;
+    numberOfCompactions++;
   }
 
   public double get(int rowIndex, int columnIndex) {
-    Assert.isTrue(rowIndex >= 0);
-    Assert.isTrue(columnIndex >= 0);
+    if (rowIndex < 0 || rowIndex >= rowSize || columnIndex < 0 || columnIndex >= columnSize) {
+      throw new PurposefulBaseException("Position [" + rowIndex + "," + columnIndex
+          + "] is out of [" + rowSize + "," + columnSize + "]");
+    }
 
-    double value = data.get(IntPair.of(rowIndex, columnIndex));
-    Assert.isTrue(!Double.isNaN(value),
-        "No value stored at position [" + rowIndex + "," + columnIndex + "]");
+    double value = data[rowIndex * columnCapacity + columnIndex];
+    if (Double.isNaN(value)) {
+      throw new PurposefulBaseException(
+          "No value stored at position [" + rowIndex + "," + columnIndex + "]");
+    }
     return value;
   }
 
+  /**
+   * Returns a copy of all the cells in one contiguous array, row after row; cell [r, c] is at
+   * <code>r * getColumnSize() + c</code>.
+   */
+  public double[] toRowMajorArray() {
+    double[] result = new double[rowSize * columnSize];
+    for (int rowIndex = 0; rowIndex < rowSize; rowIndex++) {
+      System.arraycopy(data, rowIndex * columnCapacity, result, rowIndex * columnSize, columnSize);
+    }
+    return result;
+  }
+
+  /**
+   * Returns a copy of all the cells in one contiguous array, column after column; cell [r, c] is
+   * at <code>c * getRowSize() + r</code>.
+   */
+  public double[] toColumnMajorArray() {
+    double[] result = new double[rowSize * columnSize];
+    for (int rowIndex = 0; rowIndex < rowSize; rowIndex++) {
+      int offset = rowIndex * columnCapacity;
+      for (int columnIndex = 0; columnIndex < columnSize; columnIndex++) {
+        result[columnIndex * rowSize + rowIndex] = data[offset + columnIndex];
+      }
+    }
+    return result;
+  }
+
   public double getMaximum() {
     return maximumScore;
   }
@@ -57,19 +183,63 @@ public class ScoreMatrix {
   }
 
   public int getRowSize() {
-    return maxRowIndex + 1;
+    return rowSize;
   }
 
   public int getColumnSize() {
-    return maxColumnIndex + 1;
+    return columnSize;
+  }
+
+  /**
+   * How many times {@link #retain(boolean[], boolean[])} has been called, the cells may have moved
+   * since a reader saw a different number, even if the size is the same.
+   */
+  public int getNumberOfCompactions() {
+    return numberOfCompactions;
+  }
+
+  private void trackScore(double value) {
+    if (value > maximumScore) {
+      maximumScore = value;
+    }
+    if (value < minimumScore) {
+      minimumScore = value;
+    }
+  }
+
+  private void ensureCapacity(int requiredRows, int requiredColumns) {
+    int newRowCapacity =
+        (requiredRows > rowCapacity) ? Math.max(requiredRows, rowCapacity * 2) : rowCapacity;
+    int newColumnCapacity = (requiredColumns > columnCapacity)
+        ? Math.max(requiredColumns, columnCapacity * 2) : columnCapacity;
+    if (newRowCapacity == rowCapacity && newColumnCapacity == columnCapacity) {
+      return;
+    }
+
+    double[] newData = null;
+    if (newColumnCapacity == columnCapacity) { // rows are still laid out the same way
+      newData = Arrays.copyOf(data, newRowCapacity * newColumnCapacity);
+      Arrays.fill(newData, data.length, newData.length, Double.NaN);
+    } else {
+      newData = new double[newRowCapacity * newColumnCapacity];
+      Arrays.fill(newData, Double.NaN);
+      for (int rowIndex = 0; rowIndex < rowSize; rowIndex++) {
+        System.arraycopy(data, rowIndex * columnCapacity, newData, rowIndex * newColumnCapacity,
+            columnSize);
+      }
+    }
+
+    data = newData;
+    rowCapacity = newRowCapacity;
+    columnCapacity = newColumnCapacity;
   }
 
   @Override
   public String toString() {
     StringBuilder toString = new StringBuilder();
-    for (int rowIndex = 0; rowIndex <= maxRowIndex; rowIndex++) {
-      for (int columnIndex = 0; columnIndex <= maxColumnIndex; columnIndex++) {
-        toString.append(data.get(IntPair.of(rowIndex, columnIndex))).append(" ");
+    for (int rowIndex = 0; rowIndex < rowSize; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < columnSize; columnIndex++) {
+        toString.append(data[rowIndex * columnCapacity + columnIndex]).append(" ");
       }
       toString.append(IOUtils.LINE_SEPARATOR);
     }
@@ -0,0 +1,32 @@
+package edu.uic.cs.purposeful.mpg.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+
+/**
+ * The worker threads that solve the instances' games, shared by all the objective function's
+ * evaluations and all the predictions. There are <code>thread_pool_size</code> of them for the
+ * life of the JVM, so what a game keeps per thread, e.g. the Gurobi environment of
+ * MinimaxSolverGurobiImpl, is created once per worker instead of once per evaluation. The pool is
+ * never shut down; a task must not wait for another task of this pool, or all the workers could
+ * end up waiting.
+ */
+public class WorkerThreadPool {
+  private static final AtomicInteger NUMBER_OF_THREADS = new AtomicInteger();
+
+  private static final ExecutorService THREAD_POOL =
+      Executors.newFixedThreadPool(MPGConfig.THREAD_POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "mpg-worker-" + NUMBER_OF_THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private WorkerThreadPool() {}
+
+  public static ExecutorService getInstance() {
+    return THREAD_POOL;
+  }
+}
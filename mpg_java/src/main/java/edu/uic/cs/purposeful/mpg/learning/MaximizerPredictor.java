@@ -9,8 +9,6 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
@@ -21,6 +19,7 @@ import com.google.common.primitives.Doubles;
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.WorkerThreadPool;
 import edu.uic.cs.purposeful.mpg.optimizer.game.ZeroSumGameSolver;
 import edu.uic.cs.purposeful.mpg.optimizer.game.impl.DoubleOracleGameSolver;
 import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
@@ -133,34 +132,29 @@ public class MaximizerPredictor<Permutation, InitialData> {
 
   protected List<Prediction<Permutation>> predict(List<InitialData> initialDataList,
       double[] thetas) {
-    ExecutorService threadPool = Executors.newFixedThreadPool(MPGConfig.THREAD_POOL_SIZE);
     CompletionService<Prediction<Permutation>> completionService =
-        new ExecutorCompletionService<>(threadPool);
+        new ExecutorCompletionService<>(WorkerThreadPool.getInstance());
     try {
-      try {
-        int index = 0;
-        for (InitialData initialData : initialDataList) {
-          completionService
-              .submit(new PredictionTask<>(index++, initialData, thetas, optimizationTargetClass));
-        }
-      } catch (Exception e) {
-        throw new PurposefulBaseException(e);
+      int index = 0;
+      for (InitialData initialData : initialDataList) {
+        completionService
+            .submit(new PredictionTask<>(index++, initialData, thetas, optimizationTargetClass));
       }
+    } catch (Exception e) {
+      throw new PurposefulBaseException(e);
+    }
 
-      List<Prediction<Permutation>> result =
-          new ArrayList<>(Collections.nCopies(initialDataList.size(), null));
-      for (int targetIndex = 0; targetIndex < initialDataList.size(); targetIndex++) {
-        try {
-          Prediction<Permutation> prediction = completionService.take().get();
-          Assert.isNull(result.set(prediction.index, prediction));
-        } catch (Exception e) {
-          LOGGER.error("Fail to predict instance.", e);
-        }
+    List<Prediction<Permutation>> result =
+        new ArrayList<>(Collections.nCopies(initialDataList.size(), null));
+    for (int targetIndex = 0; targetIndex < initialDataList.size(); targetIndex++) {
+      try {
+        Prediction<Permutation> prediction = completionService.take().get();
+        Assert.isNull(result.set(prediction.index, prediction));
+      } catch (Exception e) {
+        LOGGER.error("Fail to predict instance.", e);
       }
-      return result;
-    } finally {
-      threadPool.shutdown();
     }
+    return result;
   }
 
   protected Prediction<Permutation> predict(InitialData initialData, double[] thetas) {
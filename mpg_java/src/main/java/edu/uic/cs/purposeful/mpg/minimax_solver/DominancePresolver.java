@@ -0,0 +1,162 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+
+/**
+ * Removes the dominated rows and columns of a game before it is given to an LP, so that the LP
+ * only grows with the strategies still in use rather than with the whole double oracle history.
+ * Enabled by <code>minimax_dominance_presolve</code>; the static counters show how much has been
+ * removed over all the games presolved so far.
+ */
+public class DominancePresolver {
+  private static final AtomicLong NUMBER_OF_PRESOLVED_GAMES = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_REDUCED_GAMES = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_REMOVED_ROWS = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_REMOVED_COLUMNS = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_CELLS = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_REMAINING_CELLS = new AtomicLong();
+
+  private final int numberOfRows;
+  private final int numberOfColumns;
+  private final int[] rowIndices;
+  private final int[] columnIndices;
+  private final ScoreMatrix reducedMatrix;
+
+  private DominancePresolver(ScoreMatrix scoreMatrix, double[] scores, int[] rowIndices,
+      int[] columnIndices) {
+    this.numberOfRows = scoreMatrix.getRowSize();
+    this.numberOfColumns = scoreMatrix.getColumnSize();
+    this.rowIndices = rowIndices;
+    this.columnIndices = columnIndices;
+    this.reducedMatrix = new ScoreMatrix(rowIndices.length, columnIndices.length);
+    for (int rowIndex = 0; rowIndex < rowIndices.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < columnIndices.length; columnIndex++) {
+        reducedMatrix.put(rowIndex, columnIndex,
+            scores[rowIndices[rowIndex] * numberOfColumns + columnIndices[columnIndex]]);
+      }
+    }
+  }
+
+  /**
+   * Returns <code>null</code> if no row or column is dominated.
+   */
+  public static DominancePresolver presolve(ScoreMatrix scoreMatrix) {
+    int numberOfRows = scoreMatrix.getRowSize();
+    int numberOfColumns = scoreMatrix.getColumnSize();
+    double[] scores = scoreMatrix.toRowMajorArray();
+    boolean[] isRowRemoved = new boolean[numberOfRows];
+    boolean[] isColumnRemoved = new boolean[numberOfColumns];
+    SmallGameSolver.removeDominatedStrategies(scores, numberOfRows, numberOfColumns,
+        isRowRemoved, isColumnRemoved);
+    int[] rowIndices = SmallGameSolver.remainingIndices(isRowRemoved);
+    int[] columnIndices = SmallGameSolver.remainingIndices(isColumnRemoved);
+
+    NUMBER_OF_PRESOLVED_GAMES.incrementAndGet();
+    NUMBER_OF_REMOVED_ROWS.addAndGet(numberOfRows - rowIndices.length);
+    NUMBER_OF_REMOVED_COLUMNS.addAndGet(numberOfColumns - columnIndices.length);
+    NUMBER_OF_CELLS.addAndGet((long) numberOfRows * numberOfColumns);
+    NUMBER_OF_REMAINING_CELLS.addAndGet((long) rowIndices.length * columnIndices.length);
+    if (rowIndices.length == numberOfRows && columnIndices.length == numberOfColumns) {
+      return null;
+    }
+
+    NUMBER_OF_REDUCED_GAMES.incrementAndGet();
+    return new DominancePresolver(scoreMatrix, scores, rowIndices, columnIndices);
+  }
+
+  public ScoreMatrix getReducedMatrix() {
+    return reducedMatrix;
+  }
+
+  /**
+   * The original rows of the reduced matrix's rows, in increasing order.
+   */
+  public int[] getRowIndices() {
+    return rowIndices;
+  }
+
+  /**
+   * The original columns of the reduced matrix's columns, in increasing order.
+   */
+  public int[] getColumnIndices() {
+    return columnIndices;
+  }
+
+  /**
+   * Maps the maximizer's probabilities of the reduced game back to the rows of the original one;
+   * the removed rows get zero.
+   */
+  public double[] expandMaximizerProbabilities(double[] reducedProbabilities) {
+    return expand(reducedProbabilities, rowIndices, numberOfRows);
+  }
+
+  /**
+   * Maps the minimizer's probabilities of the reduced game back to the columns of the original
+   * one; the removed columns get zero.
+   */
+  public double[] expandMinimizerProbabilities(double[] reducedProbabilities) {
+    return expand(reducedProbabilities, columnIndices, numberOfColumns);
+  }
+
+  /**
+   * The minimizer's probabilities stay <code>null</code> if the reduced solution has none.
+   */
+  public MinimaxSolution expand(MinimaxSolution reducedSolution) {
+    double[] reducedMinimizerProbabilities = reducedSolution.getMinimizerProbabilities();
+    return new MinimaxSolution(
+        expandMaximizerProbabilities(reducedSolution.getMaximizerProbabilities()),
+        reducedSolution.getMaximizerValue(), (reducedMinimizerProbabilities == null) ? null
+            : expandMinimizerProbabilities(reducedMinimizerProbabilities),
+        reducedSolution.getMinimizerValue());
+  }
+
+  private static double[] expand(double[] reducedProbabilities, int[] indices, int length) {
+    double[] probabilities = new double[length];
+    for (int index = 0; index < indices.length; index++) {
+      probabilities[indices[index]] = reducedProbabilities[index];
+    }
+    return probabilities;
+  }
+
+  public static long getNumberOfPresolvedGames() {
+    return NUMBER_OF_PRESOLVED_GAMES.get();
+  }
+
+  public static long getNumberOfReducedGames() {
+    return NUMBER_OF_REDUCED_GAMES.get();
+  }
+
+  public static long getNumberOfRemovedRows() {
+    return NUMBER_OF_REMOVED_ROWS.get();
+  }
+
+  public static long getNumberOfRemovedColumns() {
+    return NUMBER_OF_REMOVED_COLUMNS.get();
+  }
+
+  public static long getNumberOfCells() {
+    return NUMBER_OF_CELLS.get();
+  }
+
+  public static long getNumberOfRemainingCells() {
+    return NUMBER_OF_REMAINING_CELLS.get();
+  }
+
+  public static void resetCounters() {
+    NUMBER_OF_PRESOLVED_GAMES.set(0);
+    NUMBER_OF_REDUCED_GAMES.set(0);
+    NUMBER_OF_REMOVED_ROWS.set(0);
+    NUMBER_OF_REMOVED_COLUMNS.set(0);
+    NUMBER_OF_CELLS.set(0);
+    NUMBER_OF_REMAINING_CELLS.set(0);
+  }
+
+  public static String getCounters() {
+    return "presolved games=" + getNumberOfPresolvedGames() + ", reduced games="
+        + getNumberOfReducedGames() + ", removed rows=" + getNumberOfRemovedRows()
+        + ", removed columns=" + getNumberOfRemovedColumns() + ", remaining cells="
+        + getNumberOfRemainingCells() + "/" + getNumberOfCells();
+  }
+}
@@ -0,0 +1,35 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+/**
+ * Both players' mixed strategies of one game, and the game value each of them guarantees.
+ */
+public class MinimaxSolution {
+  private final double[] maximizerProbabilities;
+  private final double maximizerValue;
+  private final double[] minimizerProbabilities;
+  private final double minimizerValue;
+
+  public MinimaxSolution(double[] maximizerProbabilities, double maximizerValue,
+      double[] minimizerProbabilities, double minimizerValue) {
+    this.maximizerProbabilities = maximizerProbabilities;
+    this.maximizerValue = maximizerValue;
+    this.minimizerProbabilities = minimizerProbabilities;
+    this.minimizerValue = minimizerValue;
+  }
+
+  public double[] getMaximizerProbabilities() {
+    return maximizerProbabilities;
+  }
+
+  public double getMaximizerValue() {
+    return maximizerValue;
+  }
+
+  public double[] getMinimizerProbabilities() {
+    return minimizerProbabilities;
+  }
+
+  public double getMinimizerValue() {
+    return minimizerValue;
+  }
+}
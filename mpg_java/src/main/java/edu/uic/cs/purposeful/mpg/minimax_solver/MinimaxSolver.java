@@ -1,45 +1,223 @@
 package edu.uic.cs.purposeful.mpg.minimax_solver;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.math3.util.MathUtils;
 
 import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.Misc;
 import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
 
 public abstract class MinimaxSolver {
+  /**
+   * The cells are copied once into a column-major buffer, the order in which the solvers build
+   * their constraints (one constraint per column).
+   */
   protected class MatrixWrapper {
-    private final ScoreMatrix matrix;
-    private final boolean isNegativeTransposed;
+    private final int numberOfRows;
+    private final int numberOfColumns;
+    private final double[] columnMajorValues;
 
     MatrixWrapper(ScoreMatrix matrix) {
       this(matrix, false);
     }
 
-    MatrixWrapper(ScoreMatrix matrix, boolean isTransposed) {
-      this.matrix = matrix;
-      this.isNegativeTransposed = isTransposed;
+    MatrixWrapper(ScoreMatrix matrix, boolean isNegativeTransposed) {
+      if (isNegativeTransposed) {
+        this.numberOfRows = matrix.getColumnSize();
+        this.numberOfColumns = matrix.getRowSize();
+        // the columns of the transposed matrix are the rows of the original one
+        this.columnMajorValues = matrix.toRowMajorArray();
+        for (int index = 0; index < columnMajorValues.length; index++) {
+          columnMajorValues[index] = -columnMajorValues[index];
+        }
+      } else {
+        this.numberOfRows = matrix.getRowSize();
+        this.numberOfColumns = matrix.getColumnSize();
+        this.columnMajorValues = matrix.toColumnMajorArray();
+      }
     }
 
     public int getNumberOfRows() {
-      return isNegativeTransposed ? matrix.getColumnSize() : matrix.getRowSize();
+      return numberOfRows;
     }
 
     public int getNumberOfColumns() {
-      return isNegativeTransposed ? matrix.getRowSize() : matrix.getColumnSize();
+      return numberOfColumns;
     }
 
     public double getValue(int rowIndex, int columnIndex) {
-      return isNegativeTransposed ? (-matrix.get(columnIndex, rowIndex))
-          : matrix.get(rowIndex, columnIndex);
+      return columnMajorValues[columnIndex * numberOfRows + rowIndex];
+    }
+
+    /**
+     * Normalizes the cells into the coefficients of the LP "min sum(x) s.t. A'x >= 1", in one pass
+     * over the buffer; see {@link SparseColumns}.
+     */
+    public SparseColumns toSparseColumns(double minimum, double maximum) {
+      // make sure the matrix is positive
+      double nonPositiveCompensate = (minimum <= 0) ? (1 - minimum) : 0.0;
+      double compensatedMaximum = maximum + nonPositiveCompensate;
+
+      int[] columnStarts = new int[numberOfColumns + 1];
+      int[] rowIndices = new int[columnMajorValues.length];
+      double[] values = new double[columnMajorValues.length];
+      int numberOfNonZeros = 0;
+      double minInMatrix = Double.POSITIVE_INFINITY;
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        columnStarts[columnIndex] = numberOfNonZeros;
+        int offset = columnIndex * numberOfRows;
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+          double originalScore = columnMajorValues[offset + rowIndex];
+          minInMatrix = Math.min(minInMatrix, originalScore);
+
+          // normalize score to ensure they are not too large
+          double score = (originalScore + nonPositiveCompensate) / compensatedMaximum;
+          if (Misc.roughlyEquals(score, 0.0)) {
+            continue;
+          }
+          Assert.isTrue(score > 0, "Score passed to LP solver should be positive.");
+          rowIndices[numberOfNonZeros] = rowIndex;
+          values[numberOfNonZeros] = score;
+          numberOfNonZeros++;
+        }
+      }
+      columnStarts[numberOfColumns] = numberOfNonZeros;
+      Assert.isTrue(MathUtils.equals(minInMatrix, minimum),
+          "minInMatrix=" + minInMatrix + " != minimumScore=" + minimum);
+
+      return new SparseColumns(columnStarts, rowIndices, values, nonPositiveCompensate,
+          compensatedMaximum);
+    }
+  }
+
+  /**
+   * The non-zero coefficients A' = (A + nonPositiveCompensate) / compensatedMaximum in compressed
+   * sparse column form: column j holds values[k] at row rowIndices[k], for k from columnStarts[j]
+   * to columnStarts[j + 1]. The solvers upload them in bulk instead of cell by cell.
+   */
+  protected static class SparseColumns {
+    private final int[] columnStarts;
+    private final int[] rowIndices;
+    private final double[] values;
+    private final double nonPositiveCompensate;
+    private final double compensatedMaximum;
+
+    private SparseColumns(int[] columnStarts, int[] rowIndices, double[] values,
+        double nonPositiveCompensate, double compensatedMaximum) {
+      this.columnStarts = columnStarts;
+      this.rowIndices = rowIndices;
+      this.values = values;
+      this.nonPositiveCompensate = nonPositiveCompensate;
+      this.compensatedMaximum = compensatedMaximum;
+    }
+
+    public int getNumberOfColumns() {
+      return columnStarts.length - 1;
+    }
+
+    public int[] getColumnStarts() {
+      return columnStarts;
+    }
+
+    public int[] getRowIndices() {
+      return rowIndices;
+    }
+
+    public double[] getValues() {
+      return values;
+    }
+
+    public double getNonPositiveCompensate() {
+      return nonPositiveCompensate;
+    }
+
+    public double getCompensatedMaximum() {
+      return compensatedMaximum;
+    }
+  }
+
+  /**
+   * Solves every call from scratch.
+   */
+  private class StatelessSession implements MinimaxSolverSession {
+    @Override
+    public Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix) {
+      return MinimaxSolver.this.findMaximizerProbabilities(scoreMatrix);
+    }
+
+    @Override
+    public Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix) {
+      return MinimaxSolver.this.findMinimizerProbabilities(scoreMatrix);
+    }
+
+    @Override
+    public MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix) {
+      return MinimaxSolver.this.findEquilibrium(scoreMatrix);
+    }
+
+    @Override
+    public boolean providesDualSolution() {
+      return MinimaxSolver.this.providesDualSolution();
+    }
+
+    @Override
+    public void close() {
+      // nothing is kept between calls
     }
   }
 
   protected static final double OBJECTIVE_COEFFICIENT = 1.0;
   protected static final double RHS_VALUE = 1.0;
   protected static final double TIME_OUT_SECONDS = 60;
+  // the LP solvers' own feasibility/optimality tolerances are about this size
+  protected static final double DUAL_SOLUTION_TOLERANCE = 1e-6;
+
+  private final boolean presolves;
+
+  /**
+   * Presolves as <code>minimax_dominance_presolve</code> is configured.
+   */
+  protected MinimaxSolver() {
+    this(MPGConfig.MINIMAX_DOMINANCE_PRESOLVE);
+  }
+
+  /**
+   * @param presolves whether the {@link ScoreMatrix} entry points remove the dominated strategies
+   *        with {@link DominancePresolver} before they build an LP
+   */
+  protected MinimaxSolver(boolean presolves) {
+    this.presolves = presolves;
+  }
+
+  /**
+   * Whether the sessions should remove the dominated strategies too, with
+   * {@link DominancePresolver}.
+   */
+  protected boolean presolves() {
+    return presolves;
+  }
 
   public Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix) {
     Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
     Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+    return findMaximizerProbabilities(scoreMatrix, presolves);
+  }
+
+  private Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix,
+      boolean presolves) {
+    MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+    if (smallGameSolution != null) {
+      return Pair.of(smallGameSolution.getMaximizerProbabilities(),
+          smallGameSolution.getMaximizerValue());
+    }
+    DominancePresolver presolver = presolves ? DominancePresolver.presolve(scoreMatrix) : null;
+    if (presolver != null) {
+      Pair<double[], Double> reducedResult =
+          findMaximizerProbabilities(presolver.getReducedMatrix(), false);
+      return Pair.of(presolver.expandMaximizerProbabilities(reducedResult.getLeft()),
+          reducedResult.getRight());
+    }
     return findMaximizerProbabilities(new MatrixWrapper(scoreMatrix), scoreMatrix.getMinimum(),
         scoreMatrix.getMaximum());
   }
@@ -47,12 +225,113 @@ public abstract class MinimaxSolver {
   public Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix) {
     Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
     Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+    return findMinimizerProbabilities(scoreMatrix, presolves);
+  }
+
+  private Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix,
+      boolean presolves) {
+    MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+    if (smallGameSolution != null) {
+      return Pair.of(smallGameSolution.getMinimizerProbabilities(),
+          smallGameSolution.getMinimizerValue());
+    }
+    DominancePresolver presolver = presolves ? DominancePresolver.presolve(scoreMatrix) : null;
+    if (presolver != null) {
+      Pair<double[], Double> reducedResult =
+          findMinimizerProbabilities(presolver.getReducedMatrix(), false);
+      return Pair.of(presolver.expandMinimizerProbabilities(reducedResult.getLeft()),
+          reducedResult.getRight());
+    }
     Pair<double[], Double> internalMinResult = findMaximizerProbabilities(
         new MatrixWrapper(scoreMatrix, true), -scoreMatrix.getMaximum(), -scoreMatrix.getMinimum());
     // value is has the same sign with maximizer
     return Pair.of(internalMinResult.getLeft(), -internalMinResult.getRight());
   }
 
+  /**
+   * Finds both players' strategies. A solver that {@link #providesDualSolution()} solves only the
+   * maximizer's LP and reads the minimizer's strategy from its dual solution; otherwise, or if the
+   * dual solution turns out to be unusable, the minimizer's LP is solved as well. Small games are
+   * solved by {@link SmallGameSolver} without any LP.
+   */
+  public MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix) {
+    Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
+    Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+    return findEquilibrium(scoreMatrix, presolves);
+  }
+
+  private MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix, boolean presolves) {
+    MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+    if (smallGameSolution != null) {
+      return smallGameSolution;
+    }
+    DominancePresolver presolver = presolves ? DominancePresolver.presolve(scoreMatrix) : null;
+    if (presolver != null) {
+      return presolver.expand(findEquilibrium(presolver.getReducedMatrix(), false));
+    }
+
+    MinimaxSolution solution = findEquilibrium(new MatrixWrapper(scoreMatrix),
+        scoreMatrix.getMinimum(), scoreMatrix.getMaximum());
+    if (solution.getMinimizerProbabilities() != null) {
+      return solution;
+    }
+
+    Pair<double[], Double> minimizerResult = findMinimizerProbabilities(scoreMatrix, false);
+    return new MinimaxSolution(solution.getMaximizerProbabilities(),
+        solution.getMaximizerValue(), minimizerResult.getLeft(), minimizerResult.getRight());
+  }
+
+  /**
+   * Whether {@link #findEquilibrium(ScoreMatrix)} normally needs only one LP.
+   */
+  public boolean providesDualSolution() {
+    return false;
+  }
+
+  /**
+   * Solves the maximizer's LP; the minimizer's probabilities are left <code>null</code> if they
+   * can't be read from its dual solution, which is what this default implementation does.
+   */
+  protected MinimaxSolution findEquilibrium(MatrixWrapper matrixWrapper, double minimum,
+      double maximum) {
+    Pair<double[], Double> maximizerResult =
+        findMaximizerProbabilities(matrixWrapper, minimum, maximum);
+    return new MinimaxSolution(maximizerResult.getLeft(), maximizerResult.getRight(), null,
+        Double.NaN);
+  }
+
+  /**
+   * Turns the dual solution y of the maximizer's LP "min sum(x) s.t. A'x >= 1" into the minimizer's
+   * probabilities. Returns <code>null</code> if y is not a valid dual solution, i.e. some y is
+   * negative or sum(y) differs from sum(x) (strong duality).
+   */
+  protected static double[] toMinimizerProbabilities(double[] yArray, double xSum) {
+    double ySum = 0.0;
+    for (int index = 0; index < yArray.length; index++) {
+      if (Double.isNaN(yArray[index]) || yArray[index] < -DUAL_SOLUTION_TOLERANCE) {
+        return null;
+      }
+      yArray[index] = Math.max(yArray[index], 0.0);
+      ySum += yArray[index];
+    }
+    if (Math.abs(ySum - xSum) > DUAL_SOLUTION_TOLERANCE * xSum) {
+      return null;
+    }
+
+    for (int index = 0; index < yArray.length; index++) {
+      // the probabilities, round to specified value precision
+      yArray[index] = Misc.roundValue(yArray[index] / ySum);
+    }
+    return yArray;
+  }
+
+  /**
+   * Opens a session for one game; by default the session solves every call from scratch.
+   */
+  public MinimaxSolverSession openSession() {
+    return new StatelessSession();
+  }
+
   abstract protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper matrixWrapper,
       double minimum, double maximum);
 }
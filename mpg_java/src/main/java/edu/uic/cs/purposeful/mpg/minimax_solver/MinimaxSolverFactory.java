@@ -0,0 +1,65 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.log4j.Logger;
+
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+import edu.uic.cs.purposeful.common.reflect.ClassFactory;
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.minimax_solver.impl.MinimaxSolverSimplexImpl;
+
+/**
+ * Creates the configured {@link MinimaxSolver}. If that implementation can't be created on this
+ * machine, e.g. its native library is missing, the pure Java {@link MinimaxSolverSimplexImpl} is
+ * used instead. A solver keeps its per-game state in its sessions, so one instance per class is
+ * shared by all the games and threads.
+ */
+public class MinimaxSolverFactory {
+  private static final Logger LOGGER = Logger.getLogger(MinimaxSolverFactory.class);
+
+  private static final ConcurrentMap<String, MinimaxSolver> INSTANCES = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, MinimaxSolver> ROUTERS = new ConcurrentHashMap<>();
+
+  public static MinimaxSolver getInstance(String minimaxSolverClassName) {
+    return INSTANCES.computeIfAbsent(minimaxSolverClassName, MinimaxSolverFactory::createInstance);
+  }
+
+  /**
+   * A {@link MinimaxSolverRouter} over the given solvers, in order of preference; empty class names
+   * are skipped, as are the solvers of a class already routed to (e.g. two that fell back to the
+   * same one). The routers are shared, so are the health records of their solvers.
+   */
+  public static MinimaxSolver getRoutingInstance(String... minimaxSolverClassNames) {
+    String key = String.join(",", minimaxSolverClassNames);
+    return ROUTERS.computeIfAbsent(key, name -> {
+      List<MinimaxSolver> solvers = new ArrayList<>();
+      Set<Class<?>> solverClasses = new HashSet<>();
+      for (String minimaxSolverClassName : minimaxSolverClassNames) {
+        if (minimaxSolverClassName.isEmpty()) {
+          continue;
+        }
+        MinimaxSolver solver = getInstance(minimaxSolverClassName);
+        if (solverClasses.add(solver.getClass())) {
+          solvers.add(solver);
+        }
+      }
+      return new MinimaxSolverRouter(solvers, MPGConfig.MINIMAX_SOLVER_RACING);
+    });
+  }
+
+  private static MinimaxSolver createInstance(String minimaxSolverClassName) {
+    try {
+      return ClassFactory.getInstance(minimaxSolverClassName);
+    } catch (PurposefulBaseException | LinkageError e) {
+      LOGGER.warn(minimaxSolverClassName + " is not available, use "
+          + MinimaxSolverSimplexImpl.class.getName() + " instead.", e);
+      return new MinimaxSolverSimplexImpl();
+    }
+  }
+}
@@ -0,0 +1,332 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.math3.stat.StatUtils;
+import org.apache.log4j.Logger;
+
+import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+
+/**
+ * Sends each solve to the first of its backends, in order of preference, whose circuit is closed,
+ * and to the next one if that fails. A backend's circuit opens for a while once it fails too
+ * often, so the games stop paying for a broken backend before they fall back. Any runtime
+ * exception from a backend counts as its failure. With <code>minimax_solver_racing</code>, the
+ * available backends solve the same game at once and the first valid result wins.
+ * <p>
+ * Cancelling the losers of a race only interrupts their threads; a native solve (Gurobi or
+ * lp_solve) doesn't check for interrupts, so a loser keeps its racing thread until its solve
+ * finishes, within the solvers' time limit. That's why at most two of them race at once, as many
+ * as the racing pool has threads per worker, and the next backend only enters a race when a racer
+ * fails.
+ */
+public class MinimaxSolverRouter extends MinimaxSolver {
+  private static final Logger LOGGER = Logger.getLogger(MinimaxSolverRouter.class);
+
+  // the circuit opens after this many failures in a row,
+  private static final int MAX_NUM_OF_CONSECUTIVE_FAILURES = 3;
+  // or once the (moving average) failure rate exceeds this, after enough calls
+  private static final double MAX_FAILURE_RATE = 0.5;
+  private static final int MIN_NUM_OF_CALLS_FOR_FAILURE_RATE = 20;
+  private static final double MOVING_AVERAGE_WEIGHT = 0.05;
+  private static final long OPEN_CIRCUIT_MILLIS = 30_000;
+  // a call this slow counts as a failure, as the backend is getting close to its time limit
+  private static final long SLOW_CALL_MILLIS = (long) (TIME_OUT_SECONDS * 1000 / 2);
+  private static final int MAX_NUM_OF_RACERS = 2;
+
+  private static final ExecutorService RACING_THREAD_POOL =
+      Executors.newFixedThreadPool(MAX_NUM_OF_RACERS * MPGConfig.THREAD_POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "minimax-solver-racing");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * The health of one backend, shared by all the games.
+   */
+  private static class Backend {
+    private final MinimaxSolver solver;
+    private int numberOfCalls = 0;
+    private int numberOfConsecutiveFailures = 0;
+    private double failureRate = 0.0;
+    private double latencyMillis = Double.NaN;
+    private long circuitOpenUntilMillis = 0;
+
+    private Backend(MinimaxSolver solver) {
+      this.solver = solver;
+    }
+
+    private synchronized boolean isCircuitClosed() {
+      return System.currentTimeMillis() >= circuitOpenUntilMillis;
+    }
+
+    private synchronized void recordSuccess(long millis) {
+      latencyMillis = Double.isNaN(latencyMillis) ? millis
+          : (1 - MOVING_AVERAGE_WEIGHT) * latencyMillis + MOVING_AVERAGE_WEIGHT * millis;
+      if (millis >= SLOW_CALL_MILLIS) {
+        recordFailure();
+        return;
+      }
+      numberOfCalls++;
+      numberOfConsecutiveFailures = 0;
+      failureRate = (1 - MOVING_AVERAGE_WEIGHT) * failureRate;
+    }
+
+    private synchronized void recordFailure() {
+      numberOfCalls++;
+      numberOfConsecutiveFailures++;
+      failureRate = (1 - MOVING_AVERAGE_WEIGHT) * failureRate + MOVING_AVERAGE_WEIGHT;
+      if (numberOfConsecutiveFailures >= MAX_NUM_OF_CONSECUTIVE_FAILURES
+          || (numberOfCalls >= MIN_NUM_OF_CALLS_FOR_FAILURE_RATE
+              && failureRate > MAX_FAILURE_RATE)) {
+        circuitOpenUntilMillis = System.currentTimeMillis() + OPEN_CIRCUIT_MILLIS;
+        numberOfConsecutiveFailures = 0;
+        LOGGER.warn("Skip " + this + " for the next " + OPEN_CIRCUIT_MILLIS / 1000 + "s.");
+      }
+    }
+
+    @Override
+    public synchronized String toString() {
+      return solver.getClass().getSimpleName() + "[calls=" + numberOfCalls + ", failureRate="
+          + String.format("%.3f", failureRate) + ", latencyMillis="
+          + String.format("%.1f", latencyMillis) + "]";
+    }
+  }
+
+  /**
+   * Keeps one session per backend, opened when the backend is first used in this game.
+   */
+  private class RoutingSession implements MinimaxSolverSession {
+    private final MinimaxSolverSession[] sessions = new MinimaxSolverSession[backends.length];
+
+    private MinimaxSolverSession getSession(int backendIndex) {
+      if (sessions[backendIndex] == null) {
+        sessions[backendIndex] = backends[backendIndex].solver.openSession();
+      }
+      return sessions[backendIndex];
+    }
+
+    @Override
+    public Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix) {
+      if (races) {
+        // the racing threads can't share the sessions, every race is solved from scratch
+        return MinimaxSolverRouter.this.findMaximizerProbabilities(scoreMatrix);
+      }
+      return route(index -> getSession(index).findMaximizerProbabilities(scoreMatrix),
+          MinimaxSolverRouter::assertValid);
+    }
+
+    @Override
+    public Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix) {
+      if (races) {
+        return MinimaxSolverRouter.this.findMinimizerProbabilities(scoreMatrix);
+      }
+      return route(index -> getSession(index).findMinimizerProbabilities(scoreMatrix),
+          MinimaxSolverRouter::assertValid);
+    }
+
+    @Override
+    public MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix) {
+      if (races) {
+        return MinimaxSolverRouter.this.findEquilibrium(scoreMatrix);
+      }
+      return route(index -> getSession(index).findEquilibrium(scoreMatrix),
+          MinimaxSolverRouter::assertValid);
+    }
+
+    @Override
+    public boolean providesDualSolution() {
+      return MinimaxSolverRouter.this.providesDualSolution();
+    }
+
+    @Override
+    public void close() {
+      for (MinimaxSolverSession session : sessions) {
+        if (session != null) {
+          session.close();
+        }
+      }
+    }
+  }
+
+  private final Backend[] backends;
+  private final boolean races;
+
+  /**
+   * @param solvers the backends, in order of preference
+   */
+  public MinimaxSolverRouter(List<MinimaxSolver> solvers, boolean races) {
+    Assert.isFalse(solvers.isEmpty(), "No minimax solver to route to.");
+    this.backends = new Backend[solvers.size()];
+    for (int index = 0; index < backends.length; index++) {
+      backends[index] = new Backend(solvers.get(index));
+    }
+    this.races = races;
+  }
+
+  @Override
+  public boolean providesDualSolution() {
+    for (Backend backend : backends) {
+      if (backend.isCircuitClosed()) {
+        return backend.solver.providesDualSolution();
+      }
+    }
+    return backends[0].solver.providesDualSolution();
+  }
+
+  @Override
+  public MinimaxSolverSession openSession() {
+    return new RoutingSession();
+  }
+
+  @Override
+  protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper matrixWrapper,
+      double minimum, double maximum) {
+    IntFunction<Pair<double[], Double>> call = index -> backends[index].solver
+        .findMaximizerProbabilities(matrixWrapper, minimum, maximum);
+    return races ? race(call, MinimaxSolverRouter::assertValid)
+        : route(call, MinimaxSolverRouter::assertValid);
+  }
+
+  @Override
+  protected MinimaxSolution findEquilibrium(MatrixWrapper matrixWrapper, double minimum,
+      double maximum) {
+    IntFunction<MinimaxSolution> call =
+        index -> backends[index].solver.findEquilibrium(matrixWrapper, minimum, maximum);
+    return races ? race(call, MinimaxSolverRouter::assertValid)
+        : route(call, MinimaxSolverRouter::assertValid);
+  }
+
+  /**
+   * The backends with closed circuits first, then the others as the last resort.
+   */
+  private List<Integer> getBackendIndicesInCallOrder() {
+    List<Integer> backendIndices = new ArrayList<>(backends.length);
+    List<Integer> openBackendIndices = new ArrayList<>(backends.length);
+    for (int index = 0; index < backends.length; index++) {
+      (backends[index].isCircuitClosed() ? backendIndices : openBackendIndices).add(index);
+    }
+    backendIndices.addAll(openBackendIndices);
+    return backendIndices;
+  }
+
+  private <T> T route(IntFunction<T> call, Consumer<T> validator) {
+    RuntimeException lastFailure = null;
+    for (int index : getBackendIndicesInCallOrder()) {
+      try {
+        return attempt(index, call, validator);
+      } catch (RuntimeException e) {
+        LOGGER.error(backends[index] + " failed, try the next minimax solver.", e);
+        lastFailure = e;
+      }
+    }
+    throw lastFailure;
+  }
+
+  private <T> T race(IntFunction<T> call, Consumer<T> validator) {
+    List<Integer> backendIndices = new ArrayList<>(backends.length);
+    for (int index = 0; index < backends.length; index++) {
+      if (backends[index].isCircuitClosed()) {
+        backendIndices.add(index);
+      }
+    }
+    if (backendIndices.isEmpty()) {
+      backendIndices = getBackendIndicesInCallOrder();
+    }
+
+    CompletionService<T> completionService = new ExecutorCompletionService<>(RACING_THREAD_POOL);
+    List<Future<T>> futures = new ArrayList<>(backendIndices.size());
+    Iterator<Integer> waitingBackendIndices = backendIndices.iterator();
+    while (futures.size() < MAX_NUM_OF_RACERS && waitingBackendIndices.hasNext()) {
+      futures.add(enterRace(completionService, waitingBackendIndices.next(), call, validator));
+    }
+    try {
+      RuntimeException lastFailure = null;
+      // a failed racer makes room for the next backend, so futures may grow meanwhile
+      for (int count = 0; count < futures.size(); count++) {
+        try {
+          return completionService.take().get();
+        } catch (ExecutionException e) {
+          LOGGER.error("A racing minimax solver failed.", e.getCause());
+          lastFailure = (e.getCause() instanceof RuntimeException)
+              ? (RuntimeException) e.getCause() : new PurposefulBaseException(e.getCause());
+          if (waitingBackendIndices.hasNext()) {
+            futures.add(
+                enterRace(completionService, waitingBackendIndices.next(), call, validator));
+          }
+        }
+      }
+      throw lastFailure;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PurposefulBaseException(e);
+    } finally {
+      // the losers are of no use anymore, though a native solve runs on until it finishes
+      for (Future<T> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private <T> Future<T> enterRace(CompletionService<T> completionService, int backendIndex,
+      IntFunction<T> call, Consumer<T> validator) {
+    return completionService.submit(() -> attempt(backendIndex, call, validator));
+  }
+
+  private <T> T attempt(int backendIndex, IntFunction<T> call, Consumer<T> validator) {
+    Backend backend = backends[backendIndex];
+    long startMillis = System.currentTimeMillis();
+    try {
+      T result = call.apply(backendIndex);
+      validator.accept(result);
+      backend.recordSuccess(System.currentTimeMillis() - startMillis);
+      return result;
+    } catch (RuntimeException e) {
+      // a cancelled loser of a race didn't fail by itself
+      if (!Thread.currentThread().isInterrupted()) {
+        backend.recordFailure();
+      }
+      throw e;
+    }
+  }
+
+  private static void assertValid(Pair<double[], Double> result) {
+    assertValid(result.getLeft(), result.getRight());
+  }
+
+  private static void assertValid(MinimaxSolution result) {
+    // the minimizer's side may be left for another LP, see MinimaxSolver#findEquilibrium
+    assertValid(result.getMaximizerProbabilities(), result.getMaximizerValue());
+  }
+
+  private static void assertValid(double[] probabilities, double value) {
+    if (probabilities == null || Double.isNaN(value) || !(StatUtils.sum(probabilities) > 0)) {
+      throw new PurposefulBaseException("Invalid minimax solution, value=" + value);
+    }
+  }
+
+  /**
+   * The call counts, failure rates and latencies of the backends, for logging.
+   */
+  public String getHealth() {
+    StringBuilder health = new StringBuilder();
+    for (Backend backend : backends) {
+      health.append(health.length() == 0 ? "" : ", ").append(backend);
+    }
+    return health.toString();
+  }
+}
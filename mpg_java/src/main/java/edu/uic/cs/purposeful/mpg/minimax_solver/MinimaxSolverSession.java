@@ -0,0 +1,30 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+
+/**
+ * A solver bound to one game, whose score matrix only grows by appending rows or columns between
+ * two calls. An implementation may keep its models alive across the calls and only add what is
+ * new; it releases them in {@link #close()}, which must be called when the game finishes.
+ */
+public interface MinimaxSolverSession extends AutoCloseable {
+
+  Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix);
+
+  Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix);
+
+  /**
+   * @see MinimaxSolver#findEquilibrium(ScoreMatrix)
+   */
+  MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix);
+
+  /**
+   * @see MinimaxSolver#providesDualSolution()
+   */
+  boolean providesDualSolution();
+
+  @Override
+  void close();
+}
@@ -0,0 +1,289 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import java.util.Arrays;
+
+import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+
+/**
+ * Solves small games in closed form, without any LP. After the (weakly) dominated strategies are
+ * removed, a game with a pure saddle point, or one in which a player has only two strategies
+ * left, is solved directly; any other game is left to the LP solvers.
+ */
+public class SmallGameSolver {
+  // the checks below cost up to O(n^3), not worth it for games the LP solvers handle well anyway
+  private static final int MAX_NUMBER_OF_STRATEGIES = 32;
+  private static final double TOLERANCE = 1e-9;
+
+  /**
+   * Returns <code>null</code> if the game is not small or not simple enough.
+   */
+  public static MinimaxSolution solve(ScoreMatrix scoreMatrix) {
+    int numberOfRows = scoreMatrix.getRowSize();
+    int numberOfColumns = scoreMatrix.getColumnSize();
+    if (numberOfRows > MAX_NUMBER_OF_STRATEGIES || numberOfColumns > MAX_NUMBER_OF_STRATEGIES) {
+      return null;
+    }
+
+    double[] scores = scoreMatrix.toRowMajorArray();
+    boolean[] isRowRemoved = new boolean[numberOfRows];
+    boolean[] isColumnRemoved = new boolean[numberOfColumns];
+    removeDominatedStrategies(scores, numberOfRows, numberOfColumns, isRowRemoved,
+        isColumnRemoved);
+    int[] rowIndices = remainingIndices(isRowRemoved);
+    int[] columnIndices = remainingIndices(isColumnRemoved);
+
+    double[] maximizerProbabilities = new double[numberOfRows];
+    double[] minimizerProbabilities = new double[numberOfColumns];
+    double value = solveSaddlePoint(scores, numberOfColumns, rowIndices, columnIndices,
+        maximizerProbabilities, minimizerProbabilities);
+    if (Double.isNaN(value) && rowIndices.length == 2) {
+      double[] firstRow = new double[columnIndices.length];
+      double[] secondRow = new double[columnIndices.length];
+      for (int index = 0; index < columnIndices.length; index++) {
+        firstRow[index] = scores[rowIndices[0] * numberOfColumns + columnIndices[index]];
+        secondRow[index] = scores[rowIndices[1] * numberOfColumns + columnIndices[index]];
+      }
+      double[] columnProbabilities = new double[columnIndices.length];
+      double[] firstRowProbabilityAndValue =
+          solveTwoRows(firstRow, secondRow, columnProbabilities);
+      if (firstRowProbabilityAndValue != null) {
+        maximizerProbabilities[rowIndices[0]] = firstRowProbabilityAndValue[0];
+        maximizerProbabilities[rowIndices[1]] = 1 - firstRowProbabilityAndValue[0];
+        for (int index = 0; index < columnIndices.length; index++) {
+          minimizerProbabilities[columnIndices[index]] = columnProbabilities[index];
+        }
+        value = firstRowProbabilityAndValue[1];
+      }
+    } else if (Double.isNaN(value) && columnIndices.length == 2) {
+      // the minimizer's game is the maximizer's game of the negative transposed matrix
+      double[] firstColumn = new double[rowIndices.length];
+      double[] secondColumn = new double[rowIndices.length];
+      for (int index = 0; index < rowIndices.length; index++) {
+        firstColumn[index] = -scores[rowIndices[index] * numberOfColumns + columnIndices[0]];
+        secondColumn[index] = -scores[rowIndices[index] * numberOfColumns + columnIndices[1]];
+      }
+      double[] rowProbabilities = new double[rowIndices.length];
+      double[] firstColumnProbabilityAndValue =
+          solveTwoRows(firstColumn, secondColumn, rowProbabilities);
+      if (firstColumnProbabilityAndValue != null) {
+        minimizerProbabilities[columnIndices[0]] = firstColumnProbabilityAndValue[0];
+        minimizerProbabilities[columnIndices[1]] = 1 - firstColumnProbabilityAndValue[0];
+        for (int index = 0; index < rowIndices.length; index++) {
+          maximizerProbabilities[rowIndices[index]] = rowProbabilities[index];
+        }
+        value = -firstColumnProbabilityAndValue[1];
+      }
+    }
+    if (Double.isNaN(value)) {
+      return null;
+    }
+
+    for (int index = 0; index < numberOfRows; index++) {
+      // the probabilities, round to specified value precision
+      maximizerProbabilities[index] = Misc.roundValue(maximizerProbabilities[index]);
+    }
+    for (int index = 0; index < numberOfColumns; index++) {
+      minimizerProbabilities[index] = Misc.roundValue(minimizerProbabilities[index]);
+    }
+    value = Misc.roundValue(value);
+    return new MinimaxSolution(maximizerProbabilities, value, minimizerProbabilities, value);
+  }
+
+  /**
+   * Removes, until nothing changes, each row that another row is never worse than for the
+   * maximizer, and each column that another column is never worse than for the minimizer; of two
+   * equal strategies, the latter is removed. This keeps the value of the game, and an equilibrium
+   * of the remaining game is one of the whole game.
+   */
+  static void removeDominatedStrategies(double[] scores, int numberOfRows, int numberOfColumns,
+      boolean[] isRowRemoved, boolean[] isColumnRemoved) {
+    boolean hasRemoved = true;
+    while (hasRemoved) {
+      hasRemoved = false;
+      for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+        for (int otherRowIndex = 0; !isRowRemoved[rowIndex]
+            && otherRowIndex < numberOfRows; otherRowIndex++) {
+          if (otherRowIndex == rowIndex || isRowRemoved[otherRowIndex]) {
+            continue;
+          }
+          int comparison = compare(scores, rowIndex * numberOfColumns,
+              otherRowIndex * numberOfColumns, 1, numberOfColumns, isColumnRemoved);
+          if (comparison < 0 || (comparison == 0 && otherRowIndex < rowIndex)) {
+            isRowRemoved[rowIndex] = hasRemoved = true;
+          }
+        }
+      }
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        for (int otherColumnIndex = 0; !isColumnRemoved[columnIndex]
+            && otherColumnIndex < numberOfColumns; otherColumnIndex++) {
+          if (otherColumnIndex == columnIndex || isColumnRemoved[otherColumnIndex]) {
+            continue;
+          }
+          // the minimizer prefers smaller scores
+          int comparison = compare(scores, otherColumnIndex, columnIndex, numberOfColumns,
+              numberOfRows, isRowRemoved);
+          if (comparison < 0 || (comparison == 0 && otherColumnIndex < columnIndex)) {
+            isColumnRemoved[columnIndex] = hasRemoved = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares two strategies over the opponent's remaining strategies: -1 if the first is never
+   * larger and sometimes smaller, 0 if they are equal, 1 otherwise.
+   */
+  private static int compare(double[] scores, int offset, int otherOffset, int stride,
+      int length, boolean[] isOpponentRemoved) {
+    boolean isEqual = true;
+    for (int index = 0; index < length; index++) {
+      if (isOpponentRemoved[index]) {
+        continue;
+      }
+      double score = scores[offset + index * stride];
+      double otherScore = scores[otherOffset + index * stride];
+      if (score > otherScore) {
+        return 1;
+      }
+      if (score < otherScore) {
+        isEqual = false;
+      }
+    }
+    return isEqual ? 0 : -1;
+  }
+
+  static int[] remainingIndices(boolean[] isRemoved) {
+    int[] indices = new int[isRemoved.length];
+    int numberOfIndices = 0;
+    for (int index = 0; index < isRemoved.length; index++) {
+      if (!isRemoved[index]) {
+        indices[numberOfIndices++] = index;
+      }
+    }
+    return Arrays.copyOf(indices, numberOfIndices);
+  }
+
+  /**
+   * Returns the value if max_i min_j A[i][j] == min_j max_i A[i][j], <code>NaN</code> otherwise.
+   */
+  private static double solveSaddlePoint(double[] scores, int numberOfColumns, int[] rowIndices,
+      int[] columnIndices, double[] maximizerProbabilities, double[] minimizerProbabilities) {
+    int maxMinRowIndex = -1;
+    double maxMin = Double.NEGATIVE_INFINITY;
+    for (int rowIndex : rowIndices) {
+      double rowMin = Double.POSITIVE_INFINITY;
+      for (int columnIndex : columnIndices) {
+        rowMin = Math.min(rowMin, scores[rowIndex * numberOfColumns + columnIndex]);
+      }
+      if (rowMin > maxMin) {
+        maxMin = rowMin;
+        maxMinRowIndex = rowIndex;
+      }
+    }
+
+    int minMaxColumnIndex = -1;
+    double minMax = Double.POSITIVE_INFINITY;
+    for (int columnIndex : columnIndices) {
+      double columnMax = Double.NEGATIVE_INFINITY;
+      for (int rowIndex : rowIndices) {
+        columnMax = Math.max(columnMax, scores[rowIndex * numberOfColumns + columnIndex]);
+      }
+      if (columnMax < minMax) {
+        minMax = columnMax;
+        minMaxColumnIndex = columnIndex;
+      }
+    }
+
+    if (minMax - maxMin > TOLERANCE * (1 + Math.abs(maxMin))) {
+      return Double.NaN;
+    }
+    maximizerProbabilities[maxMinRowIndex] = 1.0;
+    minimizerProbabilities[minMaxColumnIndex] = 1.0;
+    return maxMin;
+  }
+
+  /**
+   * The maximizer plays the first row with probability p, and gets
+   * f(p) = min_j (second[j] + p * (first[j] - second[j])); f is concave, so it is maximized at
+   * p=0, at p=1, or where two columns' lines cross. The minimizer mixes the two columns on which
+   * the maximizer is then indifferent, one line going up and one going down.
+   *
+   * @return {p, value}, or <code>null</code> if the rounding errors make the result unreliable
+   */
+  private static double[] solveTwoRows(double[] first, double[] second,
+      double[] minimizerProbabilities) {
+    int length = first.length;
+    double[] slopes = new double[length];
+    for (int index = 0; index < length; index++) {
+      slopes[index] = first[index] - second[index];
+    }
+
+    double bestProbability = 0.0;
+    double bestValue = evaluate(second, slopes, 0.0);
+    double valueAtOne = evaluate(second, slopes, 1.0);
+    if (valueAtOne > bestValue) {
+      bestProbability = 1.0;
+      bestValue = valueAtOne;
+    }
+    for (int index = 0; index < length; index++) {
+      for (int otherIndex = index + 1; otherIndex < length; otherIndex++) {
+        double slopeDifference = slopes[index] - slopes[otherIndex];
+        if (slopeDifference == 0.0) {
+          continue;
+        }
+        double probability = (second[otherIndex] - second[index]) / slopeDifference;
+        if (probability <= 0.0 || probability >= 1.0) {
+          continue;
+        }
+        double value = evaluate(second, slopes, probability);
+        if (value > bestValue) {
+          bestProbability = probability;
+          bestValue = value;
+        }
+      }
+    }
+
+    // among the columns reaching the value, the steepest ones up and down
+    int upIndex = -1;
+    int downIndex = -1;
+    for (int index = 0; index < length; index++) {
+      double lineValue = second[index] + bestProbability * slopes[index];
+      if (lineValue - bestValue > TOLERANCE * (1 + Math.abs(bestValue))) {
+        continue;
+      }
+      if (upIndex < 0 || slopes[index] > slopes[upIndex]) {
+        upIndex = index;
+      }
+      if (downIndex < 0 || slopes[index] < slopes[downIndex]) {
+        downIndex = index;
+      }
+    }
+
+    if ((bestProbability < 1.0 && slopes[downIndex] > 0.0)
+        || (bestProbability > 0.0 && slopes[upIndex] < 0.0)) {
+      // f could still go up, so the crossing found is off because of the rounding errors
+      return null;
+    }
+    if (bestProbability == 0.0 || slopes[upIndex] == slopes[downIndex]) {
+      // the second row is a best response to the column, as are both rows if the line is flat
+      minimizerProbabilities[downIndex] = 1.0;
+    } else if (bestProbability == 1.0) {
+      minimizerProbabilities[upIndex] = 1.0;
+    } else {
+      double slopeDifference = slopes[upIndex] - slopes[downIndex];
+      minimizerProbabilities[upIndex] = -slopes[downIndex] / slopeDifference;
+      minimizerProbabilities[downIndex] = slopes[upIndex] / slopeDifference;
+    }
+    return new double[] {bestProbability, bestValue};
+  }
+
+  private static double evaluate(double[] intercepts, double[] slopes, double probability) {
+    double min = Double.POSITIVE_INFINITY;
+    for (int index = 0; index < intercepts.length; index++) {
+      min = Math.min(min, intercepts[index] + probability * slopes[index]);
+    }
+    return min;
+  }
+}
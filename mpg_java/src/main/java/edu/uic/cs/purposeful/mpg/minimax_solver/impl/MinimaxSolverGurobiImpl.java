@@ -1,19 +1,28 @@
 package edu.uic.cs.purposeful.mpg.minimax_solver.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.math3.util.MathUtils;
 import org.apache.log4j.Logger;
 
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.WorkerThreadPool;
+import edu.uic.cs.purposeful.mpg.minimax_solver.DominancePresolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
 import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverSession;
+import edu.uic.cs.purposeful.mpg.minimax_solver.SmallGameSolver;
 import gurobi.GRB;
+import gurobi.GRBConstr;
 import gurobi.GRBEnv;
 import gurobi.GRBException;
 import gurobi.GRBLinExpr;
@@ -23,7 +32,21 @@ import gurobi.GRBVar;
 public class MinimaxSolverGurobiImpl extends MinimaxSolver {
   private static final Logger LOGGER = Logger.getLogger(MinimaxSolverGurobiImpl.class);
 
-  private static final GRBEnv ENV = createGRBEnv();
+  /**
+   * One environment per worker thread, created for the thread's first game and reused by all its
+   * later games, so concurrent games neither share Gurobi's native state nor set up an environment
+   * each time. A model stays on the thread whose environment created it. The games are solved on
+   * the long-lived threads of {@link WorkerThreadPool} (and of the racing pool of
+   * MinimaxSolverRouter), so the number of environments is bounded by the number of threads.
+   */
+  private static final ThreadLocal<GRBEnv> THREAD_ENV =
+      ThreadLocal.withInitial(MinimaxSolverGurobiImpl::createGRBEnv);
+  // all the environments created, disposed when the JVM exits
+  private static final List<GRBEnv> ENVS = new CopyOnWriteArrayList<>();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(MinimaxSolverGurobiImpl::disposeGRBEnvs));
+  }
 
   private static final Map<Integer, Pair<String, String>> ERROR_CODES = initializeErrorCodes();
 
@@ -33,12 +56,51 @@ public class MinimaxSolverGurobiImpl extends MinimaxSolver {
       env = new GRBEnv();
       env.set(GRB.DoubleParam.TimeLimit, TIME_OUT_SECONDS);
       env.set(GRB.IntParam.OutputFlag, 0); // no Gurobi output
+      if (MPGConfig.GUROBI_THREADS_PER_ENV > 0) {
+        env.set(GRB.IntParam.Threads, MPGConfig.GUROBI_THREADS_PER_ENV);
+      }
     } catch (GRBException e) {
       throw new PurposefulBaseException(e);
     }
+    ENVS.add(env);
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Created Gurobi environment #" + ENVS.size() + " for thread "
+          + Thread.currentThread().getName());
+    }
     return env;
   }
 
+  /**
+   * How many environments have been created and not disposed yet, for monitoring.
+   */
+  public static int getNumberOfEnvironments() {
+    return ENVS.size();
+  }
+
+  private static void disposeGRBEnvs() {
+    for (GRBEnv env : ENVS) {
+      try {
+        env.dispose();
+      } catch (GRBException e) {
+        LOGGER.warn("Failed to dispose Gurobi environment.", e);
+      }
+    }
+    ENVS.clear();
+  }
+
+  public MinimaxSolverGurobiImpl() {
+    // create this thread's environment now, so that a missing library or license fails here
+    THREAD_ENV.get();
+  }
+
+  /**
+   * @see MinimaxSolver#MinimaxSolver(boolean)
+   */
+  public MinimaxSolverGurobiImpl(boolean presolves) {
+    super(presolves);
+    THREAD_ENV.get();
+  }
+
   private static Map<Integer, Pair<String, String>> initializeErrorCodes() {
     Map<Integer, Pair<String, String>> descriptionsByErrorCode = new HashMap<>();
     descriptionsByErrorCode.put(1,
@@ -91,20 +153,321 @@ public class MinimaxSolverGurobiImpl extends MinimaxSolver {
     return descriptionsByErrorCode;
   }
 
+  /**
+   * Keeps one model per player alive for the whole game. When the score matrix grows, only the new
+   * variable (maximizer's row) or constraint (minimizer's column) is added, and Gurobi re-optimizes
+   * from the previous basis. A model is rebuilt only when a new score falls below the shift that
+   * makes the matrix positive, or when another matrix is passed in. If the solver
+   * {@link #presolves()}, the models only cover the strategies {@link DominancePresolver} keeps,
+   * and are also rebuilt whenever those are not just the previous ones plus some new ones.
+   */
+  private class IncrementalSession implements MinimaxSolverSession {
+    private final IncrementalModel maximizerModel = new IncrementalModel(false);
+    private final IncrementalModel minimizerModel = new IncrementalModel(true);
+
+    @Override
+    public Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix) {
+      Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
+      Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+      MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+      if (smallGameSolution != null) {
+        return Pair.of(smallGameSolution.getMaximizerProbabilities(),
+            smallGameSolution.getMaximizerValue());
+      }
+      MinimaxSolution solution = maximizerModel.solve(scoreMatrix, presolve(scoreMatrix), false);
+      return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+    }
+
+    @Override
+    public Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix) {
+      Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
+      Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+      MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+      if (smallGameSolution != null) {
+        return Pair.of(smallGameSolution.getMinimizerProbabilities(),
+            smallGameSolution.getMinimizerValue());
+      }
+      MinimaxSolution internalMinResult =
+          minimizerModel.solve(scoreMatrix, presolve(scoreMatrix), false);
+      // value is has the same sign with maximizer
+      return Pair.of(internalMinResult.getMaximizerProbabilities(),
+          -internalMinResult.getMaximizerValue());
+    }
+
+    @Override
+    public MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix) {
+      Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
+      Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+      MinimaxSolution smallGameSolution = SmallGameSolver.solve(scoreMatrix);
+      if (smallGameSolution != null) {
+        return smallGameSolution;
+      }
+      MinimaxSolution solution = maximizerModel.solve(scoreMatrix, presolve(scoreMatrix), true);
+      if (solution.getMinimizerProbabilities() != null) {
+        return solution;
+      }
+
+      Pair<double[], Double> minimizerResult = findMinimizerProbabilities(scoreMatrix);
+      return new MinimaxSolution(solution.getMaximizerProbabilities(),
+          solution.getMaximizerValue(), minimizerResult.getLeft(), minimizerResult.getRight());
+    }
+
+    private DominancePresolver presolve(ScoreMatrix scoreMatrix) {
+      return presolves() ? DominancePresolver.presolve(scoreMatrix) : null;
+    }
+
+    @Override
+    public boolean providesDualSolution() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      maximizerModel.dispose();
+      minimizerModel.dispose();
+    }
+  }
+
+  private static class IncrementalModel {
+    private final boolean isNegativeTransposed;
+    private final List<GRBVar> variables = new ArrayList<>();
+    private final List<GRBConstr> constraints = new ArrayList<>();
+    // the original row (column if transposed) of each variable, and column (row) of each
+    // constraint, of the matrix bound; null if they are the same
+    private int[] variableIndices;
+    private int[] constraintIndices;
+    private ScoreMatrix boundScoreMatrix;
+    private int boundNumberOfCompactions;
+    private GRBModel model;
+    private double nonPositiveCompensate;
+    private double compensatedMaximumScore;
+
+    private IncrementalModel(boolean isNegativeTransposed) {
+      this.isNegativeTransposed = isNegativeTransposed;
+    }
+
+    /**
+     * @param presolver the strategies to keep, all of them if <code>null</code>
+     * @return the probabilities over all the strategies, the removed ones get zero
+     */
+    private MinimaxSolution solve(ScoreMatrix scoreMatrix, DominancePresolver presolver,
+        boolean readsDualSolution) {
+      int[] rowIndices = (presolver == null) ? null : presolver.getRowIndices();
+      int[] columnIndices = (presolver == null) ? null : presolver.getColumnIndices();
+      int[] newVariableIndices = isNegativeTransposed ? columnIndices : rowIndices;
+      int[] newConstraintIndices = isNegativeTransposed ? rowIndices : columnIndices;
+      int numberOfRows = (newVariableIndices != null) ? newVariableIndices.length
+          : isNegativeTransposed ? scoreMatrix.getColumnSize() : scoreMatrix.getRowSize();
+      int numberOfColumns = (newConstraintIndices != null) ? newConstraintIndices.length
+          : isNegativeTransposed ? scoreMatrix.getRowSize() : scoreMatrix.getColumnSize();
+      // the reduced matrix is within the whole one's scores, so the same shift works for both
+      double minimumScore =
+          isNegativeTransposed ? -scoreMatrix.getMaximum() : scoreMatrix.getMinimum();
+      double maximumScore =
+          isNegativeTransposed ? -scoreMatrix.getMinimum() : scoreMatrix.getMaximum();
+
+      try {
+        // once compacted, the existing variables and constraints may stand for other cells
+        if (model == null || boundScoreMatrix != scoreMatrix
+            || boundNumberOfCompactions != scoreMatrix.getNumberOfCompactions()
+            || !extendsBoundIndices(variableIndices, newVariableIndices, numberOfRows,
+                variables.size())
+            || !extendsBoundIndices(constraintIndices, newConstraintIndices, numberOfColumns,
+                constraints.size())
+            || minimumScore + nonPositiveCompensate <= 0) {
+          rebuild(scoreMatrix, minimumScore, maximumScore);
+        }
+        variableIndices = newVariableIndices;
+        constraintIndices = newConstraintIndices;
+
+        // each new variable comes with its coefficients in the existing constraints
+        if (numberOfRows > variables.size()) {
+          GRBConstr[] termConstraints = new GRBConstr[constraints.size()];
+          double[] termCoefficients = new double[constraints.size()];
+          for (int rowIndex = variables.size(); rowIndex < numberOfRows; rowIndex++) {
+            int numberOfTerms = 0;
+            for (int columnIndex = 0; columnIndex < constraints.size(); columnIndex++) {
+              double score = normalize(getValue(scoreMatrix, rowIndex, columnIndex));
+              if (score != 0.0) {
+                termConstraints[numberOfTerms] = constraints.get(columnIndex);
+                termCoefficients[numberOfTerms] = score;
+                numberOfTerms++;
+              }
+            }
+            variables.add(model.addVar(/* lower bound */0.0, GRB.INFINITY, OBJECTIVE_COEFFICIENT,
+                GRB.CONTINUOUS, Arrays.copyOf(termConstraints, numberOfTerms),
+                Arrays.copyOf(termCoefficients, numberOfTerms), /* default name */null));
+          }
+          model.update();
+        }
+
+        // each new constraint covers all the variables, all of them are added in one call
+        int numberOfNewConstraints = numberOfColumns - constraints.size();
+        if (numberOfNewConstraints > 0) {
+          GRBLinExpr[] lhsExpressions = new GRBLinExpr[numberOfNewConstraints];
+          char[] senses = new char[numberOfNewConstraints];
+          double[] rhsValues = new double[numberOfNewConstraints];
+          String[] names = new String[numberOfNewConstraints];
+          GRBVar[] termVariables = new GRBVar[numberOfRows];
+          double[] termCoefficients = new double[numberOfRows];
+          for (int index = 0; index < numberOfNewConstraints; index++) {
+            int columnIndex = constraints.size() + index;
+            int numberOfTerms = 0;
+            for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+              double score = normalize(getValue(scoreMatrix, rowIndex, columnIndex));
+              if (score != 0.0) {
+                termVariables[numberOfTerms] = variables.get(rowIndex);
+                termCoefficients[numberOfTerms] = score;
+                numberOfTerms++;
+              }
+            }
+            lhsExpressions[index] = new GRBLinExpr();
+            lhsExpressions[index].addTerms(termCoefficients, termVariables, 0, numberOfTerms);
+            senses[index] = GRB.GREATER_EQUAL;
+            rhsValues[index] = RHS_VALUE;
+            names[index] = String.valueOf(columnIndex);
+          }
+          constraints
+              .addAll(Arrays.asList(model.addConstrs(lhsExpressions, senses, rhsValues, names)));
+        }
+
+        model.optimize();
+        if (MPGConfig.SHOW_RUNNING_TRACING) {
+          System.err.print("*");
+        }
+        assertOptimal(model);
+
+        double[] xArray =
+            model.get(GRB.DoubleAttr.X, variables.toArray(new GRBVar[variables.size()]));
+        double[] yArray = readsDualSolution
+            ? model.get(GRB.DoubleAttr.Pi, constraints.toArray(new GRBConstr[constraints.size()]))
+            : null;
+        MinimaxSolution solution =
+            toSolution(xArray, yArray, nonPositiveCompensate, compensatedMaximumScore);
+        return (presolver == null) ? solution : expand(solution, presolver);
+      } catch (GRBException e) {
+        dispose(); // the model may be half updated, start over next time
+        throw new PurposefulBaseException(e);
+      }
+    }
+
+    private MinimaxSolution expand(MinimaxSolution solution, DominancePresolver presolver) {
+      if (!isNegativeTransposed) {
+        return presolver.expand(solution);
+      }
+      // the variables are the minimizer's
+      double[] yProbabilities = solution.getMinimizerProbabilities();
+      return new MinimaxSolution(
+          presolver.expandMinimizerProbabilities(solution.getMaximizerProbabilities()),
+          solution.getMaximizerValue(),
+          (yProbabilities == null) ? null : presolver.expandMaximizerProbabilities(yProbabilities),
+          solution.getMinimizerValue());
+    }
+
+    /**
+     * Whether the first <code>numberOfBound</code> of the new indices are the bound ones, i.e. the
+     * existing variables or constraints still stand for the same strategies.
+     */
+    private static boolean extendsBoundIndices(int[] boundIndices, int[] newIndices,
+        int numberOfNew, int numberOfBound) {
+      if (numberOfNew < numberOfBound) {
+        return false;
+      }
+      for (int index = 0; index < numberOfBound; index++) {
+        if (indexAt(boundIndices, index) != indexAt(newIndices, index)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static int indexAt(int[] indices, int index) {
+      return (indices == null) ? index : indices[index];
+    }
+
+    /**
+     * The score of the variable's strategy against the constraint's.
+     */
+    private double getValue(ScoreMatrix scoreMatrix, int variableIndex, int constraintIndex) {
+      int rowIndex = indexAt(variableIndices, variableIndex);
+      int columnIndex = indexAt(constraintIndices, constraintIndex);
+      return isNegativeTransposed ? (-scoreMatrix.get(columnIndex, rowIndex))
+          : scoreMatrix.get(rowIndex, columnIndex);
+    }
+
+    private double normalize(double originalScore) {
+      // normalize score to ensure they are not too large
+      double score = (originalScore + nonPositiveCompensate) / compensatedMaximumScore;
+      if (Misc.roughlyEquals(score, 0.0)) {
+        return 0.0;
+      }
+      Assert.isTrue(score > 0, "Score passed to Gurobi solver should be positive.");
+      return score;
+    }
+
+    private void rebuild(ScoreMatrix scoreMatrix, double minimumScore, double maximumScore)
+        throws GRBException {
+      dispose();
+      // make sure the matrix is positive
+      nonPositiveCompensate = (minimumScore <= 0) ? (1 - minimumScore) : 0.0;
+      compensatedMaximumScore = maximumScore + nonPositiveCompensate;
+      model = new GRBModel(THREAD_ENV.get());
+      boundScoreMatrix = scoreMatrix;
+      boundNumberOfCompactions = scoreMatrix.getNumberOfCompactions();
+    }
+
+    private void dispose() {
+      variables.clear();
+      constraints.clear();
+      variableIndices = null;
+      constraintIndices = null;
+      boundScoreMatrix = null;
+      if (model != null) {
+        try {
+          model.dispose();
+        } catch (Exception e) {
+          LOGGER.error("Error when calling model.dispose()", e);
+        }
+        model = null;
+      }
+    }
+  }
+
+  @Override
+  public MinimaxSolverSession openSession() {
+    return new IncrementalSession();
+  }
+
+  @Override
+  public boolean providesDualSolution() {
+    return true;
+  }
+
   @Override
   protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper scoreMatrix,
       double minimumScore, double maximumScore) {
+    MinimaxSolution solution = solve(scoreMatrix, minimumScore, maximumScore, false);
+    return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+  }
+
+  @Override
+  protected MinimaxSolution findEquilibrium(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore) {
+    return solve(scoreMatrix, minimumScore, maximumScore, true);
+  }
+
+  private MinimaxSolution solve(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore, boolean readsDualSolution) {
     GRBModel model = null;
     try {
-      // make sure the matrix is positive
-      double nonPositiveCompensate = (minimumScore <= 0) ? (1 - minimumScore) : 0.0;
-      double compensatedMaximumScore = maximumScore + nonPositiveCompensate;
+      SparseColumns sparseColumns = scoreMatrix.toSparseColumns(minimumScore, maximumScore);
 
-      model = new GRBModel(ENV);
+      model = new GRBModel(THREAD_ENV.get());
 
       int numberOfRows = scoreMatrix.getNumberOfRows();
       int numberOfColumns = scoreMatrix.getNumberOfColumns();
 
+      // the objective sum(x) comes with the variables
       double[] objectiveCoefficients = new double[numberOfRows];
       Arrays.fill(objectiveCoefficients, OBJECTIVE_COEFFICIENT);
 
@@ -113,68 +476,38 @@ public class MinimaxSolverGurobiImpl extends MinimaxSolver {
           /* default continuous variables */null, /* all variables are given default names */null);
       model.update();
 
-      // add matrix A
-      double minInMatrix = Double.POSITIVE_INFINITY;
-      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
-        GRBLinExpr lhsExpression = new GRBLinExpr();
-        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
-          double originalScore = scoreMatrix.getValue(rowIndex, columnIndex);
-          minInMatrix = Math.min(minInMatrix, originalScore);
-
-          // normalize score to ensure they are not too large
-          double score = (originalScore + nonPositiveCompensate) / compensatedMaximumScore;
-          if (Misc.roughlyEquals(score, 0.0)) {
-            continue;
-          }
-          Assert.isTrue(score > 0, "Score passed to Gurobi solver should be positive.");
-          lhsExpression.addTerm(score, variables[rowIndex]);
-        }
-        // TODO consider using multi-thread?
-        model.addConstr(lhsExpression, GRB.GREATER_EQUAL, RHS_VALUE, /* constraint name */
-            String.valueOf(columnIndex));
+      // add matrix A, one expression per column over the slices of the sparse columns
+      int[] columnStarts = sparseColumns.getColumnStarts();
+      int[] rowIndices = sparseColumns.getRowIndices();
+      GRBVar[] termVariables = new GRBVar[columnStarts[numberOfColumns]];
+      for (int index = 0; index < termVariables.length; index++) {
+        termVariables[index] = variables[rowIndices[index]];
       }
-      Assert.isTrue(MathUtils.equals(minInMatrix, minimumScore),
-          "minInMatrix=" + minInMatrix + " != minimumScore=" + minimumScore);
-
-      // add objective
-      GRBLinExpr objective = new GRBLinExpr();
-      for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
-        objective.addTerm(OBJECTIVE_COEFFICIENT, variables[rowIndex]);
+      GRBLinExpr[] lhsExpressions = new GRBLinExpr[numberOfColumns];
+      char[] senses = new char[numberOfColumns];
+      double[] rhsValues = new double[numberOfColumns];
+      String[] names = new String[numberOfColumns];
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        lhsExpressions[columnIndex] = new GRBLinExpr();
+        lhsExpressions[columnIndex].addTerms(sparseColumns.getValues(), termVariables,
+            columnStarts[columnIndex], columnStarts[columnIndex + 1] - columnStarts[columnIndex]);
+        senses[columnIndex] = GRB.GREATER_EQUAL;
+        rhsValues[columnIndex] = RHS_VALUE;
+        names[columnIndex] = String.valueOf(columnIndex);
       }
-      model.setObjective(objective);
+      GRBConstr[] constraints = model.addConstrs(lhsExpressions, senses, rhsValues, names);
 
       model.optimize();
       if (MPGConfig.SHOW_RUNNING_TRACING) {
         System.err.print("*");
       }
+      assertOptimal(model);
 
-      int status = model.get(GRB.IntAttr.Status);
-      Assert.isTrue(status == GRB.Status.OPTIMAL,
-          "Gurobi error! status=[" + status + "], description=[" + ERROR_CODES.get(status) + "]");
-
-      double[] xArray = new double[numberOfRows];
-      double xSum = 0.0;
-      for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
-        double x = variables[rowIndex].get(GRB.DoubleAttr.X);
-        if (x >= 0) {
-          xArray[rowIndex] = x;
-          xSum += x;
-        } else {
-          if (MPGConfig.SHOW_RUNNING_TRACING) {
-            System.err.print("!");
-          }
-        }
-      }
-
-      for (int index = 0; index < xArray.length; index++) {
-        // the probabilities, round to specified value precision
-        xArray[index] = Misc.roundValue(xArray[index] / xSum);
-        Assert.isFalse(Double.isNaN(xArray[index]));
-      }
-
-      double value = Misc.roundValue(compensatedMaximumScore / xSum - nonPositiveCompensate);
-      Assert.isFalse(Double.isNaN(value));
-      return Pair.of(xArray, value);
+      double[] xArray = model.get(GRB.DoubleAttr.X, variables);
+      // the duals of the constraints are the minimizer's (unnormalized) probabilities
+      double[] yArray = readsDualSolution ? model.get(GRB.DoubleAttr.Pi, constraints) : null;
+      return toSolution(xArray, yArray, sparseColumns.getNonPositiveCompensate(),
+          sparseColumns.getCompensatedMaximum());
     } catch (GRBException e) {
       throw new PurposefulBaseException(e);
     } finally {
@@ -187,4 +520,37 @@ public class MinimaxSolverGurobiImpl extends MinimaxSolver {
       }
     }
   }
+
+  private static void assertOptimal(GRBModel model) throws GRBException {
+    int status = model.get(GRB.IntAttr.Status);
+    Assert.isTrue(status == GRB.Status.OPTIMAL,
+        "Gurobi error! status=[" + status + "], description=[" + ERROR_CODES.get(status) + "]");
+  }
+
+  private static MinimaxSolution toSolution(double[] xArray, double[] yArray,
+      double nonPositiveCompensate, double compensatedMaximumScore) {
+    double xSum = 0.0;
+    for (int rowIndex = 0; rowIndex < xArray.length; rowIndex++) {
+      if (xArray[rowIndex] >= 0) {
+        xSum += xArray[rowIndex];
+      } else {
+        xArray[rowIndex] = 0;
+        if (MPGConfig.SHOW_RUNNING_TRACING) {
+          System.err.print("!");
+        }
+      }
+    }
+
+    for (int index = 0; index < xArray.length; index++) {
+      // the probabilities, round to specified value precision
+      xArray[index] = Misc.roundValue(xArray[index] / xSum);
+      Assert.isFalse(Double.isNaN(xArray[index]));
+    }
+
+    double value = Misc.roundValue(compensatedMaximumScore / xSum - nonPositiveCompensate);
+    Assert.isFalse(Double.isNaN(value));
+
+    double[] yProbabilities = (yArray == null) ? null : toMinimizerProbabilities(yArray, xSum);
+    return new MinimaxSolution(xArray, value, yProbabilities, value);
+  }
 }
@@ -5,13 +5,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.math3.util.MathUtils;
 import org.apache.log4j.Logger;
 
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
 import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
 import lpsolve.LpSolve;
 import lpsolve.LpSolveException;
@@ -55,12 +55,34 @@ public class MinimaxSolverLpSolveImpl extends MinimaxSolver {
     return descriptionsByErrorCode;
   }
 
+  public MinimaxSolverLpSolveImpl() {
+    // load the native library now, so that a missing library fails here instead of in a solve
+    LpSolve.lpSolveVersion();
+  }
+
+  @Override
+  public boolean providesDualSolution() {
+    return true;
+  }
+
   @Override
   protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper scoreMatrix,
       double minimumScore, double maximumScore) {
-    // make sure the matrix is positive
-    double nonPositiveCompensate = (minimumScore <= 0) ? (1 - minimumScore) : 0.0;
-    double compensatedMaximumScore = maximumScore + nonPositiveCompensate;
+    MinimaxSolution solution = solve(scoreMatrix, minimumScore, maximumScore, false);
+    return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+  }
+
+  @Override
+  protected MinimaxSolution findEquilibrium(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore) {
+    return solve(scoreMatrix, minimumScore, maximumScore, true);
+  }
+
+  private MinimaxSolution solve(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore, boolean readsDualSolution) {
+    SparseColumns sparseColumns = scoreMatrix.toSparseColumns(minimumScore, maximumScore);
+    double nonPositiveCompensate = sparseColumns.getNonPositiveCompensate();
+    double compensatedMaximumScore = sparseColumns.getCompensatedMaximum();
 
     int numberOfVariables = scoreMatrix.getNumberOfRows();
     int numberOfConstraints = scoreMatrix.getNumberOfColumns();
@@ -73,29 +95,22 @@ public class MinimaxSolverLpSolveImpl extends MinimaxSolver {
       solver = LpSolve.makeLp(0, numberOfVariables);
       solver.setTimeout((long) TIME_OUT_SECONDS);
 
-      double minInMatrix = Double.POSITIVE_INFINITY;
+      // each constraint is one sparse column, given with its (1-based) variable numbers
+      int[] columnStarts = sparseColumns.getColumnStarts();
+      int[] variableNumbers = sparseColumns.getRowIndices().clone();
+      for (int index = 0; index < columnStarts[numberOfConstraints]; index++) {
+        variableNumbers[index]++;
+      }
       solver.setAddRowmode(true);
       for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
-        double[] constraint = new double[numberOfVariables + 1];
-        for (int variableIndex = 0; variableIndex < numberOfVariables; variableIndex++) {
-          double originalScore = scoreMatrix.getValue(variableIndex, constraintIndex);
-          minInMatrix = Math.min(minInMatrix, originalScore);
-
-          // normalize score to ensure they are not too large
-          double score = (originalScore + nonPositiveCompensate) / compensatedMaximumScore;
-          if (Misc.roughlyEquals(score, 0.0)) {
-            continue;
-          }
-          Assert.isTrue(score > 0, "Score passed to LpSolve should be positive.");
-          constraint[variableIndex + 1] = score;
-        }
-        solver.addConstraint(constraint, LpSolve.GE, RHS_VALUE);
+        int start = columnStarts[constraintIndex];
+        int end = columnStarts[constraintIndex + 1];
+        solver.addConstraintex(end - start,
+            Arrays.copyOfRange(sparseColumns.getValues(), start, end),
+            Arrays.copyOfRange(variableNumbers, start, end), LpSolve.GE, RHS_VALUE);
       }
       solver.setAddRowmode(false);
 
-      Assert.isTrue(MathUtils.equals(minInMatrix, minimumScore),
-          "minInMatrix=" + minInMatrix + " != minimumScore=" + minimumScore);
-
       solver.setObjFn(objectiveCoefficients);
       // default lower bound of each variable is 0
       // default upper bound of a variable is infinity
@@ -130,7 +145,17 @@ public class MinimaxSolverLpSolveImpl extends MinimaxSolver {
       }
       double value = Misc.roundValue(compensatedMaximumScore / xSum - nonPositiveCompensate);
       Assert.isFalse(Double.isNaN(value));
-      return Pair.of(xArray, value);
+
+      double[] yProbabilities = null;
+      if (readsDualSolution) {
+        // [0] is the objective, then one dual value per constraint, then the reduced costs
+        double[] dualSolution = solver.getPtrDualSolution();
+        if (dualSolution != null && dualSolution.length > numberOfConstraints) {
+          yProbabilities = toMinimizerProbabilities(
+              Arrays.copyOfRange(dualSolution, 1, 1 + numberOfConstraints), xSum);
+        }
+      }
+      return new MinimaxSolution(xArray, value, yProbabilities, value);
     } catch (LpSolveException e) {
       throw new PurposefulBaseException(e);
     } finally {
@@ -0,0 +1,401 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver.impl;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.log4j.Logger;
+
+import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.minimax_solver.DominancePresolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverSession;
+import edu.uic.cs.purposeful.mpg.minimax_solver.SmallGameSolver;
+
+/**
+ * An approximate solver for very large games: the mirror-prox method with entropic
+ * (multiplicative) updates, which only multiplies the score matrix with vectors. It stops once
+ * the duality gap of the averaged strategies, max_i (Aq)_i - min_j (pA)_j, is no larger than
+ * {@link MPGConfig#MIRROR_PROX_DUALITY_GAP} times the range of the scores; the returned value is
+ * then within half of that gap from the game value. Both players' strategies come from the same
+ * run, and a session warm-starts each run from the strategies of the previous one (of the
+ * strategies {@link DominancePresolver} keeps, if the solver presolves).
+ */
+public class MinimaxSolverMirrorProxImpl extends MinimaxSolver {
+  private static final Logger LOGGER = Logger.getLogger(MinimaxSolverMirrorProxImpl.class);
+
+  // share of the uniform distribution mixed into the start, so that every strategy gets a chance
+  private static final double WARM_START_UNIFORM_WEIGHT = 0.1;
+  // a restart's averaged probabilities may be tiny or even underflow to 0, from which a strategy of
+  // the support could take too long or never come back, so they restart from (at least) this one
+  private static final double RESTART_MIN_PROBABILITY = 1e-12;
+
+  private class WarmStartSession implements MinimaxSolverSession {
+    private double[] previousMaximizerProbabilities;
+    private double[] previousMinimizerProbabilities;
+    private int previousNumberOfCompactions;
+
+    @Override
+    public Pair<double[], Double> findMaximizerProbabilities(ScoreMatrix scoreMatrix) {
+      MinimaxSolution solution = findEquilibrium(scoreMatrix);
+      return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+    }
+
+    @Override
+    public Pair<double[], Double> findMinimizerProbabilities(ScoreMatrix scoreMatrix) {
+      MinimaxSolution solution = findEquilibrium(scoreMatrix);
+      return Pair.of(solution.getMinimizerProbabilities(), solution.getMinimizerValue());
+    }
+
+    @Override
+    public MinimaxSolution findEquilibrium(ScoreMatrix scoreMatrix) {
+      Assert.isTrue(scoreMatrix.getRowSize() > 0, "scoreMatrix.getRowSize() <= 0");
+      Assert.isTrue(scoreMatrix.getColumnSize() > 0, "scoreMatrix.getColumnSize() <= 0");
+      if (previousNumberOfCompactions != scoreMatrix.getNumberOfCompactions()) {
+        // the previous strategies are not aligned with the compacted rows and columns anymore
+        previousMaximizerProbabilities = null;
+        previousMinimizerProbabilities = null;
+        previousNumberOfCompactions = scoreMatrix.getNumberOfCompactions();
+      }
+      MinimaxSolution solution = SmallGameSolver.solve(scoreMatrix);
+      DominancePresolver presolver = (solution == null && presolves())
+          ? DominancePresolver.presolve(scoreMatrix) : null;
+      if (presolver != null) {
+        ScoreMatrix reducedMatrix = presolver.getReducedMatrix();
+        solution = presolver.expand(solve(reducedMatrix.toRowMajorArray(),
+            reducedMatrix.getRowSize(), reducedMatrix.getColumnSize(), reducedMatrix.getMinimum(),
+            reducedMatrix.getMaximum(),
+            restrict(previousMaximizerProbabilities, presolver.getRowIndices()),
+            restrict(previousMinimizerProbabilities, presolver.getColumnIndices())));
+      } else if (solution == null) {
+        solution = solve(scoreMatrix.toRowMajorArray(), scoreMatrix.getRowSize(),
+            scoreMatrix.getColumnSize(), scoreMatrix.getMinimum(), scoreMatrix.getMaximum(),
+            previousMaximizerProbabilities, previousMinimizerProbabilities);
+      }
+      previousMaximizerProbabilities = solution.getMaximizerProbabilities();
+      previousMinimizerProbabilities = solution.getMinimizerProbabilities();
+      return solution;
+    }
+
+    @Override
+    public boolean providesDualSolution() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+      previousMaximizerProbabilities = null;
+      previousMinimizerProbabilities = null;
+    }
+  }
+
+  public MinimaxSolverMirrorProxImpl() {
+    super();
+  }
+
+  /**
+   * @see MinimaxSolver#MinimaxSolver(boolean)
+   */
+  public MinimaxSolverMirrorProxImpl(boolean presolves) {
+    super(presolves);
+  }
+
+  @Override
+  public MinimaxSolverSession openSession() {
+    return new WarmStartSession();
+  }
+
+  @Override
+  public boolean providesDualSolution() {
+    return true;
+  }
+
+  @Override
+  protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper scoreMatrix,
+      double minimumScore, double maximumScore) {
+    MinimaxSolution solution = findEquilibrium(scoreMatrix, minimumScore, maximumScore);
+    return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+  }
+
+  @Override
+  protected MinimaxSolution findEquilibrium(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore) {
+    int numberOfRows = scoreMatrix.getNumberOfRows();
+    int numberOfColumns = scoreMatrix.getNumberOfColumns();
+    double[] scores = new double[numberOfRows * numberOfColumns];
+    for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        scores[rowIndex * numberOfColumns + columnIndex] =
+            scoreMatrix.getValue(rowIndex, columnIndex);
+      }
+    }
+    return solve(scores, numberOfRows, numberOfColumns, minimumScore, maximumScore, null, null);
+  }
+
+  /**
+   * @param scores the row-major scores, which are overwritten
+   * @param initialMaximizerProbabilities where to start from, uniform if <code>null</code>
+   * @param initialMinimizerProbabilities where to start from, uniform if <code>null</code>
+   */
+  private MinimaxSolution solve(double[] scores, int numberOfRows, int numberOfColumns,
+      double minimumScore, double maximumScore, double[] initialMaximizerProbabilities,
+      double[] initialMinimizerProbabilities) {
+    double scoreRange = maximumScore - minimumScore;
+    if (Misc.roughlyEquals(scoreRange, 0.0)) { // any strategy is optimal
+      double[] maximizerProbabilities = new double[numberOfRows];
+      Arrays.fill(maximizerProbabilities, Misc.roundValue(1.0 / numberOfRows));
+      double[] minimizerProbabilities = new double[numberOfColumns];
+      Arrays.fill(minimizerProbabilities, Misc.roundValue(1.0 / numberOfColumns));
+      double value = Misc.roundValue(maximumScore);
+      return new MinimaxSolution(maximizerProbabilities, value, minimizerProbabilities, value);
+    }
+
+    for (int index = 0; index < scores.length; index++) {
+      scores[index] = (scores[index] - minimumScore) / scoreRange;
+    }
+
+    double[] maximizerProbabilities =
+        toStartingProbabilities(initialMaximizerProbabilities, numberOfRows);
+    double[] minimizerProbabilities =
+        toStartingProbabilities(initialMinimizerProbabilities, numberOfColumns);
+
+    // rowPayoffs = Aq is what each maximizer's strategy gets, columnPayoffs = pA for minimizer's
+    double[] rowPayoffs = new double[numberOfRows];
+    double[] columnPayoffs = new double[numberOfColumns];
+    multiply(scores, numberOfRows, numberOfColumns, minimizerProbabilities, rowPayoffs);
+    multiplyTransposed(scores, numberOfRows, numberOfColumns, maximizerProbabilities,
+        columnPayoffs);
+
+    // the best strategies so far, and the bounds of the game value they certify
+    double[] bestMaximizerProbabilities = maximizerProbabilities.clone();
+    double[] bestMinimizerProbabilities = minimizerProbabilities.clone();
+    double upperBound = max(rowPayoffs);
+    double lowerBound = min(columnPayoffs);
+
+    // the sums of the extrapolated strategies since the last restart, and of the payoffs
+    // against them
+    double[] maximizerProbabilitySums = new double[numberOfRows];
+    double[] minimizerProbabilitySums = new double[numberOfColumns];
+    double[] rowPayoffSums = new double[numberOfRows];
+    double[] columnPayoffSums = new double[numberOfColumns];
+    double[] maximizerLogWeightsHalf = new double[numberOfRows];
+    double[] minimizerLogWeightsHalf = new double[numberOfColumns];
+    double[] maximizerProbabilitiesHalf = new double[numberOfRows];
+    double[] minimizerProbabilitiesHalf = new double[numberOfColumns];
+
+    // the start may be good enough already, e.g. when warm-started from the same game
+    double[] maximizerLogWeights = new double[numberOfRows];
+    double[] minimizerLogWeights = new double[numberOfColumns];
+    if (upperBound - lowerBound > MPGConfig.MIRROR_PROX_DUALITY_GAP) {
+      // no strategy may start from 0, which the multiplicative updates can't move away from
+      toLogWeights(maximizerProbabilities, maximizerLogWeights);
+      toLogWeights(minimizerProbabilities, minimizerLogWeights);
+      toProbabilities(maximizerLogWeights, maximizerProbabilities);
+      toProbabilities(minimizerLogWeights, minimizerProbabilities);
+      multiply(scores, numberOfRows, numberOfColumns, minimizerProbabilities, rowPayoffs);
+      multiplyTransposed(scores, numberOfRows, numberOfColumns, maximizerProbabilities,
+          columnPayoffs);
+    }
+
+    double stepSize = MPGConfig.MIRROR_PROX_STEP_SIZE;
+    int iteration = 0;
+    int numberOfAveragedIterations = 0;
+    while (upperBound - lowerBound > MPGConfig.MIRROR_PROX_DUALITY_GAP
+        && iteration < MPGConfig.MIRROR_PROX_MAX_NUMBER_OF_ITERATIONS) {
+      iteration++;
+      // extrapolation step, from the payoffs of the current strategies
+      for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+        maximizerLogWeightsHalf[rowIndex] =
+            maximizerLogWeights[rowIndex] + stepSize * rowPayoffs[rowIndex];
+      }
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        minimizerLogWeightsHalf[columnIndex] =
+            minimizerLogWeights[columnIndex] - stepSize * columnPayoffs[columnIndex];
+      }
+      toProbabilities(maximizerLogWeightsHalf, maximizerProbabilitiesHalf);
+      toProbabilities(minimizerLogWeightsHalf, minimizerProbabilitiesHalf);
+
+      // update step, from the payoffs of the extrapolated strategies
+      multiply(scores, numberOfRows, numberOfColumns, minimizerProbabilitiesHalf, rowPayoffs);
+      multiplyTransposed(scores, numberOfRows, numberOfColumns, maximizerProbabilitiesHalf,
+          columnPayoffs);
+      for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+        maximizerLogWeights[rowIndex] += stepSize * rowPayoffs[rowIndex];
+        maximizerProbabilitySums[rowIndex] += maximizerProbabilitiesHalf[rowIndex];
+        rowPayoffSums[rowIndex] += rowPayoffs[rowIndex];
+      }
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        minimizerLogWeights[columnIndex] -= stepSize * columnPayoffs[columnIndex];
+        minimizerProbabilitySums[columnIndex] += minimizerProbabilitiesHalf[columnIndex];
+        columnPayoffSums[columnIndex] += columnPayoffs[columnIndex];
+      }
+      numberOfAveragedIterations++;
+
+      // the payoffs are linear, so those against the averaged strategies are averaged too
+      double averagedUpperBound = max(rowPayoffSums) / numberOfAveragedIterations;
+      double averagedLowerBound = min(columnPayoffSums) / numberOfAveragedIterations;
+      boolean isLastIteration = iteration == MPGConfig.MIRROR_PROX_MAX_NUMBER_OF_ITERATIONS;
+      if (averagedUpperBound - averagedLowerBound <= (upperBound - lowerBound) / 2
+          || (isLastIteration
+              && averagedUpperBound - averagedLowerBound < upperBound - lowerBound)) {
+        // restart from the averaged strategies each time the gap halves, much faster than
+        // averaging over all the iterations
+        for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+          bestMaximizerProbabilities[rowIndex] =
+              maximizerProbabilitySums[rowIndex] / numberOfAveragedIterations;
+          maximizerLogWeights[rowIndex] =
+              Math.log(Math.max(bestMaximizerProbabilities[rowIndex], RESTART_MIN_PROBABILITY));
+        }
+        for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+          bestMinimizerProbabilities[columnIndex] =
+              minimizerProbabilitySums[columnIndex] / numberOfAveragedIterations;
+          minimizerLogWeights[columnIndex] = Math.log(
+              Math.max(bestMinimizerProbabilities[columnIndex], RESTART_MIN_PROBABILITY));
+        }
+        upperBound = averagedUpperBound;
+        lowerBound = averagedLowerBound;
+
+        Arrays.fill(maximizerProbabilitySums, 0.0);
+        Arrays.fill(minimizerProbabilitySums, 0.0);
+        Arrays.fill(rowPayoffSums, 0.0);
+        Arrays.fill(columnPayoffSums, 0.0);
+        numberOfAveragedIterations = 0;
+      }
+
+      toProbabilities(maximizerLogWeights, maximizerProbabilities);
+      toProbabilities(minimizerLogWeights, minimizerProbabilities);
+      multiply(scores, numberOfRows, numberOfColumns, minimizerProbabilities, rowPayoffs);
+      multiplyTransposed(scores, numberOfRows, numberOfColumns, maximizerProbabilities,
+          columnPayoffs);
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Stopped after [" + iteration + "] iterations with duality gap ["
+          + (upperBound - lowerBound) * scoreRange + "].");
+    }
+    if (MPGConfig.SHOW_RUNNING_TRACING) {
+      System.err.print("~");
+    }
+
+    for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+      // the probabilities, round to specified value precision
+      bestMaximizerProbabilities[rowIndex] =
+          Misc.roundValue(bestMaximizerProbabilities[rowIndex]);
+    }
+    for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+      bestMinimizerProbabilities[columnIndex] =
+          Misc.roundValue(bestMinimizerProbabilities[columnIndex]);
+    }
+    double value =
+        Misc.roundValue(minimumScore + scoreRange * (upperBound + lowerBound) / 2.0);
+    Assert.isFalse(Double.isNaN(value));
+    return new MinimaxSolution(bestMaximizerProbabilities, value, bestMinimizerProbabilities,
+        value);
+  }
+
+  /**
+   * The previous strategy's probabilities of the kept strategies (0 for the new ones),
+   * renormalized; <code>null</code> if there is none or none of them has been played.
+   */
+  private static double[] restrict(double[] previousProbabilities, int[] keptIndices) {
+    if (previousProbabilities == null) {
+      return null;
+    }
+    double[] probabilities = new double[keptIndices.length];
+    double sum = 0.0;
+    for (int index = 0; index < keptIndices.length; index++) {
+      if (keptIndices[index] < previousProbabilities.length) {
+        probabilities[index] = previousProbabilities[keptIndices[index]];
+        sum += probabilities[index];
+      }
+    }
+    if (sum <= 0.0) {
+      return null;
+    }
+    for (int index = 0; index < probabilities.length; index++) {
+      probabilities[index] /= sum;
+    }
+    return probabilities;
+  }
+
+  /**
+   * Pads the previous strategies with 0 for the new ones, or returns uniform ones.
+   */
+  private double[] toStartingProbabilities(double[] initialProbabilities, int size) {
+    double[] probabilities = new double[size];
+    if (initialProbabilities == null || initialProbabilities.length > size) {
+      Arrays.fill(probabilities, 1.0 / size);
+    } else {
+      System.arraycopy(initialProbabilities, 0, probabilities, 0, initialProbabilities.length);
+    }
+    return probabilities;
+  }
+
+  private void toLogWeights(double[] probabilities, double[] logWeights) {
+    for (int index = 0; index < probabilities.length; index++) {
+      logWeights[index] = Math.log((1 - WARM_START_UNIFORM_WEIGHT) * probabilities[index]
+          + WARM_START_UNIFORM_WEIGHT / probabilities.length);
+    }
+  }
+
+  /**
+   * Also shifts the log weights so that the largest is 0, which keeps them from overflowing.
+   */
+  private void toProbabilities(double[] logWeights, double[] probabilities) {
+    double maxLogWeight = max(logWeights);
+    double sum = 0.0;
+    for (int index = 0; index < logWeights.length; index++) {
+      logWeights[index] -= maxLogWeight;
+      probabilities[index] = Math.exp(logWeights[index]);
+      sum += probabilities[index];
+    }
+    for (int index = 0; index < probabilities.length; index++) {
+      probabilities[index] /= sum;
+    }
+  }
+
+  private void multiply(double[] scores, int numberOfRows, int numberOfColumns,
+      double[] minimizerProbabilities, double[] rowPayoffs) {
+    for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+      int offset = rowIndex * numberOfColumns;
+      double payoff = 0.0;
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        payoff += scores[offset + columnIndex] * minimizerProbabilities[columnIndex];
+      }
+      rowPayoffs[rowIndex] = payoff;
+    }
+  }
+
+  private void multiplyTransposed(double[] scores, int numberOfRows, int numberOfColumns,
+      double[] maximizerProbabilities, double[] columnPayoffs) {
+    Arrays.fill(columnPayoffs, 0.0);
+    for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+      double probability = maximizerProbabilities[rowIndex];
+      if (probability == 0.0) {
+        continue;
+      }
+      int offset = rowIndex * numberOfColumns;
+      for (int columnIndex = 0; columnIndex < numberOfColumns; columnIndex++) {
+        columnPayoffs[columnIndex] += probability * scores[offset + columnIndex];
+      }
+    }
+  }
+
+  private double max(double[] values) {
+    double max = Double.NEGATIVE_INFINITY;
+    for (double value : values) {
+      max = Math.max(max, value);
+    }
+    return max;
+  }
+
+  private double min(double[] values) {
+    double min = Double.POSITIVE_INFINITY;
+    for (double value : values) {
+      min = Math.min(min, value);
+    }
+    return min;
+  }
+}
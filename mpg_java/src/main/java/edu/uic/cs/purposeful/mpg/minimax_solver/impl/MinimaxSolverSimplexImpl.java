@@ -0,0 +1,305 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver.impl;
+
+import java.util.Random;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.math3.util.MathUtils;
+
+import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+
+/**
+ * A pure Java solver which needs no native library. It runs the primal simplex method on the dual
+ * of the LP the other solvers build, i.e. "max sum(y) s.t. A'y <= 1, y >= 0", whose all-slack
+ * basis is feasible from the start; the maximizer's x is then read from the reduced costs of the
+ * slack variables. The whole tableau is kept in one row-major <code>double[]</code>.
+ * <p>
+ * All the right hand sides are 1, so the LP is highly degenerate and the plain simplex method
+ * stalls on it. The right hand sides are therefore perturbed slightly while pivoting; afterwards
+ * the original ones are restored through the inverse basis, and a few dual simplex pivots make
+ * the basis feasible again if needed. The x read from the objective row doesn't depend on the
+ * right hand sides, so it is exact for the original LP.
+ */
+public class MinimaxSolverSimplexImpl extends MinimaxSolver {
+  private static final double PIVOT_TOLERANCE = 1e-11;
+  // after this many degenerate pivots in a row, switch to Bland's rule to avoid cycling
+  private static final int MAX_NUM_OF_DEGENERATE_PIVOTS = 50;
+  private static final int MAX_NUM_OF_PIVOTS_PER_TABLEAU_COLUMN = 50;
+  private static final double RHS_PERTURBATION = 1e-6;
+
+  public MinimaxSolverSimplexImpl() {
+    super();
+  }
+
+  /**
+   * @see MinimaxSolver#MinimaxSolver(boolean)
+   */
+  public MinimaxSolverSimplexImpl(boolean presolves) {
+    super(presolves);
+  }
+
+  @Override
+  public boolean providesDualSolution() {
+    return true;
+  }
+
+  @Override
+  protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper scoreMatrix,
+      double minimumScore, double maximumScore) {
+    MinimaxSolution solution = solve(scoreMatrix, minimumScore, maximumScore, false);
+    return Pair.of(solution.getMaximizerProbabilities(), solution.getMaximizerValue());
+  }
+
+  @Override
+  protected MinimaxSolution findEquilibrium(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore) {
+    return solve(scoreMatrix, minimumScore, maximumScore, true);
+  }
+
+  private MinimaxSolution solve(MatrixWrapper scoreMatrix, double minimumScore,
+      double maximumScore, boolean readsMinimizerProbabilities) {
+    // make sure the matrix is positive
+    double nonPositiveCompensate = (minimumScore <= 0) ? (1 - minimumScore) : 0.0;
+    double compensatedMaximumScore = maximumScore + nonPositiveCompensate;
+
+    // one constraint per maximizer's permutation, one variable per minimizer's permutation
+    int numberOfConstraints = scoreMatrix.getNumberOfRows();
+    int numberOfVariables = scoreMatrix.getNumberOfColumns();
+    // structural variables, then slack variables, then the right hand side
+    int width = numberOfVariables + numberOfConstraints + 1;
+    double[] tableau = new double[(numberOfConstraints + 1) * width];
+    int[] basicVariables = new int[numberOfConstraints];
+
+    // fixed seed, so that the same matrix is always solved the same way
+    Random random = new Random(numberOfConstraints);
+    double minInMatrix = Double.POSITIVE_INFINITY;
+    for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
+      int offset = constraintIndex * width;
+      for (int variableIndex = 0; variableIndex < numberOfVariables; variableIndex++) {
+        double originalScore = scoreMatrix.getValue(constraintIndex, variableIndex);
+        minInMatrix = Math.min(minInMatrix, originalScore);
+
+        // normalize score to ensure they are not too large
+        double score = (originalScore + nonPositiveCompensate) / compensatedMaximumScore;
+        if (Misc.roughlyEquals(score, 0.0)) {
+          continue;
+        }
+        Assert.isTrue(score > 0, "Score passed to simplex solver should be positive.");
+        tableau[offset + variableIndex] = score;
+      }
+      tableau[offset + numberOfVariables + constraintIndex] = 1.0;
+      tableau[offset + width - 1] = RHS_VALUE + RHS_PERTURBATION * random.nextDouble();
+      basicVariables[constraintIndex] = numberOfVariables + constraintIndex;
+    }
+    Assert.isTrue(MathUtils.equals(minInMatrix, minimumScore),
+        "minInMatrix=" + minInMatrix + " != minimumScore=" + minimumScore);
+
+    int objectiveOffset = numberOfConstraints * width;
+    for (int variableIndex = 0; variableIndex < numberOfVariables; variableIndex++) {
+      tableau[objectiveOffset + variableIndex] = -OBJECTIVE_COEFFICIENT;
+    }
+
+    runPrimalSimplex(tableau, basicVariables, numberOfConstraints, width);
+    restoreRightHandSides(tableau, numberOfConstraints, numberOfVariables, width);
+    runDualSimplex(tableau, basicVariables, numberOfConstraints, width);
+    if (MPGConfig.SHOW_RUNNING_TRACING) {
+      System.err.print(",");
+    }
+
+    // the duals of the constraints are the reduced costs of their slack variables
+    double[] xArray = new double[numberOfConstraints];
+    double xSum = 0.0;
+    for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
+      double x = tableau[objectiveOffset + numberOfVariables + constraintIndex];
+      if (x >= 0) {
+        xArray[constraintIndex] = x;
+        xSum += x;
+      } else if (MPGConfig.SHOW_RUNNING_TRACING) {
+        System.err.print("!");
+      }
+    }
+
+    for (int index = 0; index < xArray.length; index++) {
+      // the probabilities, round to specified value precision
+      xArray[index] = Misc.roundValue(xArray[index] / xSum);
+      Assert.isFalse(Double.isNaN(xArray[index]));
+    }
+    double value = Misc.roundValue(compensatedMaximumScore / xSum - nonPositiveCompensate);
+    Assert.isFalse(Double.isNaN(value));
+
+    if (!readsMinimizerProbabilities) {
+      return new MinimaxSolution(xArray, value, null, Double.NaN);
+    }
+    // y is the basic solution of the tableau
+    double[] yArray = new double[numberOfVariables];
+    for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
+      if (basicVariables[constraintIndex] < numberOfVariables) {
+        yArray[basicVariables[constraintIndex]] = tableau[constraintIndex * width + width - 1];
+      }
+    }
+    double[] yProbabilities = toMinimizerProbabilities(yArray, xSum);
+    return new MinimaxSolution(xArray, value, yProbabilities, value);
+  }
+
+  /**
+   * Pivots until no reduced cost in the objective row (the last row of the tableau) is negative.
+   */
+  private void runPrimalSimplex(double[] tableau, int[] basicVariables, int numberOfConstraints,
+      int width) {
+    int objectiveOffset = numberOfConstraints * width;
+    int maxNumOfPivots = MAX_NUM_OF_PIVOTS_PER_TABLEAU_COLUMN * width;
+    int numOfDegeneratePivots = 0;
+
+    for (int pivotCount = 0; pivotCount < maxNumOfPivots; pivotCount++) {
+      boolean useBlandsRule = numOfDegeneratePivots >= MAX_NUM_OF_DEGENERATE_PIVOTS;
+
+      // entering variable: the most negative reduced cost, or the first negative one by Bland
+      int enteringColumn = -1;
+      double minReducedCost = -PIVOT_TOLERANCE;
+      for (int column = 0; column < width - 1; column++) {
+        double reducedCost = tableau[objectiveOffset + column];
+        if (reducedCost < minReducedCost) {
+          enteringColumn = column;
+          if (useBlandsRule) {
+            break;
+          }
+          minReducedCost = reducedCost;
+        }
+      }
+      if (enteringColumn < 0) {
+        return; // optimal
+      }
+
+      // leaving variable: minimum ratio, ties go to the smallest basic variable
+      int leavingRow = -1;
+      double minRatio = Double.POSITIVE_INFINITY;
+      for (int row = 0; row < numberOfConstraints; row++) {
+        double coefficient = tableau[row * width + enteringColumn];
+        if (coefficient <= PIVOT_TOLERANCE) {
+          continue;
+        }
+        double ratio = tableau[row * width + width - 1] / coefficient;
+        if (leavingRow < 0 || ratio < minRatio - PIVOT_TOLERANCE || (ratio <= minRatio
+            + PIVOT_TOLERANCE && basicVariables[row] < basicVariables[leavingRow])) {
+          leavingRow = row;
+          minRatio = Math.min(minRatio, ratio);
+        }
+      }
+      if (leavingRow < 0) {
+        // can't happen as all the normalized scores are positive
+        throw new PurposefulBaseException("The LP is unbounded, column=" + enteringColumn);
+      }
+
+      numOfDegeneratePivots = (minRatio <= PIVOT_TOLERANCE) ? (numOfDegeneratePivots + 1) : 0;
+      pivot(tableau, numberOfConstraints, width, leavingRow, enteringColumn);
+      basicVariables[leavingRow] = enteringColumn;
+    }
+
+    throw new PurposefulBaseException(
+        "Simplex solver didn't reach optimal in [" + maxNumOfPivots + "] pivots.");
+  }
+
+  /**
+   * The slack columns of the tableau hold the inverse basis, so the right hand sides of the
+   * original LP are the row sums of those columns.
+   */
+  private void restoreRightHandSides(double[] tableau, int numberOfConstraints,
+      int numberOfVariables, int width) {
+    for (int row = 0; row < numberOfConstraints; row++) {
+      int slackOffset = row * width + numberOfVariables;
+      double rightHandSide = 0.0;
+      for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
+        rightHandSide += tableau[slackOffset + constraintIndex] * RHS_VALUE;
+      }
+      tableau[row * width + width - 1] = rightHandSide;
+    }
+    int objectiveOffset = numberOfConstraints * width;
+    double objectiveValue = 0.0;
+    for (int constraintIndex = 0; constraintIndex < numberOfConstraints; constraintIndex++) {
+      objectiveValue +=
+          tableau[objectiveOffset + numberOfVariables + constraintIndex] * RHS_VALUE;
+    }
+    tableau[objectiveOffset + width - 1] = objectiveValue;
+  }
+
+  /**
+   * Pivots until no right hand side is negative, keeping all the reduced costs non-negative.
+   */
+  private void runDualSimplex(double[] tableau, int[] basicVariables, int numberOfConstraints,
+      int width) {
+    int objectiveOffset = numberOfConstraints * width;
+    int maxNumOfPivots = MAX_NUM_OF_PIVOTS_PER_TABLEAU_COLUMN * width;
+
+    for (int pivotCount = 0; pivotCount < maxNumOfPivots; pivotCount++) {
+      // leaving variable: the most negative right hand side
+      int leavingRow = -1;
+      double minRightHandSide = -PIVOT_TOLERANCE;
+      for (int row = 0; row < numberOfConstraints; row++) {
+        double rightHandSide = tableau[row * width + width - 1];
+        if (rightHandSide < minRightHandSide) {
+          leavingRow = row;
+          minRightHandSide = rightHandSide;
+        }
+      }
+      if (leavingRow < 0) {
+        return; // feasible, hence optimal
+      }
+
+      // entering variable: minimum ratio of reduced cost, ties go to the smallest column
+      int leavingOffset = leavingRow * width;
+      int enteringColumn = -1;
+      double minRatio = Double.POSITIVE_INFINITY;
+      for (int column = 0; column < width - 1; column++) {
+        double coefficient = tableau[leavingOffset + column];
+        if (coefficient >= -PIVOT_TOLERANCE) {
+          continue;
+        }
+        double ratio = Math.max(tableau[objectiveOffset + column], 0.0) / -coefficient;
+        if (ratio < minRatio - PIVOT_TOLERANCE) {
+          enteringColumn = column;
+          minRatio = ratio;
+        }
+      }
+      if (enteringColumn < 0) {
+        // can't happen as y=0 is always feasible
+        throw new PurposefulBaseException("The LP is infeasible, row=" + leavingRow);
+      }
+
+      pivot(tableau, numberOfConstraints, width, leavingRow, enteringColumn);
+      basicVariables[leavingRow] = enteringColumn;
+    }
+
+    throw new PurposefulBaseException(
+        "Dual simplex solver didn't reach optimal in [" + maxNumOfPivots + "] pivots.");
+  }
+
+  private void pivot(double[] tableau, int numberOfConstraints, int width, int pivotRow,
+      int pivotColumn) {
+    int pivotOffset = pivotRow * width;
+    double inversePivot = 1.0 / tableau[pivotOffset + pivotColumn];
+    for (int column = 0; column < width; column++) {
+      tableau[pivotOffset + column] *= inversePivot;
+    }
+    tableau[pivotOffset + pivotColumn] = 1.0;
+
+    // the objective row is eliminated the same way as the constraint rows
+    for (int row = 0; row <= numberOfConstraints; row++) {
+      if (row == pivotRow) {
+        continue;
+      }
+      int offset = row * width;
+      double factor = tableau[offset + pivotColumn];
+      if (factor == 0.0) {
+        continue;
+      }
+      for (int column = 0; column < width; column++) {
+        tableau[offset + column] -= factor * tableau[pivotOffset + column];
+      }
+      tableau[offset + pivotColumn] = 0.0;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game;
+
+import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.mpg.common.Misc;
+
+/**
+ * How close to an equilibrium a game solver may stop. The gap is between the values of the two
+ * players' best responses, which bound the game's value from above (the maximizer's) and from
+ * below (the minimizer's), so a solution within it is an epsilon-equilibrium. It may also cap the
+ * number of permutations each player plays, beyond which the solver gives up.
+ */
+public class EquilibriumTolerance {
+  /**
+   * Only stops when the bounds are equal at <code>value_precision</code>.
+   */
+  public static final EquilibriumTolerance EXACT = new EquilibriumTolerance(0.0, false, 0);
+
+  private final double epsilon;
+  private final boolean isRelative;
+  private final int maxNumberOfPermutations;
+
+  private EquilibriumTolerance(double epsilon, boolean isRelative, int maxNumberOfPermutations) {
+    Assert.isTrue(epsilon >= 0, "epsilon < 0");
+    this.epsilon = epsilon;
+    this.isRelative = isRelative;
+    this.maxNumberOfPermutations = maxNumberOfPermutations;
+  }
+
+  /**
+   * The gap may be up to <code>epsilon</code>.
+   */
+  public static EquilibriumTolerance absolute(double epsilon) {
+    return new EquilibriumTolerance(epsilon, false, 0);
+  }
+
+  /**
+   * The gap may be up to <code>epsilon</code> times the larger magnitude of the two bounds.
+   */
+  public static EquilibriumTolerance relative(double epsilon) {
+    return new EquilibriumTolerance(epsilon, true, 0);
+  }
+
+  /**
+   * The same tolerance, but each player may play no more than <code>maxNumberOfPermutations</code>
+   * permutations, on top of the solver's own limit; if this value <= 0, only the solver's applies.
+   */
+  public EquilibriumTolerance withMaxNumberOfPermutations(int maxNumberOfPermutations) {
+    return new EquilibriumTolerance(epsilon, isRelative, maxNumberOfPermutations);
+  }
+
+  public boolean isReached(double lowerBound, double upperBound) {
+    if (Misc.roughlyEquals(lowerBound, upperBound)) {
+      return true;
+    }
+    double allowedGap =
+        isRelative ? epsilon * Math.max(Math.abs(lowerBound), Math.abs(upperBound)) : epsilon;
+    return upperBound - lowerBound <= allowedGap;
+  }
+
+  public double getEpsilon() {
+    return epsilon;
+  }
+
+  public boolean isRelative() {
+    return isRelative;
+  }
+
+  public int getMaxNumberOfPermutations() {
+    return maxNumberOfPermutations;
+  }
+
+  /**
+   * The smaller of the two limits of the number of permutations, where a limit <= 0 means none.
+   */
+  public int limitNumberOfPermutations(int maxNumberOfPermutations) {
+    if (this.maxNumberOfPermutations <= 0) {
+      return maxNumberOfPermutations;
+    }
+    return (maxNumberOfPermutations <= 0) ? this.maxNumberOfPermutations
+        : Math.min(maxNumberOfPermutations, this.maxNumberOfPermutations);
+  }
+
+  public boolean isExact() {
+    return epsilon == 0.0;
+  }
+
+  @Override
+  public String toString() {
+    String toString = isExact() ? "exact" : (isRelative ? "relative " : "absolute ") + epsilon;
+    return (maxNumberOfPermutations > 0)
+        ? toString + ", at most " + maxNumberOfPermutations + " permutations" : toString;
+  }
+}
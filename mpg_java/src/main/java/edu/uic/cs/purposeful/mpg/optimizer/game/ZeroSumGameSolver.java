@@ -7,6 +7,11 @@ public interface ZeroSumGameSolver<Permutation> {
 
   boolean solve(double[] thetas, Permutation goldPermutation);
 
+  /**
+   * Stops as soon as the gap between the two players' best responses is within the tolerance.
+   */
+  boolean solve(double[] thetas, Permutation goldPermutation, EquilibriumTolerance tolerance);
+
   double getMaximizerValue();
 
   double getMinimizerValue();
@@ -18,4 +23,10 @@ public interface ZeroSumGameSolver<Permutation> {
   LinkedHashSet<Permutation> getMaximizerPermutations();
 
   LinkedHashSet<Permutation> getMinimizerPermutations();
+
+  /**
+   * The value of the maximizer's last best response minus the minimizer's, i.e. how far the game's
+   * value may be from the solution's; NaN if the last solve stopped before both players responded.
+   */
+  double getDualityGap();
 }
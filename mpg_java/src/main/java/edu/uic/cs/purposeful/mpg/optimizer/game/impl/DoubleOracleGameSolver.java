@@ -1,49 +1,223 @@
 package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.stat.StatUtils;
 import org.apache.log4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
-import edu.uic.cs.purposeful.common.reflect.ClassFactory;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.Misc;
 import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
 import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverFactory;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverSession;
+import edu.uic.cs.purposeful.mpg.optimizer.game.EquilibriumTolerance;
 import edu.uic.cs.purposeful.mpg.optimizer.game.ZeroSumGameSolver;
 import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
+import edu.uic.cs.purposeful.mpg.target.PreparedScoring;
 
 public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Permutation> {
   private static final Logger LOGGER = Logger.getLogger(DoubleOracleGameSolver.class);
 
+  /**
+   * Which permutations are evicted from the restricted game, see
+   * <code>double_oracle_eviction_policy</code>.
+   */
+  public enum EvictionPolicy {
+    NONE, IDLE, WHEN_FULL
+  }
+
   private static final int MAX_NUM_OF_PERMUTATIONS =
       MPGConfig.MAX_NUM_OF_DOUBLE_ORACLE_PERMUTATIONS;
+  private static final int MAX_NUM_OF_WARM_START_PERMUTATIONS =
+      MPGConfig.MAX_NUM_OF_DOUBLE_ORACLE_WARM_START_PERMUTATIONS;
+  // the permutations played with less probability than this are not kept for the next solve, and
+  // count as idle for the eviction
+  private static final double NEGLIGIBLE_PROBABILITY = 1e-6;
+  private static final int NUM_OF_RESPONSES =
+      Math.max(1, MPGConfig.NUM_OF_DOUBLE_ORACLE_RESPONSES);
+  private static final int MAX_NUM_OF_CACHED_PERMUTATIONS =
+      MPGConfig.MAX_NUM_OF_CACHED_DOUBLE_ORACLE_PERMUTATIONS;
+  private static final int MAX_NUM_OF_CACHED_SCORES =
+      MPGConfig.MAX_NUM_OF_CACHED_DOUBLE_ORACLE_SCORES;
+  private static final int MIN_NUM_OF_SCORES_PER_TASK =
+      MPGConfig.MIN_NUM_OF_DOUBLE_ORACLE_SCORES_PER_TASK;
+  private static final EvictionPolicy EVICTION_POLICY =
+      EvictionPolicy.valueOf(StringUtils.upperCase(MPGConfig.DOUBLE_ORACLE_EVICTION_POLICY.trim()));
+
+  /**
+   * Computes <code>scores[fromIndex, toIndex)</code> of a new row or column.
+   */
+  private interface RangeScorer {
+    void computeScores(int fromIndex, int toIndex, double[] scores);
+  }
+
+  /**
+   * Halves the range until each part has no more than <code>minNumberOfScoresPerTask</code>
+   * scores, so that the parts are scored on the fork-join pool.
+   */
+  private static class ScoringTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final RangeScorer rangeScorer;
+    private final int minNumberOfScoresPerTask;
+    private final int fromIndex;
+    private final int toIndex;
+    private final double[] scores;
+
+    private ScoringTask(RangeScorer rangeScorer, int minNumberOfScoresPerTask, int fromIndex,
+        int toIndex, double[] scores) {
+      this.rangeScorer = rangeScorer;
+      this.minNumberOfScoresPerTask = minNumberOfScoresPerTask;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+      this.scores = scores;
+    }
+
+    @Override
+    protected void compute() {
+      if (toIndex - fromIndex <= minNumberOfScoresPerTask) {
+        rangeScorer.computeScores(fromIndex, toIndex, scores);
+        return;
+      }
+      int middleIndex = (fromIndex + toIndex) >>> 1;
+      invokeAll(
+          new ScoringTask(rangeScorer, minNumberOfScoresPerTask, fromIndex, middleIndex, scores),
+          new ScoringTask(rangeScorer, minNumberOfScoresPerTask, middleIndex, toIndex, scores));
+    }
+  }
+
+  private static final AtomicLong NUMBER_OF_WARM_STARTED_SOLVES = new AtomicLong();
+  private static final AtomicLong NUMBER_OF_SAVED_ITERATIONS = new AtomicLong();
 
   private final OptimizationTarget<Permutation, ?> optimizationTarget;
   private final MinimaxSolver minimaxSolver;
-  private final MinimaxSolver minimaxBackupSolver;
+  private final boolean respondsSimultaneously;
+  private final boolean warmStarts;
+  private final int maxNumberOfWarmStartPermutations;
+  // null if the scores are not cached
+  private final PermutationPool<Permutation> permutationPool;
+  private final int minNumberOfScoresPerTask;
+  private final EvictionPolicy evictionPolicy;
+  private final int evictionIdleIterations;
+
+  // the support of the last solution, the next solve starts from them as well
+  private List<Permutation> warmStartMaximizerPermutations = Collections.emptyList();
+  private List<Permutation> warmStartMinimizerPermutations = Collections.emptyList();
+  private int numberOfColdStartIterations = -1;
+  private int numberOfIterations;
+  private int numberOfSavedIterations;
+  private int numberOfEvictedPermutations;
+  // the max number of permutations of the current solve, <= 0 means no limit
+  private int maxNumberOfPermutations;
 
   private ScoreMatrix scoreMatrix;
   private LinkedHashSet<Permutation> existingMaximizerPermutations;
   private LinkedHashSet<Permutation> existingMinimizerPermutations;
+  // the permutations this solve has met, and the IDs of the ones each player plays, in the same
+  // order as the sets, so that telling whether a response is played already is a bit lookup
+  private PermutationStore<Permutation> permutationStore;
+  private List<Integer> existingMaximizerIds;
+  private List<Integer> existingMinimizerIds;
+  private BitSet maximizerIdsInPlay;
+  private BitSet minimizerIdsInPlay;
+  // by the store's IDs, the IDs of the same permutations in the pool, if the scores are cached
+  private List<Integer> poolIds;
+  // computed once per solve for each permutation, in the same order as the permutations; the
+  // minimizers' aggregated Lagrange potentials are the only part of the scores thetas change
+  private List<PermutationMetadata> existingMaximizerMetadata;
+  private List<PermutationMetadata> existingMinimizerMetadata;
+  // for how many iterations in a row each permutation has been played with ~0 probability
+  private List<Integer> maximizerIdleIterations;
+  private List<Integer> minimizerIdleIterations;
   private double[] maximizerProbabilities;
   private double[] minimizerProbabilities;
   private double maximizerValue;
   private double minimizerValue;
+  private double dualityGap;
 
   private boolean hasTriedToSolve = false;
 
   public DoubleOracleGameSolver(OptimizationTarget<Permutation, ?> optimizationTarget) {
+    this(optimizationTarget, false);
+  }
+
+  /**
+   * @param persistent whether this solver is kept to solve the same instance at slightly different
+   *        thetas, then each solve starts from the support of the last one as well, and the raw
+   *        scores are cached across the solves
+   */
+  public DoubleOracleGameSolver(OptimizationTarget<Permutation, ?> optimizationTarget,
+      boolean persistent) {
+    this(optimizationTarget, persistent, persistent ? MAX_NUM_OF_WARM_START_PERMUTATIONS : 0);
+  }
+
+  /**
+   * @param persistent see {@link #DoubleOracleGameSolver(OptimizationTarget, boolean)}
+   * @param maxNumberOfWarmStartPermutations the max number of permutations of each player kept for
+   *        the next solve, in place of the configured one, <= 0 means every solve starts cold
+   */
+  public DoubleOracleGameSolver(OptimizationTarget<Permutation, ?> optimizationTarget,
+      boolean persistent, int maxNumberOfWarmStartPermutations) {
+    this(optimizationTarget, MPGConfig.DOUBLE_ORACLE_SIMULTANEOUS_RESPONSES,
+        maxNumberOfWarmStartPermutations,
+        persistent ? MAX_NUM_OF_CACHED_PERMUTATIONS : 0, persistent ? MAX_NUM_OF_CACHED_SCORES : 0,
+        MIN_NUM_OF_SCORES_PER_TASK, EVICTION_POLICY,
+        MPGConfig.DOUBLE_ORACLE_EVICTION_IDLE_ITERATIONS);
+  }
+
+  /**
+   * @param respondsSimultaneously whether both players respond to the same equilibrium at once, or
+   *        the minimizer first and then the maximizer
+   * @param maxNumberOfWarmStartPermutations the max number of permutations of each player kept for
+   *        the next solve, <= 0 means every solve starts cold
+   * @param maxNumberOfCachedPermutations the max number of permutations whose raw scores are
+   *        cached across the solves, besides the ones the current solve plays
+   * @param maxNumberOfCachedScores the max number of raw scores cached across the solves, <= 0
+   *        means nothing is cached
+   * @param minNumberOfScoresPerTask a new row or column with more scores to compute than this is
+   *        scored on the fork-join pool in tasks of this many, <= 0 means on the calling thread
+   */
+  @VisibleForTesting
+  DoubleOracleGameSolver(OptimizationTarget<Permutation, ?> optimizationTarget,
+      boolean respondsSimultaneously, int maxNumberOfWarmStartPermutations,
+      int maxNumberOfCachedPermutations, int maxNumberOfCachedScores, int minNumberOfScoresPerTask,
+      EvictionPolicy evictionPolicy, int evictionIdleIterations) {
+    Assert.isTrue(evictionPolicy == EvictionPolicy.NONE || evictionIdleIterations > 0,
+        "double_oracle_eviction_idle_iterations <= 0");
     this.optimizationTarget = optimizationTarget;
-    this.minimaxSolver = ClassFactory.getInstance(MPGConfig.MINIMAX_SOLVER_CLASS);
-    if (!MPGConfig.MINIMAX_SOLVER_CLASS_BACKUP.isEmpty()) {
-      this.minimaxBackupSolver = ClassFactory.getInstance(MPGConfig.MINIMAX_SOLVER_CLASS_BACKUP);
-    } else {
-      this.minimaxBackupSolver = null;
-    }
+    this.evictionPolicy = evictionPolicy;
+    this.evictionIdleIterations = evictionIdleIterations;
+    this.respondsSimultaneously = respondsSimultaneously;
+    this.warmStarts = maxNumberOfWarmStartPermutations > 0;
+    this.maxNumberOfWarmStartPermutations = maxNumberOfWarmStartPermutations;
+    this.permutationPool = (maxNumberOfCachedScores > 0)
+        ? new PermutationPool<>(optimizationTarget, maxNumberOfCachedPermutations,
+            maxNumberOfCachedScores) : null;
+    this.minNumberOfScoresPerTask = minNumberOfScoresPerTask;
+    // each LP goes to the backup solver if the primary one fails on it, or has failed too often
+    this.minimaxSolver = MinimaxSolverFactory.getRoutingInstance(MPGConfig.MINIMAX_SOLVER_CLASS,
+        MPGConfig.MINIMAX_SOLVER_CLASS_BACKUP);
   }
 
   @Override
@@ -53,29 +227,69 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
 
   @Override
   public boolean solve(double[] thetas, Permutation goldPermutation) {
-    try {
-      return solve(thetas, goldPermutation, minimaxSolver);
-    } catch (PurposefulBaseException e) {
-      if (minimaxBackupSolver == null) {
-        throw e;
-      }
-      LOGGER.error(
-          MPGConfig.MINIMAX_SOLVER_CLASS + " failed, try " + MPGConfig.MINIMAX_SOLVER_CLASS_BACKUP,
-          e);
+    return solve(thetas, goldPermutation, EquilibriumTolerance.EXACT);
+  }
+
+  @Override
+  public boolean solve(double[] thetas, Permutation goldPermutation,
+      EquilibriumTolerance tolerance) {
+    // the session lives as long as this game, so the solver may reuse its models between iterations
+    try (MinimaxSolverSession minimaxSolverSession = minimaxSolver.openSession()) {
+      return solve(thetas, goldPermutation, tolerance, minimaxSolverSession);
     }
-    return solve(thetas, goldPermutation, minimaxBackupSolver);
   }
 
-  private boolean solve(double[] thetas, Permutation goldPermutation, MinimaxSolver minimaxSolver) {
+  private boolean solve(double[] thetas, Permutation goldPermutation,
+      EquilibriumTolerance tolerance, MinimaxSolverSession minimaxSolverSession) {
     double[] lagrangePotentials = optimizationTarget.computeLagrangePotentials(thetas);
     initializeScoreMatrix(lagrangePotentials, goldPermutation);
+    boolean isWarmStarted =
+        !warmStartMaximizerPermutations.isEmpty() || !warmStartMinimizerPermutations.isEmpty();
+
+    numberOfIterations = 0;
+    numberOfEvictedPermutations = 0;
+    dualityGap = Double.NaN;
+    maxNumberOfPermutations = tolerance.limitNumberOfPermutations(MAX_NUM_OF_PERMUTATIONS);
+    boolean converged = respondsSimultaneously
+        ? solveSimultaneously(lagrangePotentials, tolerance, minimaxSolverSession)
+        : solveAlternately(lagrangePotentials, tolerance, minimaxSolverSession);
 
-    double previousGameValue = Double.NaN;
+    outputToConsole("\n");
+    hasTriedToSolve = true;
+    if (warmStarts) {
+      recordWarmStart(isWarmStarted);
+    }
+    if (numberOfEvictedPermutations > 0 && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Evicted [" + numberOfEvictedPermutations + "] idle permutations.");
+    }
+    if (permutationPool != null && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Cached scores hit [" + permutationPool.getNumberOfHits() + "] times, missed ["
+          + permutationPool.getNumberOfMisses() + "] times.");
+    }
+    return converged;
+  }
+
+  /**
+   * Each player responds to the other one's latest strategy in turn, and the game is solved when
+   * the values of the two responses meet, or neither of them is new to the restricted game. A
+   * restricted game's value that stays the same doesn't end it, since the other player may still
+   * have a better response.
+   */
+  private boolean solveAlternately(double[] lagrangePotentials, EquilibriumTolerance tolerance,
+      MinimaxSolverSession minimaxSolverSession) {
     boolean converged = false;
     while (true) {
-      // compute maximizer's distribution
-      Pair<double[], Double> maximizerDistribution =
-          minimaxSolver.findMaximizerProbabilities(scoreMatrix);
+      numberOfIterations++;
+      // compute maximizer's distribution, and minimizer's too if it comes from the same LP
+      MinimaxSolution equilibrium = null;
+      Pair<double[], Double> maximizerDistribution = null;
+      if (minimaxSolverSession.providesDualSolution()) {
+        equilibrium = minimaxSolverSession.findEquilibrium(scoreMatrix);
+        maximizerDistribution =
+            Pair.of(equilibrium.getMaximizerProbabilities(), equilibrium.getMaximizerValue());
+      } else {
+        maximizerDistribution = minimaxSolverSession.findMaximizerProbabilities(scoreMatrix);
+      }
       maximizerProbabilities = maximizerDistribution.getLeft();
       if (StatUtils.sum(maximizerProbabilities) == 0) {
         throw new PurposefulBaseException(
@@ -83,43 +297,40 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
       }
 
       maximizerValue = maximizerDistribution.getRight();
-      // reaches Nash equilibrium
-      if (Misc.roughlyEquals(previousGameValue, maximizerValue)) {
-        outputToConsole("$");
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Optimized - maximizer's game value [" + maximizerValue
-              + "] doesn't change anymore.");
-        }
-        converged = true;
-        break;
-      }
-      previousGameValue = maximizerValue;
 
       // find minimizer's response
       Assert.isTrue(existingMaximizerPermutations.size() == maximizerProbabilities.length);
-      if (MAX_NUM_OF_PERMUTATIONS > 0
-          && MAX_NUM_OF_PERMUTATIONS <= existingMaximizerPermutations.size()) {
+      evictIdleMaximizerPermutations();
+      if (maxNumberOfPermutations > 0
+          && maxNumberOfPermutations <= existingMaximizerPermutations.size()) {
         outputToConsole("X");
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("Not optimized - max number of maximizers' permutations["
-              + MAX_NUM_OF_PERMUTATIONS + "] is reached.");
+              + maxNumberOfPermutations + "] is reached.");
         }
         converged = false;
         break;
       }
 
-      Pair<Permutation, Double> bestMinimizerResponse =
-          optimizationTarget.findBestMinimizerResponsePermutation(maximizerProbabilities,
-              existingMaximizerPermutations, lagrangePotentials);
+      List<Pair<Permutation, Double>> bestMinimizerResponses =
+          optimizationTarget.findBestMinimizerResponsePermutations(maximizerProbabilities,
+              existingMaximizerPermutations, existingMaximizerMetadata, lagrangePotentials,
+              NUM_OF_RESPONSES);
+      Pair<Permutation, Double> bestMinimizerResponse = bestMinimizerResponses.get(0);
       Permutation bestMinimizerResponsePermutation = bestMinimizerResponse.getLeft();
       double bestMinimizerResponseValue = bestMinimizerResponse.getRight();
 
       boolean reachesBestMinimizerValue =
           Misc.roughlyEquals(maximizerValue, bestMinimizerResponseValue);
       if (!reachesBestMinimizerValue) {
-        if (!existingMinimizerPermutations.contains(bestMinimizerResponsePermutation)) {
-          recordMinimizerPermutationAndExpandScoreMatrix(bestMinimizerResponsePermutation,
-              lagrangePotentials);
+        if (!isPlayedByMinimizer(bestMinimizerResponsePermutation)) {
+          // the best one first, then the other new ones
+          for (Pair<Permutation, Double> minimizerResponse : bestMinimizerResponses) {
+            if (!isPlayedByMinimizer(minimizerResponse.getLeft())) {
+              recordMinimizerPermutationAndExpandScoreMatrix(minimizerResponse.getLeft(),
+                  lagrangePotentials);
+            }
+          }
         } else {
           reachesBestMinimizerValue = true;
           outputToConsole("<");
@@ -129,9 +340,15 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
       }
 
       // ///////////////////////////////////////////////////////////////////////
-      // compute minimizer's distribution
-      Pair<double[], Double> minimizerDistribution =
-          minimaxSolver.findMinimizerProbabilities(scoreMatrix);
+      // compute minimizer's distribution, no need to solve again if no column has been added
+      Pair<double[], Double> minimizerDistribution = null;
+      if (equilibrium != null
+          && equilibrium.getMinimizerProbabilities().length == scoreMatrix.getColumnSize()) {
+        minimizerDistribution =
+            Pair.of(equilibrium.getMinimizerProbabilities(), equilibrium.getMinimizerValue());
+      } else {
+        minimizerDistribution = minimaxSolverSession.findMinimizerProbabilities(scoreMatrix);
+      }
       minimizerProbabilities = minimizerDistribution.getLeft();
       double probabilitySum = StatUtils.sum(minimizerProbabilities);
       if (Misc.roughlyEquals(probabilitySum, 0)) {
@@ -140,43 +357,52 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
       }
 
       minimizerValue = minimizerDistribution.getRight();
-      // reaches Nash equilibrium
-      if (Misc.roughlyEquals(previousGameValue, minimizerValue)) {
-        outputToConsole("&");
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Optimized - minimizer's game value [" + minimizerValue
-              + "] doesn't change anymore.");
-        }
-        converged = true;
-        break;
-      }
-      previousGameValue = minimizerValue;
 
       // find maximizer's response
       Assert.isTrue(existingMinimizerPermutations.size() == minimizerProbabilities.length);
-      if (MAX_NUM_OF_PERMUTATIONS > 0
-          && MAX_NUM_OF_PERMUTATIONS <= existingMinimizerPermutations.size()) {
+      evictIdleMinimizerPermutations();
+      if (maxNumberOfPermutations > 0
+          && maxNumberOfPermutations <= existingMinimizerPermutations.size()) {
         outputToConsole("x");
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("Not optimized - max number of minimizers' permutations["
-              + MAX_NUM_OF_PERMUTATIONS + "] is reached.");
+              + maxNumberOfPermutations + "] is reached.");
         }
         converged = false;
         break;
       }
 
-      Pair<Permutation, Double> bestMaximizerResponse =
-          optimizationTarget.findBestMaximizerResponsePermutation(minimizerProbabilities,
-              existingMinimizerPermutations, lagrangePotentials);
+      List<Pair<Permutation, Double>> bestMaximizerResponses =
+          optimizationTarget.findBestMaximizerResponsePermutations(minimizerProbabilities,
+              existingMinimizerPermutations, existingMinimizerMetadata, lagrangePotentials,
+              NUM_OF_RESPONSES);
+      Pair<Permutation, Double> bestMaximizerResponse = bestMaximizerResponses.get(0);
       Permutation bestMaximizerResponsePermutation = bestMaximizerResponse.getLeft();
       double bestMaximizerResponseValue = bestMaximizerResponse.getRight();
 
+      // the minimizer's response to the maximizer's strategy bounds the game's value from below,
+      // the maximizer's response to the minimizer's one from above
+      dualityGap = bestMaximizerResponseValue - bestMinimizerResponseValue;
+      if (tolerance.isReached(bestMinimizerResponseValue, bestMaximizerResponseValue)) {
+        outputToConsole("=");
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Optimized - the duality gap [" + dualityGap + "] is within [" + tolerance
+              + "].");
+        }
+        converged = true;
+        break;
+      }
+
       boolean reachesBestMaximizerValue =
           Misc.roughlyEquals(minimizerValue, bestMaximizerResponseValue);
       if (!reachesBestMaximizerValue) {
-        if (!existingMaximizerPermutations.contains(bestMaximizerResponsePermutation)) {
-          recordMaximizerPermutationAndExpandScoreMatrix(bestMaximizerResponsePermutation,
-              lagrangePotentials);
+        if (!isPlayedByMaximizer(bestMaximizerResponsePermutation)) {
+          for (Pair<Permutation, Double> maximizerResponse : bestMaximizerResponses) {
+            if (!isPlayedByMaximizer(maximizerResponse.getLeft())) {
+              recordMaximizerPermutationAndExpandScoreMatrix(maximizerResponse.getLeft(),
+                  lagrangePotentials);
+            }
+          }
         } else {
           reachesBestMaximizerValue = true;
           outputToConsole(">");
@@ -194,58 +420,492 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
         break;
       }
     } // end while
-
-    outputToConsole("\n");
-    hasTriedToSolve = true;
     return converged;
   }
 
+  /**
+   * Both players respond to the same equilibrium of the restricted game at once, and the game is
+   * solved when the values of the two responses, which bound the full game's value from both
+   * sides, meet.
+   */
+  private boolean solveSimultaneously(double[] lagrangePotentials,
+      EquilibriumTolerance tolerance, MinimaxSolverSession minimaxSolverSession) {
+    while (true) {
+      numberOfIterations++;
+      solveRestrictedGame(minimaxSolverSession);
+      evictIdleMaximizerPermutations();
+      evictIdleMinimizerPermutations();
+
+      boolean reachesMaxNumOfPermutations = maxNumberOfPermutations > 0
+          && (maxNumberOfPermutations <= existingMaximizerPermutations.size()
+              || maxNumberOfPermutations <= existingMinimizerPermutations.size());
+      if (reachesMaxNumOfPermutations) {
+        outputToConsole("X");
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Not optimized - max number of permutations[" + maxNumberOfPermutations
+              + "] is reached.");
+        }
+        return false;
+      }
+
+      // the maximizer's oracle runs on the fork-join pool, as the scores do, the minimizer's on
+      // this thread; if no worker is free, waiting for it runs it here as well
+      Future<List<Pair<Permutation, Double>>> bestMaximizerResponsesFuture =
+          ForkJoinPool.commonPool().submit(() -> optimizationTarget
+              .findBestMaximizerResponsePermutations(minimizerProbabilities,
+                  existingMinimizerPermutations, existingMinimizerMetadata, lagrangePotentials,
+                  NUM_OF_RESPONSES));
+      List<Pair<Permutation, Double>> bestMinimizerResponses;
+      List<Pair<Permutation, Double>> bestMaximizerResponses;
+      try {
+        bestMinimizerResponses = optimizationTarget.findBestMinimizerResponsePermutations(
+            maximizerProbabilities, existingMaximizerPermutations, existingMaximizerMetadata,
+            lagrangePotentials, NUM_OF_RESPONSES);
+        bestMaximizerResponses = bestMaximizerResponsesFuture.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PurposefulBaseException(e);
+      } catch (ExecutionException e) {
+        throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause()
+            : new PurposefulBaseException(e.getCause());
+      } finally {
+        bestMaximizerResponsesFuture.cancel(true);
+      }
+
+      // no maximizer's strategy is worth more than this, nor any minimizer's less than that
+      double upperBound = bestMaximizerResponses.get(0).getRight();
+      double lowerBound = bestMinimizerResponses.get(0).getRight();
+      dualityGap = upperBound - lowerBound;
+      if (tolerance.isReached(lowerBound, upperBound)) {
+        outputToConsole("%");
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Optimized - the bounds [" + lowerBound + ", " + upperBound
+              + "] are within [" + tolerance + "].");
+        }
+        return true;
+      }
+
+      // both players' responses are added in one step
+      boolean reachesBestMinimizerValue = Misc.roughlyEquals(maximizerValue, lowerBound);
+      if (reachesBestMinimizerValue) {
+        outputToConsole("v");
+      } else {
+        reachesBestMinimizerValue = !addMinimizerResponses(bestMinimizerResponses,
+            lagrangePotentials);
+      }
+      boolean reachesBestMaximizerValue = Misc.roughlyEquals(minimizerValue, upperBound);
+      if (reachesBestMaximizerValue) {
+        outputToConsole("^");
+      } else {
+        reachesBestMaximizerValue = !addMaximizerResponses(bestMaximizerResponses,
+            lagrangePotentials);
+      }
+
+      if (reachesBestMinimizerValue && reachesBestMaximizerValue) {
+        outputToConsole("%");
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Optimized - both players' responses don't change the game anymore.");
+        }
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Both players' strategies from the same LP if the solver provides the dual solution,
+   * otherwise from one LP each.
+   */
+  private void solveRestrictedGame(MinimaxSolverSession minimaxSolverSession) {
+    MinimaxSolution equilibrium = null;
+    if (minimaxSolverSession.providesDualSolution()) {
+      equilibrium = minimaxSolverSession.findEquilibrium(scoreMatrix);
+    }
+    if (equilibrium == null || equilibrium.getMinimizerProbabilities() == null
+        || equilibrium.getMinimizerProbabilities().length != scoreMatrix.getColumnSize()) {
+      Pair<double[], Double> maximizerDistribution =
+          minimaxSolverSession.findMaximizerProbabilities(scoreMatrix);
+      Pair<double[], Double> minimizerDistribution =
+          minimaxSolverSession.findMinimizerProbabilities(scoreMatrix);
+      equilibrium = new MinimaxSolution(maximizerDistribution.getLeft(),
+          maximizerDistribution.getRight(), minimizerDistribution.getLeft(),
+          minimizerDistribution.getRight());
+    }
+
+    maximizerProbabilities = equilibrium.getMaximizerProbabilities();
+    if (StatUtils.sum(maximizerProbabilities) == 0) {
+      throw new PurposefulBaseException(
+          "All maximizer probabilities == 0, can't solve the game\n" + scoreMatrix);
+    }
+    maximizerValue = equilibrium.getMaximizerValue();
+    minimizerProbabilities = equilibrium.getMinimizerProbabilities();
+    double probabilitySum = StatUtils.sum(minimizerProbabilities);
+    if (Misc.roughlyEquals(probabilitySum, 0)) {
+      throw new PurposefulBaseException("All minimizer probabilities == [" + probabilitySum
+          + "], can't solve the game\n" + scoreMatrix);
+    }
+    minimizerValue = equilibrium.getMinimizerValue();
+  }
+
+  /**
+   * @return false if the best response is played already
+   */
+  private boolean addMinimizerResponses(List<Pair<Permutation, Double>> bestMinimizerResponses,
+      double[] lagrangePotentials) {
+    if (isPlayedByMinimizer(bestMinimizerResponses.get(0).getLeft())) {
+      outputToConsole("<");
+      return false;
+    }
+    for (Pair<Permutation, Double> minimizerResponse : bestMinimizerResponses) {
+      if (!isPlayedByMinimizer(minimizerResponse.getLeft())) {
+        recordMinimizerPermutationAndExpandScoreMatrix(minimizerResponse.getLeft(),
+            lagrangePotentials);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return false if the best response is played already
+   */
+  private boolean addMaximizerResponses(List<Pair<Permutation, Double>> bestMaximizerResponses,
+      double[] lagrangePotentials) {
+    if (isPlayedByMaximizer(bestMaximizerResponses.get(0).getLeft())) {
+      outputToConsole(">");
+      return false;
+    }
+    for (Pair<Permutation, Double> maximizerResponse : bestMaximizerResponses) {
+      if (!isPlayedByMaximizer(maximizerResponse.getLeft())) {
+        recordMaximizerPermutationAndExpandScoreMatrix(maximizerResponse.getLeft(),
+            lagrangePotentials);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Ages the maximizer's permutations by its latest strategy, and evicts the idle ones with their
+   * rows if the policy says so. The equilibrium stays one of the smaller game, as nothing evicted
+   * is played.
+   */
+  private void evictIdleMaximizerPermutations() {
+    boolean[] retains = selectRetainedPermutations(maximizerIdleIterations, maximizerProbabilities,
+        existingMaximizerPermutations.size());
+    if (retains == null) {
+      return;
+    }
+    existingMaximizerPermutations = retain(existingMaximizerPermutations, retains);
+    existingMaximizerIds = retain(existingMaximizerIds, retains);
+    maximizerIdsInPlay = toIdSet(existingMaximizerIds);
+    existingMaximizerMetadata = retain(existingMaximizerMetadata, retains);
+    maximizerIdleIterations = retain(maximizerIdleIterations, retains);
+    maximizerProbabilities = retain(maximizerProbabilities, retains);
+    scoreMatrix.retain(retains, null);
+  }
+
+  /**
+   * The same as {@link #evictIdleMaximizerPermutations()}, for the minimizer and the columns.
+   */
+  private void evictIdleMinimizerPermutations() {
+    boolean[] retains = selectRetainedPermutations(minimizerIdleIterations, minimizerProbabilities,
+        existingMinimizerPermutations.size());
+    if (retains == null) {
+      return;
+    }
+    existingMinimizerPermutations = retain(existingMinimizerPermutations, retains);
+    existingMinimizerIds = retain(existingMinimizerIds, retains);
+    minimizerIdsInPlay = toIdSet(existingMinimizerIds);
+    existingMinimizerMetadata = retain(existingMinimizerMetadata, retains);
+    minimizerIdleIterations = retain(minimizerIdleIterations, retains);
+    minimizerProbabilities = retain(minimizerProbabilities, retains);
+    scoreMatrix.retain(null, retains);
+  }
+
+  /**
+   * @return which permutations to retain, or null if none is evicted
+   */
+  private boolean[] selectRetainedPermutations(List<Integer> idleIterations,
+      double[] probabilities, int numberOfPermutations) {
+    if (evictionPolicy == EvictionPolicy.NONE) {
+      return null;
+    }
+    Assert.isTrue(idleIterations.size() == probabilities.length);
+
+    int numberOfIdlePermutations = 0;
+    for (int index = 0; index < probabilities.length; index++) {
+      int idleIteration =
+          (probabilities[index] > NEGLIGIBLE_PROBABILITY) ? 0 : idleIterations.get(index) + 1;
+      idleIterations.set(index, idleIteration);
+      if (idleIteration >= evictionIdleIterations) {
+        numberOfIdlePermutations++;
+      }
+    }
+    if (numberOfIdlePermutations == 0) {
+      return null;
+    }
+    if (evictionPolicy == EvictionPolicy.WHEN_FULL
+        && (maxNumberOfPermutations <= 0 || numberOfPermutations < maxNumberOfPermutations)) {
+      return null;
+    }
+
+    // the played ones are never idle, so at least one is retained
+    boolean[] retains = new boolean[probabilities.length];
+    for (int index = 0; index < retains.length; index++) {
+      retains[index] = idleIterations.get(index) < evictionIdleIterations;
+    }
+    numberOfEvictedPermutations += numberOfIdlePermutations;
+    outputToConsole("-");
+    return retains;
+  }
+
+  private static <T> LinkedHashSet<T> retain(LinkedHashSet<T> elements, boolean[] retains) {
+    LinkedHashSet<T> result = new LinkedHashSet<>();
+    int index = 0;
+    for (T element : elements) {
+      if (retains[index++]) {
+        result.add(element);
+      }
+    }
+    return result;
+  }
+
+  private static <T> List<T> retain(List<T> elements, boolean[] retains) {
+    List<T> result = new ArrayList<>(elements.size());
+    for (int index = 0; index < retains.length; index++) {
+      if (retains[index]) {
+        result.add(elements.get(index));
+      }
+    }
+    return result;
+  }
+
+  private static BitSet toIdSet(List<Integer> ids) {
+    BitSet idSet = new BitSet();
+    for (int id : ids) {
+      idSet.set(id);
+    }
+    return idSet;
+  }
+
+  private static double[] retain(double[] values, boolean[] retains) {
+    double[] result = new double[values.length];
+    int size = 0;
+    for (int index = 0; index < retains.length; index++) {
+      if (retains[index]) {
+        result[size++] = values[index];
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private void recordWarmStart(boolean isWarmStarted) {
+    if (isWarmStarted) {
+      // compared with the last solve that started from the initial permutations only
+      numberOfSavedIterations = Math.max(0, numberOfColdStartIterations - numberOfIterations);
+      NUMBER_OF_WARM_STARTED_SOLVES.incrementAndGet();
+      NUMBER_OF_SAVED_ITERATIONS.addAndGet(numberOfSavedIterations);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Warm started from [" + warmStartMaximizerPermutations.size() + "x"
+            + warmStartMinimizerPermutations.size() + "] permutations, " + numberOfIterations
+            + " iterations, saved " + numberOfSavedIterations + ".");
+      }
+    } else {
+      numberOfColdStartIterations = numberOfIterations;
+      numberOfSavedIterations = 0;
+    }
+
+    warmStartMaximizerPermutations =
+        selectSupport(existingMaximizerPermutations, maximizerProbabilities);
+    warmStartMinimizerPermutations =
+        selectSupport(existingMinimizerPermutations, minimizerProbabilities);
+  }
+
+  /**
+   * The most probable permutations, bounded by
+   * <code>max_num_of_double_oracle_warm_start_permutations</code>.
+   */
+  private List<Permutation> selectSupport(LinkedHashSet<Permutation> permutations,
+      double[] probabilities) {
+    if (probabilities == null) {
+      return Collections.emptyList();
+    }
+
+    List<Pair<Permutation, Double>> support = new ArrayList<>();
+    Iterator<Permutation> iterator = permutations.iterator();
+    // there may be one more permutation than probabilities, if the last response was not solved
+    for (int index = 0; index < probabilities.length && iterator.hasNext(); index++) {
+      Permutation permutation = iterator.next();
+      if (probabilities[index] > NEGLIGIBLE_PROBABILITY) {
+        support.add(Pair.of(permutation, probabilities[index]));
+      }
+    }
+    support.sort(Comparator.comparing(Pair<Permutation, Double>::getRight).reversed());
+
+    List<Permutation> result =
+        new ArrayList<>(Math.min(support.size(), maxNumberOfWarmStartPermutations));
+    for (Pair<Permutation, Double> permutationAndProbability : support) {
+      if (result.size() == maxNumberOfWarmStartPermutations) {
+        break;
+      }
+      result.add(permutationAndProbability.getLeft());
+    }
+    return result;
+  }
+
   private void outputToConsole(String info) {
     if (MPGConfig.SHOW_RUNNING_TRACING) {
       System.err.print(info);
     }
   }
 
+  /**
+   * @return the permutation's ID in the store, interning it first if it is new to this solve
+   */
+  private int intern(Permutation permutation) {
+    int id = permutationStore.intern(permutation);
+    if (permutationPool != null && id == poolIds.size()) {
+      poolIds.add(permutationPool.intern(permutation));
+    }
+    return id;
+  }
+
+  private boolean isPlayedByMaximizer(Permutation permutation) {
+    return maximizerIdsInPlay.get(intern(permutation));
+  }
+
+  private boolean isPlayedByMinimizer(Permutation permutation) {
+    return minimizerIdsInPlay.get(intern(permutation));
+  }
+
   private void recordMaximizerPermutationAndExpandScoreMatrix(Permutation maximizerPermutation,
       double[] lagrangePotentials) {
+    int maximizerId = intern(maximizerPermutation);
     existingMaximizerPermutations.add(maximizerPermutation);
+    existingMaximizerIds.add(maximizerId);
+    maximizerIdsInPlay.set(maximizerId);
+    maximizerIdleIterations.add(0);
+    existingMaximizerMetadata
+        .add(optimizationTarget.describePermutation(maximizerPermutation, lagrangePotentials));
 
-    int columnIndex = 0;
-    int rowIndex = scoreMatrix.getRowSize();
-    for (Permutation minimizerPermutation : existingMinimizerPermutations) {
-      // Lagrange potentials are computed from minimizer permutation
-      double aggregatedLagrangePotential =
-          optimizationTarget.aggregateLagrangePotentials(minimizerPermutation, lagrangePotentials);
-      double score = optimizationTarget.computeScore(maximizerPermutation, minimizerPermutation)
-          - aggregatedLagrangePotential;
-      Assert.isFalse(Double.isNaN(score),
-          optimizationTarget.getClass().getName() + ".computeScore() should not return NaN.");
-      scoreMatrix.put(rowIndex, columnIndex, score);
-      columnIndex++;
+    double[] rowScores = computeRawScores(maximizerId, true, existingMinimizerIds);
+    for (int columnIndex = 0; columnIndex < rowScores.length; columnIndex++) {
+      rowScores[columnIndex] -=
+          existingMinimizerMetadata.get(columnIndex).getAggregatedLagrangePotential();
     }
+    scoreMatrix.appendRow(rowScores);
   }
 
   private void recordMinimizerPermutationAndExpandScoreMatrix(Permutation minimizerPermutation,
       double[] lagrangePotentials) {
+    int minimizerId = intern(minimizerPermutation);
     existingMinimizerPermutations.add(minimizerPermutation);
+    existingMinimizerIds.add(minimizerId);
+    minimizerIdsInPlay.set(minimizerId);
+    minimizerIdleIterations.add(0);
 
-    double aggregatedLagrangePotential =
-        optimizationTarget.aggregateLagrangePotentials(minimizerPermutation, lagrangePotentials);
+    PermutationMetadata minimizerMetadata =
+        optimizationTarget.describePermutation(minimizerPermutation, lagrangePotentials);
+    existingMinimizerMetadata.add(minimizerMetadata);
 
-    int columnIndex = scoreMatrix.getColumnSize();
-    int rowIndex = 0;
-    for (Permutation maximizerPermutation : existingMaximizerPermutations) {
-      double score = optimizationTarget.computeScore(maximizerPermutation, minimizerPermutation)
-          - aggregatedLagrangePotential;
-      Assert.isFalse(Double.isNaN(score),
+    scoreMatrix.appendColumn(computeColumnScores(minimizerId,
+        minimizerMetadata.getAggregatedLagrangePotential(), existingMaximizerIds));
+  }
+
+  private double[] computeColumnScores(int minimizerId, double aggregatedLagrangePotential,
+      List<Integer> maximizerIds) {
+    double[] columnScores = computeRawScores(minimizerId, false, maximizerIds);
+    for (int rowIndex = 0; rowIndex < columnScores.length; rowIndex++) {
+      columnScores[rowIndex] -= aggregatedLagrangePotential;
+    }
+    return columnScores;
+  }
+
+  /**
+   * The raw scores of the permutation against each of the opponent's, the cached ones are looked
+   * up, and the rest are computed in one batch.
+   */
+  private double[] computeRawScores(int permutationId, boolean isMaximizer,
+      List<Integer> opponentIds) {
+    double[] rawScores = new double[opponentIds.size()];
+    List<Integer> unscoredOpponentIds = opponentIds;
+    int[] unscoredIndices = null;
+    if (permutationPool != null) {
+      int poolId = poolIds.get(permutationId);
+      unscoredOpponentIds = new ArrayList<>();
+      unscoredIndices = new int[opponentIds.size()];
+      for (int index = 0; index < rawScores.length; index++) {
+        int opponentPoolId = poolIds.get(opponentIds.get(index));
+        rawScores[index] = isMaximizer ? permutationPool.findRawScore(poolId, opponentPoolId)
+            : permutationPool.findRawScore(opponentPoolId, poolId);
+        if (Double.isNaN(rawScores[index])) {
+          unscoredIndices[unscoredOpponentIds.size()] = index;
+          unscoredOpponentIds.add(opponentIds.get(index));
+        }
+      }
+    }
+
+    RangeScorer rangeScorer = createRangeScorer(permutationId, isMaximizer, unscoredOpponentIds);
+    double[] unscoredRawScores = (unscoredIndices == null) ? rawScores
+        : new double[unscoredOpponentIds.size()];
+    if (minNumberOfScoresPerTask <= 0
+        || unscoredRawScores.length <= minNumberOfScoresPerTask) {
+      rangeScorer.computeScores(0, unscoredRawScores.length, unscoredRawScores);
+    } else {
+      ForkJoinPool.commonPool().invoke(new ScoringTask(rangeScorer, minNumberOfScoresPerTask, 0,
+          unscoredRawScores.length, unscoredRawScores));
+    }
+
+    for (double rawScore : unscoredRawScores) {
+      assertScoreIsNumber(rawScore);
+    }
+    if (unscoredIndices != null) {
+      int poolId = poolIds.get(permutationId);
+      for (int index = 0; index < unscoredRawScores.length; index++) {
+        int opponentPoolId = poolIds.get(opponentIds.get(unscoredIndices[index]));
+        if (isMaximizer) {
+          permutationPool.putRawScore(poolId, opponentPoolId, unscoredRawScores[index]);
+        } else {
+          permutationPool.putRawScore(opponentPoolId, poolId, unscoredRawScores[index]);
+        }
+        rawScores[unscoredIndices[index]] = unscoredRawScores[index];
+      }
+    }
+    return rawScores;
+  }
+
+  /**
+   * Scores the prepared permutations kept in the store if the target prepares them, or else the
+   * permutations themselves.
+   */
+  private RangeScorer createRangeScorer(int permutationId, boolean isMaximizer,
+      List<Integer> opponentIds) {
+    PreparedScoring<Permutation, Object> preparedScoring = permutationStore.getPreparedScoring();
+    if (preparedScoring != null) {
+      Object prepared = permutationStore.getPrepared(permutationId);
+      List<Object> opponentPrepared = permutationStore.asPreparedList(opponentIds);
+      return isMaximizer
+          ? (fromIndex, toIndex, scores) -> preparedScoring.computePreparedScoresAgainstMinimizers(
+              prepared, opponentPrepared, fromIndex, toIndex, scores)
+          : (fromIndex, toIndex, scores) -> preparedScoring.computePreparedScoresAgainstMaximizers(
+              opponentPrepared, prepared, fromIndex, toIndex, scores);
+    }
+
+    Permutation permutation = permutationStore.get(permutationId);
+    List<Permutation> opponentPermutations = permutationStore.asList(opponentIds);
+    return isMaximizer
+        ? (fromIndex, toIndex, scores) -> optimizationTarget.computeScoresAgainstMinimizers(
+            permutation, opponentPermutations, fromIndex, toIndex, scores)
+        : (fromIndex, toIndex, scores) -> optimizationTarget.computeScoresAgainstMaximizers(
+            opponentPermutations, permutation, fromIndex, toIndex, scores);
+  }
+
+  private void assertScoreIsNumber(double score) {
+    if (Double.isNaN(score)) {
+      throw new PurposefulBaseException(
           optimizationTarget.getClass().getName() + ".computeScore() should not return NaN.");
-      scoreMatrix.put(rowIndex, columnIndex, score);
-      rowIndex++;
     }
   }
 
   private void initializeScoreMatrix(double[] lagrangePotentials, Permutation goldPermutation) {
-    scoreMatrix = new ScoreMatrix();
     existingMaximizerPermutations =
         new LinkedHashSet<>(optimizationTarget.getInitialMaximizerPermutations());
     Assert.notEmpty(existingMaximizerPermutations);
@@ -259,26 +919,83 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
     if (optimizationTarget.isLegalMinimizerPermutation(goldPermutation)) {
       existingMinimizerPermutations.add(goldPermutation);
     }
+    existingMaximizerPermutations.addAll(warmStartMaximizerPermutations);
+    existingMinimizerPermutations.addAll(warmStartMinimizerPermutations);
+
+    permutationStore = new PermutationStore<>(optimizationTarget);
+    poolIds = new ArrayList<>();
+    if (permutationPool != null) {
+      // the IDs this solve resolves stay valid until the next one
+      permutationPool.unpinAll();
+    }
+    existingMaximizerIds = new ArrayList<>(existingMaximizerPermutations.size());
+    for (Permutation maximizerPermutation : existingMaximizerPermutations) {
+      existingMaximizerIds.add(intern(maximizerPermutation));
+    }
+    existingMinimizerIds = new ArrayList<>(existingMinimizerPermutations.size());
+    for (Permutation minimizerPermutation : existingMinimizerPermutations) {
+      existingMinimizerIds.add(intern(minimizerPermutation));
+    }
+    maximizerIdsInPlay = toIdSet(existingMaximizerIds);
+    minimizerIdsInPlay = toIdSet(existingMinimizerIds);
 
+    scoreMatrix = new ScoreMatrix(existingMaximizerPermutations.size(),
+        existingMinimizerPermutations.size());
+    maximizerIdleIterations =
+        new ArrayList<>(Collections.nCopies(existingMaximizerPermutations.size(), 0));
+    minimizerIdleIterations =
+        new ArrayList<>(Collections.nCopies(existingMinimizerPermutations.size(), 0));
+    existingMaximizerMetadata = new ArrayList<>(existingMaximizerPermutations.size());
+    for (Permutation maximizerPermutation : existingMaximizerPermutations) {
+      existingMaximizerMetadata
+          .add(optimizationTarget.describePermutation(maximizerPermutation, lagrangePotentials));
+    }
+    existingMinimizerMetadata = new ArrayList<>(existingMinimizerPermutations.size());
     int columnIndex = 0;
     for (Permutation minimizerPermutation : existingMinimizerPermutations) {
       // Lagrange potentials are computed from minimizer permutation
-      double aggregatedLagrangePotential =
-          optimizationTarget.aggregateLagrangePotentials(minimizerPermutation, lagrangePotentials);
-
-      int rowIndex = 0;
-      for (Permutation maximizerPermutation : existingMaximizerPermutations) {
-        double score = optimizationTarget.computeScore(maximizerPermutation, minimizerPermutation)
-            - aggregatedLagrangePotential;
-        Assert.isFalse(Double.isNaN(score),
-            optimizationTarget.getClass().getName() + ".computeScore() should not return NaN.");
-        scoreMatrix.put(rowIndex, columnIndex, score);
-        rowIndex++;
-      }
-      columnIndex++;
+      PermutationMetadata minimizerMetadata =
+          optimizationTarget.describePermutation(minimizerPermutation, lagrangePotentials);
+      existingMinimizerMetadata.add(minimizerMetadata);
+
+      // with the cached raw scores, only this column-wise shift is computed for the new thetas
+      scoreMatrix.appendColumn(computeColumnScores(existingMinimizerIds.get(columnIndex++),
+          minimizerMetadata.getAggregatedLagrangePotential(), existingMaximizerIds));
     }
   }
 
+  /**
+   * The number of iterations of the last solve.
+   */
+  public int getNumberOfIterations() {
+    Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
+    return numberOfIterations;
+  }
+
+  /**
+   * The number of iterations the last solve saved by starting from the support of the one before.
+   */
+  public int getNumberOfSavedIterations() {
+    Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
+    return numberOfSavedIterations;
+  }
+
+  /**
+   * The number of idle permutations the last solve evicted.
+   */
+  public int getNumberOfEvictedPermutations() {
+    Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
+    return numberOfEvictedPermutations;
+  }
+
+  public static long getNumberOfWarmStartedSolves() {
+    return NUMBER_OF_WARM_STARTED_SOLVES.get();
+  }
+
+  public static long getTotalNumberOfSavedIterations() {
+    return NUMBER_OF_SAVED_ITERATIONS.get();
+  }
+
   @Override
   public double getMaximizerValue() {
     Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
@@ -303,6 +1020,12 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
     return minimizerProbabilities;
   }
 
+  @Override
+  public double getDualityGap() {
+    Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
+    return dualityGap;
+  }
+
   @Override
   public LinkedHashSet<Permutation> getMaximizerPermutations() {
     Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
@@ -314,4 +1037,13 @@ public class DoubleOracleGameSolver<Permutation> implements ZeroSumGameSolver<Pe
     Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
     return existingMinimizerPermutations;
   }
+
+  /**
+   * {@link OptimizationTarget#describePermutation(Object, double[])} of each minimizer
+   * permutation, in the same order as {@link #getMinimizerPermutations()}.
+   */
+  public List<PermutationMetadata> getMinimizerMetadata() {
+    Assert.isTrue(hasTriedToSolve, "Should call 'solve(...)' first.");
+    return existingMinimizerMetadata;
+  }
 }
@@ -0,0 +1,351 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.uic.cs.purposeful.common.assertion.Assert;
+import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+/**
+ * The permutations one instance's games have played, interned into IDs, and the raw scores (i.e.
+ * {@link OptimizationTarget#computeScore(Object, Object)}, without the Lagrange potentials) of
+ * the pairs of them by their IDs. The raw scores don't depend on thetas, so they can be reused by
+ * all the games of the instance. A permutation is found by the 64-bit fingerprint its target
+ * computes, as in {@link PermutationStore}, and the scores are kept in primitive arrays, at the
+ * slots the pairs of IDs are hashed to. Both are evicted in LRU order once there are too many,
+ * except the permutations interned since the last {@link #unpinAll()}, so that the IDs the live
+ * solve holds keep finding their scores. The scores of an evicted permutation are freed with it,
+ * then its ID may be given to a new one. Not thread-safe, each instance is solved by one thread at
+ * a time.
+ */
+class PermutationPool<Permutation> {
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final OptimizationTarget<Permutation, ?> optimizationTarget;
+  private final int maxNumberOfPermutations;
+  private final int maxNumberOfScores;
+
+  // the permutations by their IDs, null at the free IDs
+  private final List<Permutation> permutations = new ArrayList<>();
+  private long[] fingerprints = new long[INITIAL_CAPACITY];
+  private final TLongIntHashMap idsByFingerprint =
+      new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, 0L, NONE);
+  // the (very few) permutations whose fingerprint has been taken by another one
+  private final Map<Permutation, Integer> collidedIds = new HashMap<>();
+  private final TIntArrayList freeIds = new TIntArrayList();
+  private final LruOrder permutationOrder = new LruOrder();
+  // the IDs of the permutations the live solve plays, never evicted until it ends
+  private final BitSet pinnedIds = new BitSet();
+  private int numberOfPermutations = 0;
+
+  // the slots of the scores by the keys of their pairs of IDs
+  private final TLongIntHashMap slotsByKey = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, 0L, NONE);
+  private long[] keys;
+  private double[] rawScores;
+  private final TIntArrayList freeSlots = new TIntArrayList();
+  private int numberOfSlots = 0;
+  private final LruOrder scoreOrder = new LruOrder();
+  // the slots of each ID's scores as the maximizer, and as the minimizer
+  private final SlotChains rowSlots = new SlotChains();
+  private final SlotChains columnSlots = new SlotChains();
+
+  private long numberOfHits = 0;
+  private long numberOfMisses = 0;
+
+  PermutationPool(OptimizationTarget<Permutation, ?> optimizationTarget,
+      int maxNumberOfPermutations, int maxNumberOfScores) {
+    Assert.isTrue(maxNumberOfPermutations > 0);
+    Assert.isTrue(maxNumberOfScores > 0);
+    this.optimizationTarget = optimizationTarget;
+    this.maxNumberOfPermutations = maxNumberOfPermutations;
+    this.maxNumberOfScores = maxNumberOfScores;
+    this.keys = new long[Math.min(INITIAL_CAPACITY, maxNumberOfScores)];
+    this.rawScores = new double[keys.length];
+  }
+
+  /**
+   * @return the permutation's ID, which stays the same at least until the next
+   *         {@link #unpinAll()}
+   */
+  int intern(Permutation permutation) {
+    long fingerprint = optimizationTarget.fingerprint(permutation);
+    int permutationId = findId(permutation, fingerprint);
+    if (permutationId == NONE) {
+      permutationId = add(permutation, fingerprint);
+    } else {
+      permutationOrder.moveToLast(permutationId);
+    }
+    pinnedIds.set(permutationId);
+    if (numberOfPermutations > maxNumberOfPermutations) {
+      evictUnpinnedPermutations();
+    }
+    return permutationId;
+  }
+
+  private int findId(Permutation permutation, long fingerprint) {
+    int permutationId = idsByFingerprint.get(fingerprint);
+    if (permutationId != NONE) {
+      Permutation internedPermutation = permutations.get(permutationId);
+      if (internedPermutation == permutation || internedPermutation.equals(permutation)) {
+        return permutationId;
+      }
+    }
+    Integer collidedId = collidedIds.isEmpty() ? null : collidedIds.get(permutation);
+    return (collidedId == null) ? NONE : collidedId;
+  }
+
+  private int add(Permutation permutation, long fingerprint) {
+    int permutationId;
+    if (freeIds.isEmpty()) {
+      permutationId = permutations.size();
+      permutations.add(permutation);
+      if (permutationId == fingerprints.length) {
+        fingerprints = Arrays.copyOf(fingerprints, permutationId * 2);
+      }
+    } else {
+      permutationId = freeIds.removeAt(freeIds.size() - 1);
+      permutations.set(permutationId, permutation);
+    }
+    fingerprints[permutationId] = fingerprint;
+    if (idsByFingerprint.containsKey(fingerprint)) {
+      collidedIds.put(permutation, permutationId);
+    } else {
+      idsByFingerprint.put(fingerprint, permutationId);
+    }
+    permutationOrder.addLast(permutationId);
+    numberOfPermutations++;
+    return permutationId;
+  }
+
+  /**
+   * Called as a solve starts, the permutations interned before may be evicted from now on.
+   */
+  void unpinAll() {
+    pinnedIds.clear();
+    if (numberOfPermutations > maxNumberOfPermutations) {
+      evictUnpinnedPermutations();
+    }
+  }
+
+  private void evictUnpinnedPermutations() {
+    // the pinned ones are accessed recently, so they are at the tail
+    int permutationId = permutationOrder.first();
+    while (numberOfPermutations > maxNumberOfPermutations && permutationId != NONE) {
+      int nextPermutationId = permutationOrder.next(permutationId);
+      if (!pinnedIds.get(permutationId)) {
+        evict(permutationId);
+      }
+      permutationId = nextPermutationId;
+    }
+  }
+
+  private void evict(int permutationId) {
+    // its scores go with it, so the next permutation of its ID never hits them
+    for (int slot = rowSlots.first(permutationId); slot != NONE;
+        slot = rowSlots.first(permutationId)) {
+      freeSlot(slot);
+    }
+    for (int slot = columnSlots.first(permutationId); slot != NONE;
+        slot = columnSlots.first(permutationId)) {
+      freeSlot(slot);
+    }
+
+    Permutation permutation = permutations.set(permutationId, null);
+    long fingerprint = fingerprints[permutationId];
+    if (idsByFingerprint.get(fingerprint) == permutationId) {
+      idsByFingerprint.remove(fingerprint);
+    } else {
+      collidedIds.remove(permutation);
+    }
+    permutationOrder.remove(permutationId);
+    freeIds.add(permutationId);
+    numberOfPermutations--;
+  }
+
+  /**
+   * The cached raw score of the two permutations by their IDs {@link #intern(Object)} has given,
+   * or NaN if there is none, so that the caller may compute the missing ones in one batch and
+   * {@link #putRawScore(int, int, double)} them.
+   */
+  double findRawScore(int maximizerPermutationId, int minimizerPermutationId) {
+    int slot = slotsByKey.get(toKey(maximizerPermutationId, minimizerPermutationId));
+    if (slot == NONE) {
+      numberOfMisses++;
+      return Double.NaN;
+    }
+    numberOfHits++;
+    scoreOrder.moveToLast(slot);
+    return rawScores[slot];
+  }
+
+  void putRawScore(int maximizerPermutationId, int minimizerPermutationId, double rawScore) {
+    long key = toKey(maximizerPermutationId, minimizerPermutationId);
+    int slot = slotsByKey.get(key);
+    if (slot == NONE) {
+      if (slotsByKey.size() >= maxNumberOfScores) {
+        freeSlot(scoreOrder.first());
+      }
+      slot = allocateSlot();
+      slotsByKey.put(key, slot);
+      keys[slot] = key;
+      rowSlots.link(maximizerPermutationId, slot);
+      columnSlots.link(minimizerPermutationId, slot);
+      scoreOrder.addLast(slot);
+    } else {
+      scoreOrder.moveToLast(slot);
+    }
+    rawScores[slot] = rawScore;
+  }
+
+  private int allocateSlot() {
+    if (!freeSlots.isEmpty()) {
+      return freeSlots.removeAt(freeSlots.size() - 1);
+    }
+    int slot = numberOfSlots++;
+    if (slot == keys.length) {
+      int capacity = (int) Math.min(slot * 2L, maxNumberOfScores);
+      keys = Arrays.copyOf(keys, capacity);
+      rawScores = Arrays.copyOf(rawScores, capacity);
+    }
+    return slot;
+  }
+
+  private void freeSlot(int slot) {
+    long key = keys[slot];
+    slotsByKey.remove(key);
+    rowSlots.unlink((int) (key >>> 32), slot);
+    columnSlots.unlink((int) key, slot);
+    scoreOrder.remove(slot);
+    freeSlots.add(slot);
+  }
+
+  private static long toKey(int maximizerPermutationId, int minimizerPermutationId) {
+    return ((long) maximizerPermutationId << 32) | (minimizerPermutationId & 0xFFFFFFFFL);
+  }
+
+  int getNumberOfPermutations() {
+    return numberOfPermutations;
+  }
+
+  int getNumberOfScores() {
+    return slotsByKey.size();
+  }
+
+  long getNumberOfHits() {
+    return numberOfHits;
+  }
+
+  long getNumberOfMisses() {
+    return numberOfMisses;
+  }
+
+  private static int[] grow(int[] array, int minLength) {
+    int length = Math.max(minLength, array.length * 2);
+    int[] grownArray = Arrays.copyOf(array, length);
+    Arrays.fill(grownArray, array.length, length, NONE);
+    return grownArray;
+  }
+
+  /**
+   * The IDs or the slots from the least to the most recently used, as a doubly linked list over
+   * arrays indexed by them.
+   */
+  private static class LruOrder {
+    private int[] previous = new int[0];
+    private int[] next = new int[0];
+    private int first = NONE;
+    private int last = NONE;
+
+    private void addLast(int index) {
+      if (index >= next.length) {
+        previous = grow(previous, index + 1);
+        next = grow(next, index + 1);
+      }
+      previous[index] = last;
+      next[index] = NONE;
+      if (last == NONE) {
+        first = index;
+      } else {
+        next[last] = index;
+      }
+      last = index;
+    }
+
+    private void remove(int index) {
+      if (previous[index] == NONE) {
+        first = next[index];
+      } else {
+        next[previous[index]] = next[index];
+      }
+      if (next[index] == NONE) {
+        last = previous[index];
+      } else {
+        previous[next[index]] = previous[index];
+      }
+    }
+
+    private void moveToLast(int index) {
+      if (index != last) {
+        remove(index);
+        addLast(index);
+      }
+    }
+
+    private int first() {
+      return first;
+    }
+
+    private int next(int index) {
+      return next[index];
+    }
+  }
+
+  /**
+   * The slots of the scores of each ID, as doubly linked lists over arrays indexed by the slots, so
+   * that a slot is unlinked from the ID's list in constant time when it is freed alone.
+   */
+  private static class SlotChains {
+    private int[] firstSlots = new int[0];
+    private int[] previousSlots = new int[0];
+    private int[] nextSlots = new int[0];
+
+    private void link(int permutationId, int slot) {
+      if (permutationId >= firstSlots.length) {
+        firstSlots = grow(firstSlots, permutationId + 1);
+      }
+      if (slot >= nextSlots.length) {
+        previousSlots = grow(previousSlots, slot + 1);
+        nextSlots = grow(nextSlots, slot + 1);
+      }
+      int firstSlot = firstSlots[permutationId];
+      previousSlots[slot] = NONE;
+      nextSlots[slot] = firstSlot;
+      if (firstSlot != NONE) {
+        previousSlots[firstSlot] = slot;
+      }
+      firstSlots[permutationId] = slot;
+    }
+
+    private void unlink(int permutationId, int slot) {
+      if (previousSlots[slot] == NONE) {
+        firstSlots[permutationId] = nextSlots[slot];
+      } else {
+        nextSlots[previousSlots[slot]] = nextSlots[slot];
+      }
+      if (nextSlots[slot] != NONE) {
+        previousSlots[nextSlots[slot]] = previousSlots[slot];
+      }
+    }
+
+    private int first(int permutationId) {
+      return (permutationId < firstSlots.length) ? firstSlots[permutationId] : NONE;
+    }
+  }
+}
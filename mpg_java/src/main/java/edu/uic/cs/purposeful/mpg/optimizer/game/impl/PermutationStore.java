@@ -0,0 +1,124 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+import edu.uic.cs.purposeful.mpg.target.PreparedScoring;
+
+/**
+ * The permutations one solve has met, each interned once into a dense ID, so that the restricted
+ * game tells whether it plays a permutation already by its ID, and lists its permutations by their
+ * IDs instead of copying them. A permutation is found by the 64-bit fingerprint its target
+ * computes, and only compared in full with the one of the same fingerprint, if any. If the target
+ * is a {@link PreparedScoring}, each permutation is also prepared once as it is interned, and the
+ * prepared forms are kept by the IDs. Not thread-safe.
+ */
+class PermutationStore<Permutation> {
+  private final OptimizationTarget<Permutation, ?> optimizationTarget;
+  private final List<Permutation> permutations = new ArrayList<>();
+  // null if the target does not prepare its permutations
+  private final PreparedScoring<Permutation, Object> preparedScoring;
+  private final List<Object> preparedPermutations = new ArrayList<>();
+  private final Map<Long, Integer> idsByFingerprint = new HashMap<>();
+  // the (very few) permutations whose fingerprint has been taken by another one
+  private final Map<Permutation, Integer> collidedIds = new HashMap<>();
+
+  @SuppressWarnings("unchecked")
+  PermutationStore(OptimizationTarget<Permutation, ?> optimizationTarget) {
+    this.optimizationTarget = optimizationTarget;
+    this.preparedScoring = (optimizationTarget instanceof PreparedScoring)
+        ? (PreparedScoring<Permutation, Object>) optimizationTarget : null;
+  }
+
+  /**
+   * @return the ID of the permutation, a new one (i.e. {@link #size()} before) if it is new
+   */
+  int intern(Permutation permutation) {
+    long fingerprint = optimizationTarget.fingerprint(permutation);
+    Integer id = idsByFingerprint.get(fingerprint);
+    if (id == null) {
+      id = add(permutation);
+      idsByFingerprint.put(fingerprint, id);
+      return id;
+    }
+
+    Permutation internedPermutation = permutations.get(id);
+    if (internedPermutation == permutation || internedPermutation.equals(permutation)) {
+      return id;
+    }
+    id = collidedIds.get(permutation);
+    if (id == null) {
+      id = add(permutation);
+      collidedIds.put(permutation, id);
+    }
+    return id;
+  }
+
+  private int add(Permutation permutation) {
+    permutations.add(permutation);
+    if (preparedScoring != null) {
+      preparedPermutations.add(preparedScoring.prepare(permutation));
+    }
+    return permutations.size() - 1;
+  }
+
+  Permutation get(int id) {
+    return permutations.get(id);
+  }
+
+  int size() {
+    return permutations.size();
+  }
+
+  /**
+   * @return null if the target does not prepare its permutations
+   */
+  PreparedScoring<Permutation, Object> getPreparedScoring() {
+    return preparedScoring;
+  }
+
+  Object getPrepared(int id) {
+    return preparedPermutations.get(id);
+  }
+
+  /**
+   * The permutations of the IDs, as a view that follows the changes of <code>ids</code>.
+   */
+  List<Permutation> asList(List<Integer> ids) {
+    class PermutationList extends AbstractList<Permutation> implements RandomAccess {
+      @Override
+      public Permutation get(int index) {
+        return permutations.get(ids.get(index));
+      }
+
+      @Override
+      public int size() {
+        return ids.size();
+      }
+    }
+    return new PermutationList();
+  }
+
+  /**
+   * The same as {@link #asList(List)}, of the prepared permutations.
+   */
+  List<Object> asPreparedList(List<Integer> ids) {
+    class PreparedPermutationList extends AbstractList<Object> implements RandomAccess {
+      @Override
+      public Object get(int index) {
+        return preparedPermutations.get(ids.get(index));
+      }
+
+      @Override
+      public int size() {
+        return ids.size();
+      }
+    }
+    return new PreparedPermutationList();
+  }
+}
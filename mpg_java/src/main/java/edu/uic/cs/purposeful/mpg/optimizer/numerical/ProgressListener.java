@@ -0,0 +1,13 @@
+package edu.uic.cs.purposeful.mpg.optimizer.numerical;
+
+/**
+ * Told by a numerical optimizer after each of its iterations how far it seems from the optimum.
+ */
+public interface ProgressListener {
+  /**
+   * @param gradientNorm the L2 norm of the latest gradient
+   * @param relativeImprovement the recent average improvement of the value relative to the value,
+   *        NaN if it isn't known
+   */
+  void reportProgress(double gradientNorm, double relativeImprovement);
+}
@@ -119,6 +119,6 @@ public class JhuAdaDeltaWrapper implements NumericalOptimizer {
   private boolean optimize(double[] thetas, IterationCallback iterationCallback) {
     return new AdaDeltaSGDLite().minimize(
         new DifferentiableBatchFunctionAdapter(objectiveFunction, thetas.length),
-        new IntDoubleDenseVector(thetas), iterationCallback);
+        new IntDoubleDenseVector(thetas), iterationCallback, objectiveFunction);
   }
 }
@@ -21,6 +21,7 @@ import edu.jhu.util.Timer;
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.optimizer.numerical.IterationCallback;
+import edu.uic.cs.purposeful.mpg.optimizer.numerical.ProgressListener;
 
 /**
  * Stochastic gradient descent with minibatches.
@@ -56,6 +57,20 @@ public class AdaDeltaSGDLite {
       xLast = point;
     }
 
+    /**
+     * The average improvement over (up to) the last 10 values, relative to the newest one; NaN if
+     * the values are not computed or there are fewer than two.
+     */
+    private double getRelativeAverageImprovement() {
+      int size = values.size();
+      if (size < 2) {
+        return Double.NaN;
+      }
+      double newestVal = values.get(size - 1);
+      double previousVal = (size >= 10 ? values.get(size - 10) : values.get(0));
+      return (previousVal - newestVal) / (size >= 10 ? 10 : size) / Math.abs(newestVal);
+    }
+
     private boolean doStop() {
       if (MPGConfig.ADADELTA_USE_TERMINATE_VALUE) {
         int size = values.size();
@@ -128,7 +143,7 @@ public class AdaDeltaSGDLite {
    */
   public boolean maximize(DifferentiableBatchFunction function, IntDoubleVector point,
       IterationCallback iterationCallback) {
-    return optimize(function, point, true, iterationCallback);
+    return optimize(function, point, true, iterationCallback, null);
   }
 
   /**
@@ -136,11 +151,21 @@ public class AdaDeltaSGDLite {
    */
   public boolean minimize(DifferentiableBatchFunction function, IntDoubleVector point,
       IterationCallback iterationCallback) {
-    return optimize(function, point, false, iterationCallback);
+    return minimize(function, point, iterationCallback, null);
+  }
+
+  /**
+   * Minimize the function starting at the given initial point, and report the progress after each
+   * pass through the data to <code>progressListener</code> (if not null).
+   */
+  public boolean minimize(DifferentiableBatchFunction function, IntDoubleVector point,
+      IterationCallback iterationCallback, ProgressListener progressListener) {
+    return optimize(function, point, false, iterationCallback, progressListener);
   }
 
   private boolean optimize(DifferentiableBatchFunction function, final IntDoubleVector point,
-      final boolean maximize, IterationCallback iterationCallback) {
+      final boolean maximize, IterationCallback iterationCallback,
+      ProgressListener progressListener) {
     initialize(function);
 
     int passCount = 0;
@@ -233,6 +258,10 @@ public class AdaDeltaSGDLite {
       }
 
       if (completedPass) {
+        if (progressListener != null) {
+          progressListener.reportProgress(record.gNormLast,
+              record.getRelativeAverageImprovement());
+        }
         if (iterationCallback != null) {
           try {
             iterationCallback.call(passCount, point.toNativeArray());
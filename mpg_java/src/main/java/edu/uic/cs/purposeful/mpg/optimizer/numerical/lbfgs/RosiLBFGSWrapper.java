@@ -85,6 +85,7 @@ public class RosiLBFGSWrapper implements NumericalOptimizer {
     LBFGSOptimizer lbfgs = new LBFGSOptimizer();
     int[] terminationFlag = new int[1];
 
+    double previousObjectiveValue = Double.NaN;
     int iterationIndex = 0;
     for (; iterationIndex < MPGConfig.LBFGS_MAX_NUMBER_OF_ITERATIONS
         && (iterationIndex == 0 || terminationFlag[0] != 0); iterationIndex++) {
@@ -92,6 +93,10 @@ public class RosiLBFGSWrapper implements NumericalOptimizer {
           objectiveFunction.getValueAndGradients(thetas);
       double objectiveValue = objectiveValueAndGradients.getLeft();
       double[] objectiveGradients = objectiveValueAndGradients.getRight();
+      // so that the function may solve its games as precisely as the progress needs
+      objectiveFunction.reportProgress(norm(objectiveGradients),
+          (previousObjectiveValue - objectiveValue) / Math.abs(objectiveValue));
+      previousObjectiveValue = objectiveValue;
       try {
         lbfgs.lbfgs(thetas.length, NUMBER_OF_CORRECTIONS, thetas, objectiveValue,
             objectiveGradients, /* diagco, provide the diagonal matrix Hk0 */false, diag,
@@ -113,4 +118,12 @@ public class RosiLBFGSWrapper implements NumericalOptimizer {
     // not converged if >= maxNumIterations
     return iterationIndex < MPGConfig.LBFGS_MAX_NUMBER_OF_ITERATIONS;
   }
+
+  private static double norm(double[] values) {
+    double sum = 0.0;
+    for (double value : values) {
+      sum += value * value;
+    }
+    return Math.sqrt(sum);
+  }
 }
@@ -289,6 +289,20 @@ public class StanfordCoreNLPQNMinimizerLite {
       xLast = x;
     }
 
+    /**
+     * The average improvement over (up to) the last 10 values, relative to the newest one; NaN
+     * before there are two values.
+     */
+    private double getRelativeAverageImprovement() {
+      int size = values.size();
+      if (size < 2) {
+        return Double.NaN;
+      }
+      double newestVal = values.get(size - 1);
+      double previousVal = (size >= 10 ? values.get(size - 10) : values.get(0));
+      return (previousVal - newestVal) / (size >= 10 ? 10 : size) / Math.abs(newestVal);
+    }
+
     /**
      * This function checks for convergence through first order optimality, numerical convergence
      * (i.e., zero numerical gradient), and also by checking the average improvement.
@@ -757,6 +771,8 @@ public class StanfordCoreNLPQNMinimizerLite {
         // Add the current value and gradient to the records, this also monitors
         // X and writes to output
         rec.add(newValue, newGrad, newX, fevals);
+        // so that the function may solve its games as precisely as the progress needs
+        function.reportProgress(rec.gNormLast, rec.getRelativeAverageImprovement());
 
         // shift
         value = newValue;
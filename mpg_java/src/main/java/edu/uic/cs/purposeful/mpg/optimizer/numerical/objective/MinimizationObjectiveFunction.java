@@ -4,11 +4,15 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import edu.uic.cs.purposeful.mpg.common.FeatureWiseRegularization;
 import edu.uic.cs.purposeful.mpg.common.Regularization;
+import edu.uic.cs.purposeful.mpg.optimizer.numerical.ProgressListener;
 
 /**
  * Find thetas that gives min{#getValue(thetas)}
+ * <p>
+ * The numerical optimizers report their progress to it, so that it may compute the value and the
+ * gradients less precisely while far from the optimum.
  */
-public interface MinimizationObjectiveFunction {
+public interface MinimizationObjectiveFunction extends ProgressListener {
 
   Pair<Double, double[]> getValueAndGradients(double[] thetas);
 
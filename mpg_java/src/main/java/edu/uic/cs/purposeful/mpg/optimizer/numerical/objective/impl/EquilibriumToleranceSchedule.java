@@ -0,0 +1,79 @@
+package edu.uic.cs.purposeful.mpg.optimizer.numerical.objective.impl;
+
+import org.apache.log4j.Logger;
+
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.optimizer.game.EquilibriumTolerance;
+
+/**
+ * How precisely the training games are solved as the numerical optimizer goes. They start as
+ * epsilon-equilibria within a loose relative gap and a low cap of permutations, both scaled by how
+ * much the gradient norm or the value improvement has shrunk since the first report, until the
+ * gap falls below <code>value_precision</code> and the games are solved exactly. It never loosens
+ * again.
+ */
+class EquilibriumToleranceSchedule {
+  private static final Logger LOGGER = Logger.getLogger(EquilibriumToleranceSchedule.class);
+
+  private final double initialEpsilon;
+  private final int initialMaxNumberOfPermutations;
+
+  private double initialGradientNorm = Double.NaN;
+  private double initialRelativeImprovement = Double.NaN;
+  private double scale = 1.0;
+  private EquilibriumTolerance tolerance;
+
+  /**
+   * @param initialEpsilon the relative gap of the first games, if <= 0 all are solved exactly
+   * @param initialMaxNumberOfPermutations the cap of the first games, if <= 0 there is none
+   */
+  EquilibriumToleranceSchedule(double initialEpsilon, int initialMaxNumberOfPermutations) {
+    this.initialEpsilon = initialEpsilon;
+    this.initialMaxNumberOfPermutations = initialMaxNumberOfPermutations;
+    this.tolerance = (initialEpsilon > 0) ? EquilibriumTolerance.relative(initialEpsilon)
+        .withMaxNumberOfPermutations(initialMaxNumberOfPermutations) : EquilibriumTolerance.EXACT;
+  }
+
+  EquilibriumTolerance getTolerance() {
+    return tolerance;
+  }
+
+  void update(double gradientNorm, double relativeImprovement) {
+    if (tolerance.isExact()) {
+      return;
+    }
+
+    double newScale = scale;
+    if (gradientNorm > 0 && !Double.isInfinite(gradientNorm)) {
+      if (Double.isNaN(initialGradientNorm)) {
+        initialGradientNorm = gradientNorm;
+      }
+      newScale = Math.min(newScale, gradientNorm / initialGradientNorm);
+    }
+    relativeImprovement = Math.abs(relativeImprovement);
+    if (relativeImprovement > 0 && !Double.isInfinite(relativeImprovement)) {
+      if (Double.isNaN(initialRelativeImprovement)) {
+        initialRelativeImprovement = relativeImprovement;
+      }
+      newScale = Math.min(newScale, relativeImprovement / initialRelativeImprovement);
+    }
+    if (newScale == scale) {
+      return;
+    }
+    scale = newScale;
+
+    double epsilon = initialEpsilon * scale;
+    if (epsilon < MPGConfig.VALUE_PRECISION.getValuePrecision()) {
+      tolerance = EquilibriumTolerance.EXACT;
+    } else {
+      int maxNumberOfPermutations = (initialMaxNumberOfPermutations > 0)
+          ? (int) Math.min(Integer.MAX_VALUE, Math.ceil(initialMaxNumberOfPermutations / scale))
+          : 0;
+      tolerance = EquilibriumTolerance.relative(epsilon)
+          .withMaxNumberOfPermutations(maxNumberOfPermutations);
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Equilibrium tolerance is tightened to [" + tolerance + "].");
+    }
+  }
+}
@@ -7,19 +7,20 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.FeatureWiseRegularization;
 import edu.uic.cs.purposeful.mpg.common.Norm;
 import edu.uic.cs.purposeful.mpg.common.Regularization;
-import edu.uic.cs.purposeful.mpg.optimizer.game.ZeroSumGameSolver;
+import edu.uic.cs.purposeful.mpg.common.WorkerThreadPool;
+import edu.uic.cs.purposeful.mpg.optimizer.game.EquilibriumTolerance;
 import edu.uic.cs.purposeful.mpg.optimizer.game.impl.DoubleOracleGameSolver;
 import edu.uic.cs.purposeful.mpg.optimizer.numerical.objective.MinimizationObjectiveFunction;
 import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
@@ -92,24 +93,28 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
   private static class ComputeInstanceRawObjectiveGradientsAndValue<Permutation, InitialData>
       implements Callable<ObjDoublePair<Vector>> {
     private final OptimizationTarget<Permutation, InitialData> optimizationTarget;
+    private final DoubleOracleGameSolver<Permutation> gameSolver;
     private final double[] thetas;
     private final ObjectiveTask objectiveTask;
+    private final EquilibriumTolerance tolerance;
 
     private ComputeInstanceRawObjectiveGradientsAndValue(
-        OptimizationTarget<Permutation, InitialData> optimizationTarget, double[] thetas,
-        ObjectiveTask objectiveTask) {
+        OptimizationTarget<Permutation, InitialData> optimizationTarget,
+        DoubleOracleGameSolver<Permutation> gameSolver, double[] thetas,
+        ObjectiveTask objectiveTask, EquilibriumTolerance tolerance) {
       this.optimizationTarget = optimizationTarget;
+      this.gameSolver = gameSolver;
       this.thetas = thetas;
       this.objectiveTask = objectiveTask;
+      this.tolerance = tolerance;
     }
 
     @Override
     public ObjDoublePair<Vector> call() throws Exception {
-      ZeroSumGameSolver<Permutation> gameSolver = new DoubleOracleGameSolver<>(optimizationTarget);
       if (MPGConfig.SHOW_RUNNING_TRACING) {
         System.err.print("[" + Thread.currentThread().getId() + " " + objectiveTask + "]");
       }
-      gameSolver.solve(thetas, optimizationTarget.getGoldenPermutation());
+      gameSolver.solve(thetas, optimizationTarget.getGoldenPermutation(), tolerance);
 
       Vector goldenFeatureValues = optimizationTarget.getGoldenFeatureValues();
 
@@ -124,8 +129,9 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
         double[] minimizerProbabilities = gameSolver.getMinimizerProbabilities();
         LinkedHashSet<Permutation> minimizerPermutations = gameSolver.getMinimizerPermutations();
         Assert.isTrue(minimizerProbabilities.length == minimizerPermutations.size());
-        Vector minimizerFeatureValueExpectations = optimizationTarget
-            .computeExpectedFeatureValues(minimizerProbabilities, minimizerPermutations);
+        Vector minimizerFeatureValueExpectations =
+            optimizationTarget.computeExpectedFeatureValues(minimizerProbabilities,
+                minimizerPermutations, gameSolver.getMinimizerMetadata());
         rawObjectiveGradients =
             computeRawGradients(goldenFeatureValues, minimizerFeatureValueExpectations);
       }
@@ -178,7 +184,12 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
   private Regularization regularization;
   private FeatureWiseRegularization featureWiseRegularization;
   private final List<OptimizationTarget<Permutation, InitialData>> optimizationTargets;
+  // one per instance, each solve starts from where the instance's last one ended
+  private final List<DoubleOracleGameSolver<Permutation>> gameSolvers;
   private final int[] allInstanceIndices;
+  private final EquilibriumToleranceSchedule toleranceSchedule = new EquilibriumToleranceSchedule(
+      MPGConfig.INITIAL_EQUILIBRIUM_TOLERANCE,
+      MPGConfig.INITIAL_MAX_NUM_OF_DOUBLE_ORACLE_PERMUTATIONS);
 
   public MinimizationObjectiveFunctionImpl(
       Class<? extends OptimizationTarget<Permutation, InitialData>> optimizationTargetClass,
@@ -189,9 +200,20 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
   public MinimizationObjectiveFunctionImpl(
       Class<? extends OptimizationTarget<Permutation, InitialData>> optimizationTargetClass,
       List<InitialData> initialDataList) {
-    ExecutorService threadPool = Executors.newFixedThreadPool(MPGConfig.THREAD_POOL_SIZE);
+    this(optimizationTargetClass, initialDataList,
+        MPGConfig.MAX_NUM_OF_DOUBLE_ORACLE_WARM_START_PERMUTATIONS);
+  }
+
+  /**
+   * @param maxNumberOfWarmStartPermutations the max number of permutations of each player the game
+   *        of an instance keeps for its next solve, <= 0 means every solve starts cold
+   */
+  @VisibleForTesting
+  MinimizationObjectiveFunctionImpl(
+      Class<? extends OptimizationTarget<Permutation, InitialData>> optimizationTargetClass,
+      List<InitialData> initialDataList, int maxNumberOfWarmStartPermutations) {
     CompletionService<OptimizationTarget<Permutation, InitialData>> completionService =
-        new ExecutorCompletionService<>(threadPool);
+        new ExecutorCompletionService<>(WorkerThreadPool.getInstance());
 
     try {
       int index = 0;
@@ -201,32 +223,35 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
       }
 
       optimizationTargets = new ArrayList<>(initialDataList.size());
+      gameSolvers = new ArrayList<>(initialDataList.size());
       allInstanceIndices = new int[initialDataList.size()];
       for (index = 0; index < initialDataList.size(); index++) {
-        optimizationTargets.add(completionService.take().get());
+        OptimizationTarget<Permutation, InitialData> optimizationTarget =
+            completionService.take().get();
+        optimizationTargets.add(optimizationTarget);
+        gameSolvers.add(new DoubleOracleGameSolver<>(optimizationTarget, true,
+            maxNumberOfWarmStartPermutations));
         allInstanceIndices[index] = index;
       }
     } catch (Exception e) {
       throw new PurposefulBaseException(e);
-    } finally {
-      threadPool.shutdown();
     }
   }
 
   private ValueAndGradients computeValueAndGradientsInParallel(double[] thetas,
       int[] indicesInBatch, ObjectiveTask objectiveTask) {
-    ExecutorService threadPool = Executors.newFixedThreadPool(MPGConfig.THREAD_POOL_SIZE);
     CompletionService<ObjDoublePair<Vector>> completionService =
-        new ExecutorCompletionService<>(threadPool);
+        new ExecutorCompletionService<>(WorkerThreadPool.getInstance());
 
     double[] rawObjectiveGradientsSum = new double[thetas.length];
     double rawObjectiveValueSum = 0.0;
+    EquilibriumTolerance tolerance = toleranceSchedule.getTolerance();
     try {
       for (int index : indicesInBatch) {
         OptimizationTarget<Permutation, InitialData> optimizationTarget =
             optimizationTargets.get(index);
         completionService.submit(new ComputeInstanceRawObjectiveGradientsAndValue<>(
-            optimizationTarget, thetas, objectiveTask));
+            optimizationTarget, gameSolvers.get(index), thetas, objectiveTask, tolerance));
       }
 
       for (int targetIndex = 0; targetIndex < indicesInBatch.length; targetIndex++) {
@@ -246,8 +271,6 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
       }
     } catch (Exception e) {
       throw new PurposefulBaseException(e);
-    } finally {
-      threadPool.shutdown();
     }
 
     // /////////////////////////////////////////////////////////////////////////
@@ -277,6 +300,19 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
     if (MPGConfig.SHOW_RUNNING_TRACING) {
       System.err.println("[>" + objectiveTask + "<]");
     }
+    if (LOGGER.isDebugEnabled()) {
+      int numberOfIterations = 0;
+      int numberOfSavedIterations = 0;
+      for (int index : indicesInBatch) {
+        numberOfIterations += gameSolvers.get(index).getNumberOfIterations();
+        numberOfSavedIterations += gameSolvers.get(index).getNumberOfSavedIterations();
+      }
+      LOGGER.debug("DoubleOracle | tolerance=[" + tolerance + "], iterations="
+          + numberOfIterations + ", savedIterations=" + numberOfSavedIterations
+          + ", totalSavedIterations="
+          + DoubleOracleGameSolver.getTotalNumberOfSavedIterations() + " in "
+          + DoubleOracleGameSolver.getNumberOfWarmStartedSolves() + " warm started solves");
+    }
     return new ValueAndGradients(rawObjectiveValue, valueRegularization, objectiveValue,
         rawObjectiveGradients, gradientRegularizations, objectiveGradients);
   }
@@ -354,6 +390,11 @@ public class MinimizationObjectiveFunctionImpl<Permutation, InitialData>
     return getGradients(thetas, allInstanceIndices);
   }
 
+  @Override
+  public void reportProgress(double gradientNorm, double relativeImprovement) {
+    toleranceSchedule.update(gradientNorm, relativeImprovement);
+  }
+
   @Override
   public void setRegularization(Regularization regularization) {
     Assert.isNull(featureWiseRegularization,
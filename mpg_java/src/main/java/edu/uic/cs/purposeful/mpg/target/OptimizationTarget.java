@@ -1,6 +1,8 @@
 package edu.uic.cs.purposeful.mpg.target;
 
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -13,6 +15,40 @@ public interface OptimizationTarget<Permutation, InitialData> {
 
   double computeScore(Permutation maximizerPermutation, Permutation minimizerPermutation);
 
+  /**
+   * {@link #computeScore(Object, Object)} of the maximizer permutation against each of
+   * <code>minimizerPermutations[fromIndex, toIndex)</code>, into the same positions of
+   * <code>scores</code>. If <code>min_num_of_double_oracle_scores_per_task</code> > 0, the double
+   * oracle may call it from several threads at once, on disjoint ranges, so it (and
+   * {@link #computeScore(Object, Object)}, which it calls by default) must be thread-safe.
+   */
+  default void computeScoresAgainstMinimizers(Permutation maximizerPermutation,
+      List<Permutation> minimizerPermutations, int fromIndex, int toIndex, double[] scores) {
+    for (int index = fromIndex; index < toIndex; index++) {
+      scores[index] = computeScore(maximizerPermutation, minimizerPermutations.get(index));
+    }
+  }
+
+  /**
+   * The same as {@link #computeScoresAgainstMinimizers(Object, List, int, int, double[])}, for one
+   * minimizer permutation against each of the maximizer ones.
+   */
+  default void computeScoresAgainstMaximizers(List<Permutation> maximizerPermutations,
+      Permutation minimizerPermutation, int fromIndex, int toIndex, double[] scores) {
+    for (int index = fromIndex; index < toIndex; index++) {
+      scores[index] = computeScore(maximizerPermutations.get(index), minimizerPermutation);
+    }
+  }
+
+  /**
+   * A 64-bit hash of the permutation, the same for equal permutations, by which the double oracle
+   * interns it. A target whose permutations are expensive to hash should compute it once per
+   * permutation.
+   */
+  default long fingerprint(Permutation permutation) {
+    return permutation.hashCode();
+  }
+
   Set<Permutation> getInitialMaximizerPermutations();
 
   Set<Permutation> getInitialMinimizerPermutations();
@@ -21,12 +57,66 @@ public interface OptimizationTarget<Permutation, InitialData> {
 
   double aggregateLagrangePotentials(Permutation minimizerPermutation, double[] lagrangePotentials);
 
+  /**
+   * Everything about the permutation the double oracle (and the methods below taking the
+   * metadata) needs, computed in one pass.
+   */
+  default PermutationMetadata describePermutation(Permutation permutation,
+      double[] lagrangePotentials) {
+    return new PermutationMetadata(aggregateLagrangePotentials(permutation, lagrangePotentials));
+  }
+
   Pair<Permutation, Double> findBestMaximizerResponsePermutation(double[] minimizerProbabilities,
       LinkedHashSet<Permutation> existingMinimizerPermutations, double[] lagrangePotentials);
 
+  /**
+   * @param existingMinimizerMetadata {@link #describePermutation(Object, double[])} of each
+   *        existing minimizer permutation, in the same order
+   */
+  default Pair<Permutation, Double> findBestMaximizerResponsePermutation(
+      double[] minimizerProbabilities, LinkedHashSet<Permutation> existingMinimizerPermutations,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials) {
+    return findBestMaximizerResponsePermutation(minimizerProbabilities,
+        existingMinimizerPermutations, lagrangePotentials);
+  }
+
+  /**
+   * (At most) <code>maxNumOfResponses</code> distinct good responses, the best one first, so that
+   * the double oracle may add them all at once; by default, only the best one.
+   */
+  default List<Pair<Permutation, Double>> findBestMaximizerResponsePermutations(
+      double[] minimizerProbabilities, LinkedHashSet<Permutation> existingMinimizerPermutations,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials,
+      int maxNumOfResponses) {
+    return Collections.singletonList(findBestMaximizerResponsePermutation(minimizerProbabilities,
+        existingMinimizerPermutations, existingMinimizerMetadata, lagrangePotentials));
+  }
+
   Pair<Permutation, Double> findBestMinimizerResponsePermutation(double[] maximizerProbabilities,
       LinkedHashSet<Permutation> existingMaximizerPermutations, double[] lagrangePotentials);
 
+  /**
+   * @param existingMaximizerMetadata {@link #describePermutation(Object, double[])} of each
+   *        existing maximizer permutation, in the same order
+   */
+  default Pair<Permutation, Double> findBestMinimizerResponsePermutation(
+      double[] maximizerProbabilities, LinkedHashSet<Permutation> existingMaximizerPermutations,
+      List<PermutationMetadata> existingMaximizerMetadata, double[] lagrangePotentials) {
+    return findBestMinimizerResponsePermutation(maximizerProbabilities,
+        existingMaximizerPermutations, lagrangePotentials);
+  }
+
+  /**
+   * @see #findBestMaximizerResponsePermutations(double[], LinkedHashSet, List, double[], int)
+   */
+  default List<Pair<Permutation, Double>> findBestMinimizerResponsePermutations(
+      double[] maximizerProbabilities, LinkedHashSet<Permutation> existingMaximizerPermutations,
+      List<PermutationMetadata> existingMaximizerMetadata, double[] lagrangePotentials,
+      int maxNumOfResponses) {
+    return Collections.singletonList(findBestMinimizerResponsePermutation(maximizerProbabilities,
+        existingMaximizerPermutations, existingMaximizerMetadata, lagrangePotentials));
+  }
+
   boolean isLegalMaximizerPermutation(Permutation permutation);
 
   boolean isLegalMinimizerPermutation(Permutation permutation);
@@ -43,4 +133,14 @@ public interface OptimizationTarget<Permutation, InitialData> {
    */
   Vector computeExpectedFeatureValues(double[] minimizerProbabilities,
       LinkedHashSet<Permutation> minimizerPermutations);
+
+  /**
+   * @param minimizerMetadata {@link #describePermutation(Object, double[])} of each minimizer
+   *        permutation, in the same order
+   */
+  default Vector computeExpectedFeatureValues(double[] minimizerProbabilities,
+      LinkedHashSet<Permutation> minimizerPermutations,
+      List<PermutationMetadata> minimizerMetadata) {
+    return computeExpectedFeatureValues(minimizerProbabilities, minimizerPermutations);
+  }
 }
@@ -0,0 +1,49 @@
+package edu.uic.cs.purposeful.mpg.target;
+
+/**
+ * What the double oracle computes once per solve for each permutation of the restricted game, so
+ * that neither expanding the score matrix nor the targets' best responses and expectations have
+ * to scan the permutation again.
+ */
+public class PermutationMetadata {
+  private static final int[] NO_INDICES = new int[0];
+
+  private final double aggregatedLagrangePotential;
+  private final int cardinality;
+  private final int[] setBitIndices;
+
+  /**
+   * For the permutations that are not sets of bits.
+   */
+  public PermutationMetadata(double aggregatedLagrangePotential) {
+    this(aggregatedLagrangePotential, -1, NO_INDICES);
+  }
+
+  public PermutationMetadata(double aggregatedLagrangePotential, int cardinality,
+      int[] setBitIndices) {
+    this.aggregatedLagrangePotential = aggregatedLagrangePotential;
+    this.cardinality = cardinality;
+    this.setBitIndices = setBitIndices;
+  }
+
+  /**
+   * @see OptimizationTarget#aggregateLagrangePotentials(Object, double[])
+   */
+  public double getAggregatedLagrangePotential() {
+    return aggregatedLagrangePotential;
+  }
+
+  /**
+   * The number of set bits, or -1 if the permutation is not a set of bits.
+   */
+  public int getCardinality() {
+    return cardinality;
+  }
+
+  /**
+   * The indices of the set bits in ascending order, empty if the permutation is not a set of bits.
+   */
+  public int[] getSetBitIndices() {
+    return setBitIndices;
+  }
+}
@@ -0,0 +1,25 @@
+package edu.uic.cs.purposeful.mpg.target;
+
+import java.util.List;
+
+/**
+ * A target whose permutations score faster in a prepared form. The double oracle prepares each
+ * permutation once, as it interns it, keeps the prepared form by the permutation's ID until the
+ * solve ends, and scores the new rows and columns with the methods below instead of
+ * {@link OptimizationTarget#computeScoresAgainstMinimizers(Object, List, int, int, double[])} and
+ * {@link OptimizationTarget#computeScoresAgainstMaximizers(List, Object, int, int, double[])}.
+ * The same thread-safety applies.
+ */
+public interface PreparedScoring<Permutation, Prepared> {
+
+  /**
+   * A snapshot of the permutation, which is not changed after it has been played.
+   */
+  Prepared prepare(Permutation permutation);
+
+  void computePreparedScoresAgainstMinimizers(Prepared maximizerPermutation,
+      List<Prepared> minimizerPermutations, int fromIndex, int toIndex, double[] scores);
+
+  void computePreparedScoresAgainstMaximizers(List<Prepared> maximizerPermutations,
+      Prepared minimizerPermutation, int fromIndex, int toIndex, double[] scores);
+}
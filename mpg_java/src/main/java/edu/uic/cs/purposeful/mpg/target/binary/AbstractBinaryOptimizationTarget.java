@@ -1,21 +1,28 @@
 package edu.uic.cs.purposeful.mpg.target.binary;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.util.MathUtils;
 
+import com.google.common.collect.Lists;
+
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.mpg.common.Misc;
 import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
+import edu.uic.cs.purposeful.mpg.target.PreparedScoring;
 import no.uib.cipr.matrix.DenseMatrix;
 import no.uib.cipr.matrix.DenseVector;
 import no.uib.cipr.matrix.Vector;
 import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
 
 public abstract class AbstractBinaryOptimizationTarget
-    implements OptimizationTarget<BitSet, Pair<double[], LinkedSparseMatrix>> {
+    implements OptimizationTarget<BitSet, Pair<double[], LinkedSparseMatrix>>,
+    PreparedScoring<BitSet, PackedBitSet> {
   public static final double BINARY_VALUE_ONE = 1.0;
   public static final double BINARY_VALUE_ZERO = 0.0;
 
@@ -63,6 +70,68 @@ public abstract class AbstractBinaryOptimizationTarget
     return sum;
   }
 
+  @Override
+  public PermutationMetadata describePermutation(BitSet permutation,
+      double[] lagrangePotentials) {
+    int[] setBitIndices = new int[permutation.cardinality()];
+    double sum = 0.0;
+    int count = 0;
+    for (int index = permutation.nextSetBit(0); index >= 0; index =
+        permutation.nextSetBit(index + 1)) {
+      setBitIndices[count++] = index;
+      // the same as aggregateLagrangePotentials(...)
+      if (index < lagrangePotentials.length) {
+        sum += lagrangePotentials[index];
+      }
+    }
+    return new PermutationMetadata(sum, setBitIndices.length, setBitIndices);
+  }
+
+  protected List<PermutationMetadata> describePermutations(LinkedHashSet<BitSet> permutations,
+      double[] lagrangePotentials) {
+    List<PermutationMetadata> metadata = new ArrayList<>(permutations.size());
+    for (BitSet permutation : permutations) {
+      metadata.add(describePermutation(permutation, lagrangePotentials));
+    }
+    return metadata;
+  }
+
+  /**
+   * The permutation's words and cardinality as they are now; the double oracle keeps the packed
+   * permutations by their IDs, so the other callers pack on every call.
+   */
+  protected PackedBitSet pack(BitSet permutation) {
+    return new PackedBitSet(permutation);
+  }
+
+  @Override
+  public PackedBitSet prepare(BitSet permutation) {
+    return pack(permutation);
+  }
+
+  /**
+   * The maximizer permutation is packed once for the whole row, each minimizer one as it is
+   * scored.
+   */
+  @Override
+  public void computeScoresAgainstMinimizers(BitSet maximizerPermutation,
+      List<BitSet> minimizerPermutations, int fromIndex, int toIndex, double[] scores) {
+    computePreparedScoresAgainstMinimizers(pack(maximizerPermutation),
+        Lists.transform(minimizerPermutations, this::pack), fromIndex, toIndex, scores);
+  }
+
+  @Override
+  public void computeScoresAgainstMaximizers(List<BitSet> maximizerPermutations,
+      BitSet minimizerPermutation, int fromIndex, int toIndex, double[] scores) {
+    computePreparedScoresAgainstMaximizers(Lists.transform(maximizerPermutations, this::pack),
+        pack(minimizerPermutation), fromIndex, toIndex, scores);
+  }
+
+  @Override
+  public long fingerprint(BitSet permutation) {
+    return PackedBitSet.fingerprint(permutation.toLongArray());
+  }
+
   @Override
   public double[] computeLagrangePotentials(double[] thetas) {
     double[] lagrangePotentials = new double[totalNumOfBits];
@@ -83,16 +152,27 @@ public abstract class AbstractBinaryOptimizationTarget
   @Override
   public Vector computeExpectedFeatureValues(double[] probabilities,
       LinkedHashSet<BitSet> permutations) {
+    // the Lagrange potentials are not used here
+    return computeExpectedFeatureValues(probabilities, permutations,
+        describePermutations(permutations, new double[0]));
+  }
+
+  @Override
+  public Vector computeExpectedFeatureValues(double[] probabilities,
+      LinkedHashSet<BitSet> permutations, List<PermutationMetadata> metadata) {
+    Assert.isTrue(metadata.size() == permutations.size());
     double[] bitMarginalProbabilities = new double[totalNumOfBits];
     int permutationIndex = 0;
-    for (BitSet permutation : permutations) {
+    for (PermutationMetadata permutationMetadata : metadata) {
       double probability = probabilities[permutationIndex++];
       if (Misc.roughlyEquals(probability, 0)) {
         continue; // permutation has no contribution, skip
       }
 
-      for (int bitIndex = permutation.nextSetBit(0); bitIndex >= 0
-          && bitIndex < totalNumOfBits; bitIndex = permutation.nextSetBit(bitIndex + 1)) {
+      for (int bitIndex : permutationMetadata.getSetBitIndices()) {
+        if (bitIndex >= totalNumOfBits) {
+          break;
+        }
         bitMarginalProbabilities[bitIndex] += probability;
       }
     }
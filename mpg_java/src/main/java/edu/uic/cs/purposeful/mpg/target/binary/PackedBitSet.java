@@ -0,0 +1,115 @@
+package edu.uic.cs.purposeful.mpg.target.binary;
+
+import java.util.BitSet;
+
+/**
+ * A permutation's bits packed once, together with the number of set bits and a 64-bit
+ * fingerprint, so that scoring a pair of permutations is one pass and allocates nothing. A
+ * permutation with fewer set bits than the words {@link BitSet} packs them into keeps the indices
+ * of its set bits instead, which is both smaller and faster to intersect.
+ */
+public final class PackedBitSet {
+  // exactly one of the two is not null
+  private final long[] words;
+  private final int[] setBitIndices;
+  private final int cardinality;
+  private final long fingerprint;
+
+  PackedBitSet(BitSet bits) {
+    long[] words = bits.toLongArray();
+    this.cardinality = bits.cardinality();
+    this.fingerprint = fingerprint(words);
+    if (cardinality < words.length) {
+      this.words = null;
+      this.setBitIndices = bits.stream().toArray();
+    } else {
+      this.words = words;
+      this.setBitIndices = null;
+    }
+  }
+
+  /**
+   * Mixes the words in order; equal bit sets have the same words, as the trailing zero words are
+   * never packed.
+   */
+  static long fingerprint(long[] words) {
+    long fingerprint = words.length;
+    for (long word : words) {
+      fingerprint = (Long.rotateLeft(fingerprint, 29) ^ word) * 0x9E3779B97F4A7C15L;
+    }
+    fingerprint ^= fingerprint >>> 32;
+    return fingerprint;
+  }
+
+  public int cardinality() {
+    return cardinality;
+  }
+
+  /**
+   * The same for equal bit sets, and almost never the same for different ones.
+   */
+  public long fingerprint() {
+    return fingerprint;
+  }
+
+  boolean isSparse() {
+    return words == null;
+  }
+
+  /**
+   * The number of bits set in both, i.e. <code>a.and(b).cardinality()</code> without the clone.
+   */
+  public int intersectionCardinality(PackedBitSet other) {
+    if (words != null && other.words != null) {
+      return intersectionCardinality(words, other.words);
+    }
+    if (words != null) {
+      return intersectionCardinality(other.setBitIndices, words);
+    }
+    if (other.words != null) {
+      return intersectionCardinality(setBitIndices, other.words);
+    }
+    return intersectionCardinality(setBitIndices, other.setBitIndices);
+  }
+
+  private static int intersectionCardinality(long[] words, long[] otherWords) {
+    int numOfWords = Math.min(words.length, otherWords.length);
+    int count = 0;
+    for (int wordIndex = 0; wordIndex < numOfWords; wordIndex++) {
+      count += Long.bitCount(words[wordIndex] & otherWords[wordIndex]);
+    }
+    return count;
+  }
+
+  private static int intersectionCardinality(int[] setBitIndices, long[] words) {
+    int count = 0;
+    for (int bitIndex : setBitIndices) {
+      int wordIndex = bitIndex >>> 6;
+      if (wordIndex >= words.length) {
+        break; // ascending, so are the rest
+      }
+      if ((words[wordIndex] & (1L << bitIndex)) != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int intersectionCardinality(int[] setBitIndices, int[] otherSetBitIndices) {
+    int count = 0;
+    int index = 0;
+    int otherIndex = 0;
+    while (index < setBitIndices.length && otherIndex < otherSetBitIndices.length) {
+      if (setBitIndices[index] < otherSetBitIndices[otherIndex]) {
+        index++;
+      } else if (setBitIndices[index] > otherSetBitIndices[otherIndex]) {
+        otherIndex++;
+      } else {
+        count++;
+        index++;
+        otherIndex++;
+      }
+    }
+    return count;
+  }
+}
@@ -1,7 +1,9 @@
 package edu.uic.cs.purposeful.mpg.target.binary.f1;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -10,7 +12,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 
 import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import edu.uic.cs.purposeful.mpg.target.binary.AbstractBinaryOptimizationTarget;
+import edu.uic.cs.purposeful.mpg.target.binary.PackedBitSet;
 import edu.uic.cs.purposeful.mpg.target.common.GeneralFMeasureMaximizer;
 import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
 
@@ -25,15 +29,35 @@ public class BinaryF1 extends AbstractBinaryOptimizationTarget {
 
   @Override
   public double computeScore(BitSet maximizerPermutation, BitSet minimizerPermutation) {
-    int totalNumOfOnes = maximizerPermutation.cardinality() + minimizerPermutation.cardinality();
+    return computeScore(pack(maximizerPermutation), pack(minimizerPermutation));
+  }
+
+  /**
+   * F1 is symmetric, so <code>permutation</code> may be either player's, the one of a whole row or
+   * column.
+   */
+  private static double computeScore(PackedBitSet permutation, PackedBitSet opponentPermutation) {
+    int totalNumOfOnes = permutation.cardinality() + opponentPermutation.cardinality();
     if (totalNumOfOnes == 0) {
       return 1.0;
     }
+    return 2.0 * permutation.intersectionCardinality(opponentPermutation) / totalNumOfOnes;
+  }
 
-    BitSet permutationsIntersection = (BitSet) minimizerPermutation.clone();
-    permutationsIntersection.and(maximizerPermutation);
+  @Override
+  public void computePreparedScoresAgainstMinimizers(PackedBitSet maximizerPermutation,
+      List<PackedBitSet> minimizerPermutations, int fromIndex, int toIndex, double[] scores) {
+    for (int index = fromIndex; index < toIndex; index++) {
+      scores[index] = computeScore(maximizerPermutation, minimizerPermutations.get(index));
+    }
+  }
 
-    return 2.0 * permutationsIntersection.cardinality() / totalNumOfOnes;
+  @Override
+  public void computePreparedScoresAgainstMaximizers(List<PackedBitSet> maximizerPermutations,
+      PackedBitSet minimizerPermutation, int fromIndex, int toIndex, double[] scores) {
+    for (int index = fromIndex; index < toIndex; index++) {
+      scores[index] = computeScore(minimizerPermutation, maximizerPermutations.get(index));
+    }
   }
 
   @Override
@@ -52,30 +76,59 @@ public class BinaryF1 extends AbstractBinaryOptimizationTarget {
   @Override
   public Pair<BitSet, Double> findBestMaximizerResponsePermutation(double[] minimizerProbabilities,
       LinkedHashSet<BitSet> existingMinimizerPermutations, double[] lagrangePotentials) {
+    return findBestMaximizerResponsePermutation(minimizerProbabilities,
+        existingMinimizerPermutations,
+        describePermutations(existingMinimizerPermutations, lagrangePotentials),
+        lagrangePotentials);
+  }
+
+  @Override
+  public Pair<BitSet, Double> findBestMaximizerResponsePermutation(double[] minimizerProbabilities,
+      LinkedHashSet<BitSet> existingMinimizerPermutations,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials) {
     Pair<Double, LinkedSparseMatrix> p0AndMatrixP =
-        computeMarginalProbabilityMatrixP(minimizerProbabilities, existingMinimizerPermutations);
+        computeMarginalProbabilityMatrixP(minimizerProbabilities, existingMinimizerMetadata);
     double p0 = p0AndMatrixP.getLeft();
     LinkedSparseMatrix matrixP = p0AndMatrixP.getRight();
     Pair<BitSet, Double> bestMaximizerResponse = gfm.gfm(p0, matrixP);
 
-    double lagrangePotentialsExpectation = computeLagrangePotentialsExpectation(
-        minimizerProbabilities, existingMinimizerPermutations, lagrangePotentials);
+    double lagrangePotentialsExpectation =
+        computeLagrangePotentialsExpectation(minimizerProbabilities, existingMinimizerMetadata);
     double bestResponseValue = bestMaximizerResponse.getRight() - lagrangePotentialsExpectation;
 
     return Pair.of(bestMaximizerResponse.getLeft(), bestResponseValue);
   }
 
+  @Override
+  public List<Pair<BitSet, Double>> findBestMaximizerResponsePermutations(
+      double[] minimizerProbabilities, LinkedHashSet<BitSet> existingMinimizerPermutations,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials,
+      int maxNumOfResponses) {
+    Pair<Double, LinkedSparseMatrix> p0AndMatrixP =
+        computeMarginalProbabilityMatrixP(minimizerProbabilities, existingMinimizerMetadata);
+    List<Pair<BitSet, Double>> maximizerResponses = gfm.gfm(p0AndMatrixP.getLeft(),
+        p0AndMatrixP.getRight(), null, maxNumOfResponses);
+
+    double lagrangePotentialsExpectation =
+        computeLagrangePotentialsExpectation(minimizerProbabilities, existingMinimizerMetadata);
+    List<Pair<BitSet, Double>> bestMaximizerResponses = new ArrayList<>(maximizerResponses.size());
+    for (Pair<BitSet, Double> maximizerResponse : maximizerResponses) {
+      bestMaximizerResponses.add(Pair.of(maximizerResponse.getLeft(),
+          maximizerResponse.getRight() - lagrangePotentialsExpectation));
+    }
+    return bestMaximizerResponses;
+  }
+
   private double computeLagrangePotentialsExpectation(double[] minimizerProbabilities,
-      LinkedHashSet<BitSet> existingMinimizerPermutations, double[] lagrangePotentials) {
+      List<PermutationMetadata> existingMinimizerMetadata) {
     double lagrangePotentialsExpectation = 0;
     int permutationIndex = 0;
-    for (BitSet permutation : existingMinimizerPermutations) {
+    for (PermutationMetadata metadata : existingMinimizerMetadata) {
       double probability = minimizerProbabilities[permutationIndex++];
       if (Misc.roughlyEquals(probability, 0)) {
         continue;
       }
-      double lagrangePotential = aggregateLagrangePotentials(permutation, lagrangePotentials);
-      lagrangePotentialsExpectation += probability * lagrangePotential;
+      lagrangePotentialsExpectation += probability * metadata.getAggregatedLagrangePotential();
     }
     return lagrangePotentialsExpectation;
   }
@@ -83,32 +136,59 @@ public class BinaryF1 extends AbstractBinaryOptimizationTarget {
   @Override
   public Pair<BitSet, Double> findBestMinimizerResponsePermutation(double[] maximizerProbabilities,
       LinkedHashSet<BitSet> existingMaximizerPermutations, double[] lagrangePotentials) {
+    return findBestMinimizerResponsePermutation(maximizerProbabilities,
+        existingMaximizerPermutations,
+        describePermutations(existingMaximizerPermutations, lagrangePotentials),
+        lagrangePotentials);
+  }
+
+  @Override
+  public Pair<BitSet, Double> findBestMinimizerResponsePermutation(double[] maximizerProbabilities,
+      LinkedHashSet<BitSet> existingMaximizerPermutations,
+      List<PermutationMetadata> existingMaximizerMetadata, double[] lagrangePotentials) {
     Pair<Double, LinkedSparseMatrix> p0AndMatrixP =
-        computeMarginalProbabilityMatrixP(maximizerProbabilities, existingMaximizerPermutations);
+        computeMarginalProbabilityMatrixP(maximizerProbabilities, existingMaximizerMetadata);
     double p0 = p0AndMatrixP.getLeft();
     LinkedSparseMatrix matrixP = p0AndMatrixP.getRight();
     return gfm.gfm(p0, matrixP, lagrangePotentials);
   }
 
+  @Override
+  public List<Pair<BitSet, Double>> findBestMinimizerResponsePermutations(
+      double[] maximizerProbabilities, LinkedHashSet<BitSet> existingMaximizerPermutations,
+      List<PermutationMetadata> existingMaximizerMetadata, double[] lagrangePotentials,
+      int maxNumOfResponses) {
+    Pair<Double, LinkedSparseMatrix> p0AndMatrixP =
+        computeMarginalProbabilityMatrixP(maximizerProbabilities, existingMaximizerMetadata);
+    return gfm.gfm(p0AndMatrixP.getLeft(), p0AndMatrixP.getRight(), lagrangePotentials,
+        maxNumOfResponses);
+  }
+
   @VisibleForTesting
   Pair<Double, LinkedSparseMatrix> computeMarginalProbabilityMatrixP(double[] probabilities,
       LinkedHashSet<BitSet> permutations) {
+    // the Lagrange potentials are not used here
+    return computeMarginalProbabilityMatrixP(probabilities,
+        describePermutations(permutations, new double[0]));
+  }
+
+  private Pair<Double, LinkedSparseMatrix> computeMarginalProbabilityMatrixP(
+      double[] probabilities, List<PermutationMetadata> metadata) {
     double p0 = 0.0;
     LinkedSparseMatrix matrixP = new LinkedSparseMatrix(totalNumOfBits, totalNumOfBits);
 
     int permutationIndex = 0;
-    for (BitSet permutation : permutations) {
+    for (PermutationMetadata permutationMetadata : metadata) {
       double probability = probabilities[permutationIndex++];
       if (Misc.roughlyEquals(probability, 0)) {
         continue;
       }
 
-      int numOfOnes = permutation.cardinality(); // s
+      int numOfOnes = permutationMetadata.getCardinality(); // s
       if (numOfOnes == 0) {
         p0 += probability;
       } else {
-        for (int index = permutation.nextSetBit(0); index >= 0; index =
-            permutation.nextSetBit(index + 1)) { // i
+        for (int index : permutationMetadata.getSetBitIndices()) { // i
           // the probability that there are total s '1's, and i-th position is '1'
           matrixP.add(index, numOfOnes - 1, probability);
         }
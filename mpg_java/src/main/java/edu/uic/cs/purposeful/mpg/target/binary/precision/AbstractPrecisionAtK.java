@@ -17,7 +17,9 @@ import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.common.config.AbstractConfig;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.Misc;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import edu.uic.cs.purposeful.mpg.target.binary.AbstractBinaryOptimizationTarget;
+import edu.uic.cs.purposeful.mpg.target.binary.PackedBitSet;
 import net.mintern.primitive.pair.MutableDoubleIntPair;
 import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
 
@@ -57,12 +59,40 @@ abstract class AbstractPrecisionAtK extends AbstractBinaryOptimizationTarget {
 
   @Override
   public double computeScore(BitSet maximizerPermutation, BitSet minimizerPermutation) {
-    Assert.isTrue(maximizerPermutation.cardinality() == k, "Maximizer should be restricted to k.");
+    PackedBitSet packedMaximizerPermutation = pack(maximizerPermutation);
+    // the cardinality is cached, so the check costs nothing
+    Assert.isTrue(packedMaximizerPermutation.cardinality() == k,
+        "Maximizer should be restricted to k.");
+    return computeRestrictedScore(packedMaximizerPermutation, pack(minimizerPermutation));
+  }
 
-    BitSet actionsIntersection = (BitSet) minimizerPermutation.clone();
-    actionsIntersection.and(maximizerPermutation);
+  private double computeRestrictedScore(PackedBitSet maximizerPermutation,
+      PackedBitSet minimizerPermutation) {
+    return ((double) maximizerPermutation.intersectionCardinality(minimizerPermutation)) / k;
+  }
 
-    return ((double) actionsIntersection.cardinality()) / k;
+  @Override
+  public void computePreparedScoresAgainstMinimizers(PackedBitSet maximizerPermutation,
+      List<PackedBitSet> minimizerPermutations, int fromIndex, int toIndex, double[] scores) {
+    // checked once for the whole row
+    Assert.isTrue(maximizerPermutation.cardinality() == k,
+        "Maximizer should be restricted to k.");
+    for (int index = fromIndex; index < toIndex; index++) {
+      scores[index] =
+          computeRestrictedScore(maximizerPermutation, minimizerPermutations.get(index));
+    }
+  }
+
+  @Override
+  public void computePreparedScoresAgainstMaximizers(List<PackedBitSet> maximizerPermutations,
+      PackedBitSet minimizerPermutation, int fromIndex, int toIndex, double[] scores) {
+    for (int index = fromIndex; index < toIndex; index++) {
+      PackedBitSet maximizerPermutation = maximizerPermutations.get(index);
+      // the cardinality is cached, so the check costs nothing
+      Assert.isTrue(maximizerPermutation.cardinality() == k,
+          "Maximizer should be restricted to k.");
+      scores[index] = computeRestrictedScore(maximizerPermutation, minimizerPermutation);
+    }
   }
 
   @Override
@@ -79,23 +109,46 @@ abstract class AbstractPrecisionAtK extends AbstractBinaryOptimizationTarget {
   @Override
   public Pair<BitSet, Double> findBestMaximizerResponsePermutation(double[] minimizerProbabilities,
       LinkedHashSet<BitSet> existingMinimizerActions, double[] lagrangePotentials) {
+    // the Lagrange potentials are not used in the metadata
+    return findBestMaximizerResponsePermutation(minimizerProbabilities, existingMinimizerActions,
+        describePermutations(existingMinimizerActions, new double[0]), lagrangePotentials);
+  }
+
+  @Override
+  public Pair<BitSet, Double> findBestMaximizerResponsePermutation(double[] minimizerProbabilities,
+      LinkedHashSet<BitSet> existingMinimizerActions,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials) {
+    return findBestMaximizerResponsePermutations(minimizerProbabilities, existingMinimizerActions,
+        existingMinimizerMetadata, lagrangePotentials, 1).get(0);
+  }
+
+  /**
+   * The best response, followed by the ones swapping its least probable bit for each of the next
+   * most probable bits.
+   */
+  @Override
+  public List<Pair<BitSet, Double>> findBestMaximizerResponsePermutations(
+      double[] minimizerProbabilities, LinkedHashSet<BitSet> existingMinimizerActions,
+      List<PermutationMetadata> existingMinimizerMetadata, double[] lagrangePotentials,
+      int maxNumOfResponses) {
     List<MutableDoubleIntPair> marginalProbabilities = new ArrayList<>(totalNumOfBits);
     for (int bitIndex = 0; bitIndex < totalNumOfBits; bitIndex++) {
       marginalProbabilities.add(new MutableDoubleIntPair(0.0, bitIndex));
     }
 
     int actionIndex = 0;
-    for (BitSet minimizerAction : existingMinimizerActions) {
+    for (PermutationMetadata minimizerMetadata : existingMinimizerMetadata) {
       double minimizerProbability = minimizerProbabilities[actionIndex++];
       if (Misc.roughlyEquals(minimizerProbability, 0.0)) {
         continue;
       }
 
-      for (int bitIndex = 0; bitIndex < totalNumOfBits; bitIndex++) {
-        if (minimizerAction.get(bitIndex)) {
-          MutableDoubleIntPair marginalProbability = marginalProbabilities.get(bitIndex);
-          marginalProbability.left += minimizerProbability;
+      for (int bitIndex : minimizerMetadata.getSetBitIndices()) {
+        if (bitIndex >= totalNumOfBits) {
+          break;
         }
+        MutableDoubleIntPair marginalProbability = marginalProbabilities.get(bitIndex);
+        marginalProbability.left += minimizerProbability;
       }
     }
 
@@ -114,9 +167,24 @@ abstract class AbstractPrecisionAtK extends AbstractBinaryOptimizationTarget {
       lagrangePotentialsSum +=
           (marginalProbability.left * lagrangePotentials[marginalProbability.right]);
     }
+    double bestResponseValueSum = bestResponseValue;
     bestResponseValue = bestResponseValue / k - lagrangePotentialsSum;
 
-    return Pair.of(bestResponse, bestResponseValue);
+    List<Pair<BitSet, Double>> bestResponses = new ArrayList<>(maxNumOfResponses);
+    bestResponses.add(Pair.of(bestResponse, bestResponseValue));
+    MutableDoubleIntPair leastProbable = marginalProbabilities.get(k - 1);
+    for (int bitIndex = k; bitIndex < totalNumOfBits
+        && bestResponses.size() < maxNumOfResponses; bitIndex++) {
+      MutableDoubleIntPair marginalProbability = marginalProbabilities.get(bitIndex);
+      BitSet response = (BitSet) bestResponse.clone();
+      response.clear(leastProbable.right);
+      response.set(marginalProbability.right);
+      double responseValue =
+          (bestResponseValueSum - leastProbable.left + marginalProbability.left) / k
+              - lagrangePotentialsSum;
+      bestResponses.add(Pair.of(response, responseValue));
+    }
+    return bestResponses;
   }
 
   @Override
@@ -127,8 +195,12 @@ abstract class AbstractPrecisionAtK extends AbstractBinaryOptimizationTarget {
     return action.cardinality() == k;
   }
 
+  /**
+   * @param existingMaximizerMetadata {@link #describePermutation(BitSet, double[])} of each
+   *        existing maximizer action, in the same order
+   */
   protected List<MutableDoubleIntPair> computeMinimizerMarginalProbabilitiesWithLagrangePotentials(
-      double[] maximizerProbabilities, LinkedHashSet<BitSet> existingMaximizerActions,
+      double[] maximizerProbabilities, List<PermutationMetadata> existingMaximizerMetadata,
       double[] lagrangePotentials) {
     List<MutableDoubleIntPair> marginalProbabilitiesWithLagrangePotentials =
         new ArrayList<>(totalNumOfBits);
@@ -136,20 +208,30 @@ abstract class AbstractPrecisionAtK extends AbstractBinaryOptimizationTarget {
       marginalProbabilitiesWithLagrangePotentials.add(new MutableDoubleIntPair(0.0, bitIndex));
     }
 
+    // only the k set bits of each action add to its marginals
+    double maximizerProbabilitySum = 0.0;
     int maximizerActionIndex = 0;
-    for (BitSet maximizerAction : existingMaximizerActions) {
+    for (PermutationMetadata maximizerMetadata : existingMaximizerMetadata) {
       double maximizerProbability = maximizerProbabilities[maximizerActionIndex++];
       if (Misc.roughlyEquals(maximizerProbability, 0.0)) {
         continue;
       }
+      maximizerProbabilitySum += maximizerProbability;
 
-      for (int bitIndex = 0; bitIndex < totalNumOfBits; bitIndex++) {
-        MutableDoubleIntPair marginalProbabilityWithLagrangePotential =
-            marginalProbabilitiesWithLagrangePotentials.get(bitIndex);
-        marginalProbabilityWithLagrangePotential.left += maximizerProbability
-            * ((maximizerAction.get(bitIndex) ? reciprocalK : 0) - lagrangePotentials[bitIndex]);
+      for (int bitIndex : maximizerMetadata.getSetBitIndices()) {
+        if (bitIndex >= totalNumOfBits) {
+          break;
+        }
+        marginalProbabilitiesWithLagrangePotentials.get(bitIndex).left +=
+            maximizerProbability * reciprocalK;
       }
     }
+
+    // every bit's Lagrange potential is weighted by all the actions' probabilities
+    for (int bitIndex = 0; bitIndex < totalNumOfBits; bitIndex++) {
+      marginalProbabilitiesWithLagrangePotentials.get(bitIndex).left -=
+          maximizerProbabilitySum * lagrangePotentials[bitIndex];
+    }
     return marginalProbabilitiesWithLagrangePotentials;
   }
 }
@@ -9,6 +9,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import com.google.common.collect.Sets;
 
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import net.mintern.primitive.pair.MutableDoubleIntPair;
 
 public class PrecisionAtK extends AbstractPrecisionAtK {
@@ -33,9 +34,18 @@ public class PrecisionAtK extends AbstractPrecisionAtK {
   @Override
   public Pair<BitSet, Double> findBestMinimizerResponsePermutation(double[] maximizerProbabilities,
       LinkedHashSet<BitSet> existingMaximizerActions, double[] lagrangePotentials) {
+    // the Lagrange potentials are not used in the metadata
+    return findBestMinimizerResponsePermutation(maximizerProbabilities, existingMaximizerActions,
+        describePermutations(existingMaximizerActions, new double[0]), lagrangePotentials);
+  }
+
+  @Override
+  public Pair<BitSet, Double> findBestMinimizerResponsePermutation(double[] maximizerProbabilities,
+      LinkedHashSet<BitSet> existingMaximizerActions,
+      List<PermutationMetadata> existingMaximizerMetadata, double[] lagrangePotentials) {
     List<MutableDoubleIntPair> marginalProbabilitiesWithLagrangePotentials =
         computeMinimizerMarginalProbabilitiesWithLagrangePotentials(maximizerProbabilities,
-            existingMaximizerActions, lagrangePotentials);
+            existingMaximizerMetadata, lagrangePotentials);
 
     double bestResponseValue = 0.0;
     BitSet bestResponse = new BitSet(totalNumOfBits);
@@ -1,42 +1,300 @@
 package edu.uic.cs.purposeful.mpg.target.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import edu.uic.cs.purposeful.common.assertion.Assert;
 import edu.uic.cs.purposeful.mpg.MPGConfig;
-import net.mintern.primitive.pair.DoubleIntPair;
-import no.uib.cipr.matrix.DenseMatrix;
 import no.uib.cipr.matrix.MatrixEntry;
-import no.uib.cipr.matrix.UpperSymmDenseMatrix;
 import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
 
 public class GeneralFMeasureMaximizer {
-  private static class ComputeMatrixW implements Function<Integer, UpperSymmDenseMatrix> {
-    @Override
-    public UpperSymmDenseMatrix apply(Integer totalNumOfPositions) {
-      outputToConsole("Begin computing matrixW for " + totalNumOfPositions);
-      UpperSymmDenseMatrix w = new UpperSymmDenseMatrix(totalNumOfPositions);
-      for (int rowIndex = 0; rowIndex < totalNumOfPositions; rowIndex++) {
-        for (int columnIndex = rowIndex; columnIndex < totalNumOfPositions; columnIndex++) {
-          w.set(rowIndex, columnIndex, 1.0 / (rowIndex + columnIndex + 2));
+  // a cardinality is only skipped if its bound misses the responses' by more than this (relative)
+  // error, which the bound and the exact sum may have accumulated differently
+  private static final double BOUND_SLACK = 1e-9;
+
+  /**
+   * P's non-zero columns only, i.e. the cardinalities present in the opponent's support, each with
+   * its non-zero entries.
+   */
+  private static class CompactMatrixP {
+    private final int[] columnIndices;
+    private final int[][] entryRows;
+    private final double[][] entryValues;
+    private final double[] columnSums;
+    private final boolean isNonNegative;
+
+    private CompactMatrixP(LinkedSparseMatrix matrixP) {
+      int[] numOfEntries = new int[matrixP.numColumns()];
+      for (MatrixEntry entry : matrixP) {
+        if (entry.get() != 0) {
+          numOfEntries[entry.column()]++;
+        }
+      }
+      int numOfColumns = 0;
+      for (int count : numOfEntries) {
+        if (count > 0) {
+          numOfColumns++;
+        }
+      }
+
+      columnIndices = new int[numOfColumns];
+      entryRows = new int[numOfColumns][];
+      entryValues = new double[numOfColumns][];
+      columnSums = new double[numOfColumns];
+      // from P's column indices to the compact ones
+      int[] compactIndices = new int[numOfEntries.length];
+      int compactIndex = 0;
+      for (int columnIndex = 0; columnIndex < numOfEntries.length; columnIndex++) {
+        if (numOfEntries[columnIndex] > 0) {
+          columnIndices[compactIndex] = columnIndex;
+          entryRows[compactIndex] = new int[numOfEntries[columnIndex]];
+          entryValues[compactIndex] = new double[numOfEntries[columnIndex]];
+          compactIndices[columnIndex] = compactIndex++;
+        }
+      }
+
+      int[] sizes = new int[numOfColumns];
+      boolean isNonNegative = true;
+      for (MatrixEntry entry : matrixP) {
+        double value = entry.get();
+        if (value != 0) {
+          compactIndex = compactIndices[entry.column()];
+          entryRows[compactIndex][sizes[compactIndex]] = entry.row();
+          entryValues[compactIndex][sizes[compactIndex]++] = value;
+          columnSums[compactIndex] += value;
+          isNonNegative &= value > 0;
+        }
+      }
+      this.isNonNegative = isNonNegative;
+    }
+  }
+
+  /**
+   * The scores of one cardinality's column, and its positions ordered by them on demand: the best
+   * first, the ties broken by the positions (the later ones first when maximizing). Reused for all
+   * the columns of one response, so that nothing is allocated per column.
+   */
+  @VisibleForTesting
+  static class PositionSelector {
+    // the ranges no longer than this are sorted by insertion
+    @VisibleForTesting
+    static final int INSERTION_SORT_THRESHOLD = 16;
+
+    final double[] scores;
+    final int[] positions;
+    private final boolean findMaximize;
+
+    PositionSelector(int numOfPositions, boolean findMaximize) {
+      this.scores = new double[numOfPositions];
+      this.positions = new int[numOfPositions];
+      this.findMaximize = findMaximize;
+    }
+
+    /**
+     * Moves the best <code>numOfOnes</code> positions to the front in order, by a partial selection
+     * and then a sort of those only.
+     *
+     * @return the sum of their scores, added in order
+     */
+    double selectBest(int numOfOnes) {
+      Assert.isTrue(numOfOnes >= 0 && numOfOnes <= positions.length);
+      for (int index = 0; index < positions.length; index++) {
+        positions[index] = index;
+      }
+      select(0, positions.length - 1, numOfOnes - 1);
+      sort(0, numOfOnes - 1);
+
+      double valueSum = 0.0;
+      for (int index = 0; index < numOfOnes; index++) {
+        valueSum += scores[positions[index]];
+      }
+      return valueSum;
+    }
+
+    /**
+     * The best <code>numOfOnes</code> positions {@link #selectBest(int)} has moved to the front.
+     */
+    BitSet toPermutation(int numOfOnes) {
+      BitSet permutation = new BitSet(positions.length);
+      for (int index = 0; index < numOfOnes; index++) {
+        permutation.set(positions[index]);
+      }
+      return permutation;
+    }
+
+    private boolean precedes(int position, int otherPosition) {
+      int comparison = Double.compare(scores[position], scores[otherPosition]);
+      if (comparison == 0) {
+        comparison = Integer.compare(position, otherPosition);
+      }
+      return findMaximize ? comparison > 0 : comparison < 0;
+    }
+
+    /**
+     * Quickselect, afterwards <code>positions[from, k]</code> precede the rest of
+     * <code>positions[from, to]</code>.
+     */
+    private void select(int from, int to, int k) {
+      while (from < to) {
+        int pivotIndex = partition(from, to);
+        if (pivotIndex == k) {
+          return;
+        } else if (k < pivotIndex) {
+          to = pivotIndex - 1;
+        } else {
+          from = pivotIndex + 1;
         }
       }
-      outputToConsole("End computing matrixW for " + totalNumOfPositions);
-      return w;
+    }
+
+    private void sort(int from, int to) {
+      while (to - from >= INSERTION_SORT_THRESHOLD) {
+        int pivotIndex = partition(from, to);
+        // recurses into the shorter side only
+        if (pivotIndex - from < to - pivotIndex) {
+          sort(from, pivotIndex - 1);
+          from = pivotIndex + 1;
+        } else {
+          sort(pivotIndex + 1, to);
+          to = pivotIndex - 1;
+        }
+      }
+      for (int index = from + 1; index <= to; index++) {
+        int position = positions[index];
+        int insertIndex = index;
+        while (insertIndex > from && precedes(position, positions[insertIndex - 1])) {
+          positions[insertIndex] = positions[insertIndex - 1];
+          insertIndex--;
+        }
+        positions[insertIndex] = position;
+      }
+    }
+
+    /**
+     * Around the median of the first, middle and last positions; the order is total, as no two
+     * positions are the same.
+     */
+    private int partition(int from, int to) {
+      int middle = (from + to) >>> 1;
+      if (precedes(positions[middle], positions[from])) {
+        swap(middle, from);
+      }
+      if (precedes(positions[to], positions[from])) {
+        swap(to, from);
+      }
+      if (precedes(positions[to], positions[middle])) {
+        swap(to, middle);
+      }
+      swap(middle, to);
+
+      int pivot = positions[to];
+      int storeIndex = from;
+      for (int index = from; index < to; index++) {
+        if (precedes(positions[index], pivot)) {
+          swap(storeIndex++, index);
+        }
+      }
+      swap(storeIndex, to);
+      return storeIndex;
+    }
+
+    private void swap(int index, int otherIndex) {
+      int position = positions[index];
+      positions[index] = positions[otherIndex];
+      positions[otherIndex] = position;
     }
   }
 
-  private static final ConcurrentHashMap<Integer, UpperSymmDenseMatrix> MATRIX_W_CACHE =
-      new ConcurrentHashMap<>();
+  /**
+   * Evaluates the cardinalities of the columns <code>[fromColumnIndex, toColumnIndex)</code> into
+   * <code>values</code>, splitting them in halves on the fork-join pool down to
+   * <code>minNumOfColumnsPerTask</code>. Each block bounds its columns by the best values it has
+   * evaluated itself (and the all zeros'), so which columns are skipped doesn't change the
+   * responses, which are reduced from <code>values</code> in the order of the cardinalities.
+   */
+  private class ColumnSweep extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final CompactMatrixP compactMatrixP;
+    private final double[] lagrangePotentials;
+    private final double[] lowerBounds;
+    private final int numOfResponses;
+    private final double[] values;
+    private final int fromColumnIndex;
+    private final int toColumnIndex;
+
+    private ColumnSweep(CompactMatrixP compactMatrixP, double[] lagrangePotentials,
+        double[] lowerBounds, int numOfResponses, double[] values, int fromColumnIndex,
+        int toColumnIndex) {
+      this.compactMatrixP = compactMatrixP;
+      this.lagrangePotentials = lagrangePotentials;
+      this.lowerBounds = lowerBounds;
+      this.numOfResponses = numOfResponses;
+      this.values = values;
+      this.fromColumnIndex = fromColumnIndex;
+      this.toColumnIndex = toColumnIndex;
+    }
+
+    private ColumnSweep split(int fromColumnIndex, int toColumnIndex) {
+      return new ColumnSweep(compactMatrixP, lagrangePotentials, lowerBounds, numOfResponses,
+          values, fromColumnIndex, toColumnIndex);
+    }
+
+    @Override
+    protected void compute() {
+      if (toColumnIndex - fromColumnIndex <= minNumOfColumnsPerTask) {
+        sweep();
+        return;
+      }
+      int middleColumnIndex = (fromColumnIndex + toColumnIndex) >>> 1;
+      invokeAll(split(fromColumnIndex, middleColumnIndex),
+          split(middleColumnIndex, toColumnIndex));
+    }
+
+    private void sweep() {
+      boolean findMaximize = lagrangePotentials == null;
+      // both bounds hold only if P's entries are probabilities
+      boolean bounds = compactMatrixP.isNonNegative;
+      // the values of this block's best responses so far, the best first
+      double[] bestValues = new double[numOfResponses];
+      int numOfBestValues = insert(bestValues, 0, values[0], findMaximize);
+
+      PositionSelector selector = new PositionSelector(numOfPositions, findMaximize);
+      for (int columnIndex = fromColumnIndex; columnIndex < toColumnIndex; columnIndex++) {
+        int numOfOnes = columnIndex + 1;
+        if (bounds && numOfBestValues == bestValues.length) {
+          double bound = findMaximize ? computeUpperBound(compactMatrixP, columnIndex)
+              : lowerBounds[columnIndex];
+          double slack = BOUND_SLACK * Math.max(1.0, Math.abs(bound));
+          double worstBestValue = bestValues[numOfBestValues - 1];
+          // the ties go to the fewer ones, which have been evaluated already
+          if (findMaximize ? bound + slack < worstBestValue : bound - slack > worstBestValue) {
+            values[numOfOnes] = Double.NaN;
+            continue;
+          }
+        }
+
+        computeColumnScores(compactMatrixP, lagrangePotentials, columnIndex, selector.scores);
+        values[numOfOnes] = selector.selectBest(numOfOnes);
+        numOfBestValues = insert(bestValues, numOfBestValues, values[numOfOnes], findMaximize);
+      }
+    }
+  }
 
   protected final int numOfPositions;
+  // W[k][s] = 1 / (k + s + 2) = reciprocals[k + s], W itself (numOfPositions^2) is never built
+  private final double[] reciprocals;
+  // <= 0 if the sweep is not split
+  private final int minNumOfColumnsPerTask;
 
   protected static void outputToConsole(String info) {
     if (MPGConfig.SHOW_RUNNING_TRACING) {
@@ -45,11 +303,17 @@ public class GeneralFMeasureMaximizer {
   }
 
   public GeneralFMeasureMaximizer(int totalNumOfPositions) {
-    this.numOfPositions = totalNumOfPositions;
+    this(totalNumOfPositions, MPGConfig.MIN_NUM_OF_GFM_COLUMNS_PER_TASK);
   }
 
-  protected UpperSymmDenseMatrix getMatrixW() {
-    return MATRIX_W_CACHE.computeIfAbsent(numOfPositions, new ComputeMatrixW());
+  @VisibleForTesting
+  GeneralFMeasureMaximizer(int totalNumOfPositions, int minNumOfColumnsPerTask) {
+    this.numOfPositions = totalNumOfPositions;
+    this.minNumOfColumnsPerTask = minNumOfColumnsPerTask;
+    this.reciprocals = new double[Math.max(0, 2 * totalNumOfPositions - 1)];
+    for (int index = 0; index < reciprocals.length; index++) {
+      reciprocals[index] = 1.0 / (index + 2);
+    }
   }
 
   /**
@@ -65,109 +329,148 @@ public class GeneralFMeasureMaximizer {
    */
   public Pair<BitSet, Double> gfm(double p0, LinkedSparseMatrix matrixP,
       double[] lagrangePotentials) {
+    return gfm(p0, matrixP, lagrangePotentials, 1).get(0);
+  }
+
+  /**
+   * The same as {@link #gfm(double, LinkedSparseMatrix, double[])}, but returns (at most)
+   * <code>maxNumOfResponses</code> responses of different cardinalities, the best one first.
+   * <p>
+   * The score of position i for cardinality s + 1 is
+   * <code>-lagrangePotentials[i] + 2 * sum_k P[i][k] / (k + s + 2)</code>, over P's non-zero
+   * columns k only, and each cardinality's column of scores is computed when it is evaluated. A
+   * cardinality is not evaluated at all if its bound can't make it into the responses: the sum of
+   * its column (the scores are non-negative) when maximizing, and the sum of its smallest negative
+   * Lagrange potentials when minimizing. Only the responses' permutations are materialized, in the
+   * end. The cardinalities may be swept in blocks on the fork-join pool, see
+   * <code>min_num_of_gfm_columns_per_task</code>.
+   */
+  public List<Pair<BitSet, Double>> gfm(double p0, LinkedSparseMatrix matrixP,
+      double[] lagrangePotentials, int maxNumOfResponses) {
     boolean findMaximize = lagrangePotentials == null;
     Assert.isTrue(findMaximize || lagrangePotentials.length == numOfPositions);
+    Assert.isTrue(maxNumOfResponses > 0);
 
-    DenseMatrix scoreMatrix = null;
-    if (findMaximize) {
-      scoreMatrix = new DenseMatrix(numOfPositions, numOfPositions);
-      matrixP.mult(2, getMatrixW(), scoreMatrix);
+    CompactMatrixP compactMatrixP = new CompactMatrixP(matrixP);
+    double[] lowerBounds = (compactMatrixP.isNonNegative && !findMaximize)
+        ? computeLowerBounds(lagrangePotentials) : null;
+    int numOfResponses = Math.min(maxNumOfResponses, numOfPositions + 1);
+
+    // by the number of ones, NaN if not evaluated
+    double[] values = new double[numOfPositions + 1];
+    values[0] = p0; // all zeros
+    ColumnSweep sweep = new ColumnSweep(compactMatrixP, lagrangePotentials, lowerBounds,
+        numOfResponses, values, 0, numOfPositions);
+    if (minNumOfColumnsPerTask <= 0 || numOfPositions <= minNumOfColumnsPerTask) {
+      sweep.sweep();
     } else {
-      scoreMatrix = initializeScoreMatrixWithNegativeLagrangePotentials(lagrangePotentials);
-      matrixP.multAdd(2, getMatrixW(), scoreMatrix);
+      ForkJoinPool.commonPool().invoke(sweep);
     }
 
-    List<List<DoubleIntPair>> rowIndicesByOrderedValueInColumns =
-        storeAndSortPositionIndices(scoreMatrix, findMaximize);
+    List<Pair<BitSet, Double>> responses = new ArrayList<>(numOfResponses);
+    PositionSelector selector = new PositionSelector(numOfPositions, findMaximize);
+    boolean[] isResponse = new boolean[values.length];
+    while (responses.size() < numOfResponses) {
+      // the fewest ones among the equal values
+      int bestNumOfOnes = -1;
+      for (int numOfOnes = 0; numOfOnes < values.length; numOfOnes++) {
+        if (!isResponse[numOfOnes] && !Double.isNaN(values[numOfOnes]) && (bestNumOfOnes < 0
+            || isBetter(values[numOfOnes], values[bestNumOfOnes], findMaximize))) {
+          bestNumOfOnes = numOfOnes;
+        }
+      }
+      isResponse[bestNumOfOnes] = true;
+
+      BitSet permutation = new BitSet(numOfPositions);
+      if (bestNumOfOnes > 0) {
+        computeColumnScores(compactMatrixP, lagrangePotentials, bestNumOfOnes - 1,
+            selector.scores);
+        selector.selectBest(bestNumOfOnes);
+        permutation = selector.toPermutation(bestNumOfOnes);
+      }
+      responses.add(Pair.of(permutation, values[bestNumOfOnes]));
+    }
+    return responses;
+  }
 
-    return findTheBestResponse(p0, rowIndicesByOrderedValueInColumns, findMaximize);
+  private static boolean isBetter(double value, double otherValue, boolean findMaximize) {
+    return findMaximize ? value > otherValue : value < otherValue;
   }
 
-  protected List<List<DoubleIntPair>> storeAndSortPositionIndices(DenseMatrix scoreMatrix,
+  /**
+   * Inserts the value into the best values (the best first) if it is better than the worst of
+   * them, or there is room; the earlier ones stay ahead of the equal ones.
+   *
+   * @return the new number of best values
+   */
+  private static int insert(double[] bestValues, int numOfBestValues, double value,
       boolean findMaximize) {
-    List<List<DoubleIntPair>> rowIndicesByOrderedValueInColumns =
-        new ArrayList<>(scoreMatrix.numColumns());
-    for (int index = 0; index < scoreMatrix.numColumns(); index++) {
-      rowIndicesByOrderedValueInColumns.add(new ArrayList<>(scoreMatrix.numRows()));
+    int index = numOfBestValues;
+    if (index == bestValues.length) {
+      if (!isBetter(value, bestValues[index - 1], findMaximize)) {
+        return numOfBestValues;
+      }
+      index--;
+    } else {
+      numOfBestValues++;
     }
-
-    for (MatrixEntry entry : scoreMatrix) {
-      List<DoubleIntPair> indicesByOrderedValue =
-          rowIndicesByOrderedValueInColumns.get(entry.column());
-      indicesByOrderedValue.add(DoubleIntPair.of(entry.get(), entry.row()));
+    while (index > 0 && isBetter(value, bestValues[index - 1], findMaximize)) {
+      bestValues[index] = bestValues[index - 1];
+      index--;
     }
+    bestValues[index] = value;
+    return numOfBestValues;
+  }
 
-    for (List<DoubleIntPair> indicesByOrderedValue : rowIndicesByOrderedValueInColumns) {
-      if (findMaximize) {
-        Collections.sort(indicesByOrderedValue, Collections.reverseOrder());
-      } else {
-        Collections.sort(indicesByOrderedValue);
+  /**
+   * The scores of all the positions for cardinality <code>columnIndex + 1</code>, into
+   * <code>columnScores</code>.
+   */
+  private void computeColumnScores(CompactMatrixP compactMatrixP, double[] lagrangePotentials,
+      int columnIndex, double[] columnScores) {
+    if (lagrangePotentials == null) {
+      Arrays.fill(columnScores, 0.0);
+    } else {
+      for (int rowIndex = 0; rowIndex < numOfPositions; rowIndex++) {
+        columnScores[rowIndex] = -lagrangePotentials[rowIndex];
       }
     }
 
-    return rowIndicesByOrderedValueInColumns;
+    for (int compactIndex = 0; compactIndex < compactMatrixP.columnIndices.length; compactIndex++) {
+      double weight = 2 * reciprocals[compactMatrixP.columnIndices[compactIndex] + columnIndex];
+      int[] entryRows = compactMatrixP.entryRows[compactIndex];
+      double[] entryValues = compactMatrixP.entryValues[compactIndex];
+      for (int entryIndex = 0; entryIndex < entryRows.length; entryIndex++) {
+        columnScores[entryRows[entryIndex]] += weight * entryValues[entryIndex];
+      }
+    }
   }
 
-  protected Pair<BitSet, Double> findTheBestResponse(double p0,
-      List<List<DoubleIntPair>> rowIndicesByOrderedValueInColumns, boolean findMaximize) {
-    double bestValueSum = p0;
-    int bestPermutationNumOfOnes = 0;
-    BitSet bestPermutation = new BitSet(numOfPositions); // all zeros
-
-    for (int columnIndex = 0; columnIndex < rowIndicesByOrderedValueInColumns
-        .size(); columnIndex++) {
-      List<DoubleIntPair> indicesByOrderedValue =
-          rowIndicesByOrderedValueInColumns.get(columnIndex);
-      int numOfOnes = columnIndex + 1;
-      BitSet permutation = new BitSet(numOfPositions);
-      double valueSum = 0.0;
-
-      for (int retriveIndex = 0; retriveIndex < numOfOnes; retriveIndex++) {
-        DoubleIntPair indexByValue = indicesByOrderedValue.get(retriveIndex);
-        valueSum += indexByValue.getLeft();
-        permutation.set(indexByValue.getRight());
-      }
-
-      if ((findMaximize && valueSum > bestValueSum) || (!findMaximize && valueSum < bestValueSum)) {
-        bestValueSum = valueSum;
-        bestPermutationNumOfOnes = numOfOnes;
-        bestPermutation = permutation;
-      }
-    }
-
-    // If using sparse matrix it is possible the best permutation has only several high/low order
-    // bits which has non-zero values; we still need to fill more bits to reach the total number of
-    // ones, even those bits have zero values.
-    // int oneBitsNeedToFill = bestPermutationNumOfOnes - bestPermutation.cardinality();
-    // Assert.isTrue(oneBitsNeedToFill >= 0);
-    // if (oneBitsNeedToFill > 0) {
-    // BitSet oneBitsAvailable = new BitSet(totalNumOfPositions);
-    // oneBitsAvailable.set(0, totalNumOfPositions);
-    // oneBitsAvailable.xor(bestPermutation); // find bit positions haven't been used
-    //
-    // int count = 0;
-    // for (int bitIndex = oneBitsAvailable.nextSetBit(0); count < oneBitsNeedToFill
-    // && bitIndex >= 0; bitIndex = oneBitsAvailable.nextSetBit(bitIndex + 1), count++) {
-    // bestPermutation.set(bitIndex);
-    // }
-    // }
-
-    Assert.isTrue(bestPermutation.cardinality() == bestPermutationNumOfOnes);
-    return Pair.of(bestPermutation, bestValueSum);
+  /**
+   * The sum of the column, no less than the sum of any of its positions, as P is non-negative.
+   */
+  private double computeUpperBound(CompactMatrixP compactMatrixP, int columnIndex) {
+    double upperBound = 0.0;
+    for (int compactIndex = 0; compactIndex < compactMatrixP.columnIndices.length; compactIndex++) {
+      upperBound += 2 * reciprocals[compactMatrixP.columnIndices[compactIndex] + columnIndex]
+          * compactMatrixP.columnSums[compactIndex];
+    }
+    return upperBound;
   }
 
-  private DenseMatrix initializeScoreMatrixWithNegativeLagrangePotentials(
-      double[] lagrangePotentials) {
-    double[] negativeLagrangePotentials = new double[lagrangePotentials.length];
-    for (int index = 0; index < lagrangePotentials.length; index++) {
-      negativeLagrangePotentials[index] = -lagrangePotentials[index];
-    }
-    double[] negativeLagrangePotentialMatrixInArray = new double[numOfPositions * numOfPositions];
+  /**
+   * For each cardinality, the sum of that many smallest negative Lagrange potentials, no more than
+   * the sum of any of its positions' scores, as P is non-negative.
+   */
+  private double[] computeLowerBounds(double[] lagrangePotentials) {
+    double[] lowerBounds = new double[numOfPositions];
     for (int index = 0; index < numOfPositions; index++) {
-      System.arraycopy(negativeLagrangePotentials, 0, negativeLagrangePotentialMatrixInArray,
-          index * numOfPositions, numOfPositions);
+      lowerBounds[index] = -lagrangePotentials[index];
+    }
+    Arrays.sort(lowerBounds);
+    for (int index = 1; index < numOfPositions; index++) {
+      lowerBounds[index] += lowerBounds[index - 1];
     }
-    return new DenseMatrix(numOfPositions, numOfPositions, negativeLagrangePotentialMatrixInArray,
-        false);
+    return lowerBounds;
   }
 }
@@ -0,0 +1,148 @@
+package edu.uic.cs.purposeful.mpg.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+
+public class TestScoreMatrix {
+  private ScoreMatrix createScoreMatrix(double[][] matrix) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix(2, 2);
+    for (double[] row : matrix) {
+      scoreMatrix.appendRow(row);
+    }
+    return scoreMatrix;
+  }
+
+  @Test
+  public void test_grow_by_put() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix(2, 2);
+    scoreMatrix.put(0, 0, 1);
+    scoreMatrix.put(0, 1, 2);
+    scoreMatrix.put(1, 0, 3);
+    // beyond both capacities, the cells already there must not move
+    scoreMatrix.put(5, 3, 4);
+    assertEquals(6, scoreMatrix.getRowSize());
+    assertEquals(4, scoreMatrix.getColumnSize());
+    assertEquals(1.0, scoreMatrix.get(0, 0), 0.0);
+    assertEquals(2.0, scoreMatrix.get(0, 1), 0.0);
+    assertEquals(3.0, scoreMatrix.get(1, 0), 0.0);
+    assertEquals(4.0, scoreMatrix.get(5, 3), 0.0);
+    assertEquals(4.0, scoreMatrix.getMaximum(), 0.0);
+    assertEquals(1.0, scoreMatrix.getMinimum(), 0.0);
+
+    scoreMatrix.put(1, 1, -1);
+    assertEquals(-1.0, scoreMatrix.get(1, 1), 0.0);
+    assertEquals(-1.0, scoreMatrix.getMinimum(), 0.0);
+  }
+
+  @Test
+  public void test_grow_by_append() {
+    int numOfRows = 37;
+    int numOfColumns = 21;
+    ScoreMatrix scoreMatrix = new ScoreMatrix(1, 1);
+    for (int rowIndex = 0; rowIndex < numOfRows; rowIndex++) {
+      double[] row = new double[3];
+      for (int columnIndex = 0; columnIndex < row.length; columnIndex++) {
+        row[columnIndex] = rowIndex * 100 + columnIndex;
+      }
+      assertEquals(rowIndex, scoreMatrix.appendRow(row));
+    }
+    for (int columnIndex = 3; columnIndex < numOfColumns; columnIndex++) {
+      double[] column = new double[numOfRows];
+      for (int rowIndex = 0; rowIndex < column.length; rowIndex++) {
+        column[rowIndex] = rowIndex * 100 + columnIndex;
+      }
+      assertEquals(columnIndex, scoreMatrix.appendColumn(column));
+    }
+
+    assertEquals(numOfRows, scoreMatrix.getRowSize());
+    assertEquals(numOfColumns, scoreMatrix.getColumnSize());
+    double[] rowMajor = scoreMatrix.toRowMajorArray();
+    double[] columnMajor = scoreMatrix.toColumnMajorArray();
+    for (int rowIndex = 0; rowIndex < numOfRows; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < numOfColumns; columnIndex++) {
+        double expected = rowIndex * 100 + columnIndex;
+        assertEquals(expected, scoreMatrix.get(rowIndex, columnIndex), 0.0);
+        assertEquals(expected, rowMajor[rowIndex * numOfColumns + columnIndex], 0.0);
+        assertEquals(expected, columnMajor[columnIndex * numOfRows + rowIndex], 0.0);
+      }
+    }
+    assertEquals((numOfRows - 1) * 100 + numOfColumns - 1, scoreMatrix.getMaximum(), 0.0);
+    assertEquals(0.0, scoreMatrix.getMinimum(), 0.0);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_get_empty_cell() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix(2, 2);
+    scoreMatrix.put(0, 0, 1);
+    scoreMatrix.put(1, 1, 2);
+    scoreMatrix.get(0, 1);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_get_empty_cell_after_growth() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix(2, 2);
+    scoreMatrix.put(0, 0, 1);
+    scoreMatrix.put(4, 4, 2);
+    scoreMatrix.get(3, 3);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_put_existing_cell() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix(2, 2);
+    scoreMatrix.put(0, 0, 1);
+    scoreMatrix.put(0, 0, 2);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_get_out_of_rows() {
+    ScoreMatrix scoreMatrix = createScoreMatrix(new double[][] {{1, 2}});
+    // within the capacity, but not the size
+    scoreMatrix.get(1, 0);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_get_out_of_columns() {
+    ScoreMatrix scoreMatrix = createScoreMatrix(new double[][] {{1, 2}, {3, 4}});
+    scoreMatrix.get(0, 2);
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_get_negative_index() {
+    ScoreMatrix scoreMatrix = createScoreMatrix(new double[][] {{1, 2}, {3, 4}});
+    scoreMatrix.get(-1, 0);
+  }
+
+  @Test
+  public void test_retain() {
+    ScoreMatrix scoreMatrix =
+        createScoreMatrix(new double[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}, {10, 11, 12}});
+
+    scoreMatrix.retain(new boolean[] {false, true, true, false}, new boolean[] {true, false, true});
+    assertEquals(2, scoreMatrix.getRowSize());
+    assertEquals(2, scoreMatrix.getColumnSize());
+    assertArrayEquals(new double[] {4, 6, 7, 9}, scoreMatrix.toRowMajorArray(), 0.0);
+    assertEquals(9.0, scoreMatrix.getMaximum(), 0.0);
+    assertEquals(4.0, scoreMatrix.getMinimum(), 0.0);
+    assertEquals(1, scoreMatrix.getNumberOfCompactions());
+
+    // the cells left behind are empty again
+    scoreMatrix.appendColumn(new double[] {0, 20});
+    scoreMatrix.appendRow(new double[] {1, 2, 3});
+    assertArrayEquals(new double[] {4, 6, 0, 7, 9, 20, 1, 2, 3}, scoreMatrix.toRowMajorArray(),
+        0.0);
+    assertEquals(20.0, scoreMatrix.getMaximum(), 0.0);
+    assertEquals(0.0, scoreMatrix.getMinimum(), 0.0);
+  }
+
+  @Test
+  public void test_retain_all() {
+    ScoreMatrix scoreMatrix = createScoreMatrix(new double[][] {{1, 2}, {3, 4}});
+    scoreMatrix.retain(null, null);
+    assertArrayEquals(new double[] {1, 2, 3, 4}, scoreMatrix.toRowMajorArray(), 0.0);
+    assertEquals(1, scoreMatrix.getNumberOfCompactions());
+  }
+}
@@ -0,0 +1,93 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.minimax_solver.impl.MinimaxSolverSimplexImpl;
+
+public class TestDominancePresolver {
+  private static final double[][] CORE = new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}};
+  private static final int SIZE = 40;
+
+  /**
+   * The 3x3 core game padded with rows that are worse and columns that are larger than one of its
+   * own, too large for {@link SmallGameSolver}.
+   */
+  private ScoreMatrix createPaddedScoreMatrix() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < SIZE; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < SIZE; columnIndex++) {
+        double score = CORE[rowIndex % CORE.length][columnIndex % CORE.length];
+        if (rowIndex >= CORE.length) {
+          score -= 1;
+        }
+        if (columnIndex >= CORE.length) {
+          score += 1;
+        }
+        scoreMatrix.put(rowIndex, columnIndex, score);
+      }
+    }
+    return scoreMatrix;
+  }
+
+  @Test
+  public void test_presolve() {
+    DominancePresolver.resetCounters();
+    DominancePresolver presolver = DominancePresolver.presolve(createPaddedScoreMatrix());
+
+    assertNotNull(presolver);
+    ScoreMatrix reducedMatrix = presolver.getReducedMatrix();
+    assertEquals(CORE.length, reducedMatrix.getRowSize());
+    assertEquals(CORE.length, reducedMatrix.getColumnSize());
+    assertEquals(6, reducedMatrix.get(2, 1), 0.0);
+
+    double[] probabilities = presolver.expandMaximizerProbabilities(new double[] {0.5, 0, 0.5});
+    assertEquals(SIZE, probabilities.length);
+    assertEquals(0.5, probabilities[2], 0.0);
+    assertEquals(0.0, probabilities[SIZE - 1], 0.0);
+
+    assertEquals(1, DominancePresolver.getNumberOfReducedGames());
+    assertEquals(SIZE - CORE.length, DominancePresolver.getNumberOfRemovedRows());
+    assertEquals(SIZE - CORE.length, DominancePresolver.getNumberOfRemovedColumns());
+    assertEquals(CORE.length * CORE.length, DominancePresolver.getNumberOfRemainingCells());
+  }
+
+  @Test
+  public void test_nothing_dominated() {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < CORE.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < CORE.length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, CORE[rowIndex][columnIndex]);
+      }
+    }
+
+    assertNull(DominancePresolver.presolve(scoreMatrix));
+  }
+
+  @Test
+  public void test_solve_presolved() {
+    MinimaxSolver solver = new MinimaxSolverSimplexImpl(true);
+    MinimaxSolution actual = solver.findEquilibrium(createPaddedScoreMatrix());
+
+    // p = (1/2, 0, 1/2, 0, ...), q = (1/4, 0, 3/4, 0, ...), v = 4.5
+    assertEquals(actual.getMaximizerValue(), actual.getMinimizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(4.5, actual.getMaximizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    double[] expectedMaximizerProbabilities = new double[SIZE];
+    expectedMaximizerProbabilities[0] = expectedMaximizerProbabilities[2] = 0.5;
+    assertArrayEquals(expectedMaximizerProbabilities, actual.getMaximizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    double[] expectedMinimizerProbabilities = new double[SIZE];
+    expectedMinimizerProbabilities[0] = 0.25;
+    expectedMinimizerProbabilities[2] = 0.75;
+    assertArrayEquals(expectedMinimizerProbabilities, actual.getMinimizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+}
@@ -0,0 +1,55 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver.SparseColumns;
+import edu.uic.cs.purposeful.mpg.minimax_solver.impl.MinimaxSolverSimplexImpl;
+
+public class TestMinimaxSolver {
+  private ScoreMatrix createScoreMatrix(double[][] matrix) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, matrix[rowIndex][columnIndex]);
+      }
+    }
+
+    return scoreMatrix;
+  }
+
+  @Test
+  public void test_sparse_columns() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{1, 2, 3}, {3, 1, 2}});
+    MinimaxSolver solver = new MinimaxSolverSimplexImpl();
+
+    // all positive, only divided by the maximum
+    SparseColumns sparseColumns = solver.new MatrixWrapper(matrix).toSparseColumns(1, 3);
+    assertEquals(0.0, sparseColumns.getNonPositiveCompensate(), 0.0);
+    assertEquals(3.0, sparseColumns.getCompensatedMaximum(), 0.0);
+    assertEquals(3, sparseColumns.getNumberOfColumns());
+    assertArrayEquals(new int[] {0, 2, 4, 6}, sparseColumns.getColumnStarts());
+    assertArrayEquals(new double[] {1.0 / 3, 1, 2.0 / 3, 1.0 / 3, 1, 2.0 / 3},
+        sparseColumns.getValues(), 1e-12);
+  }
+
+  @Test
+  public void test_sparse_columns_negative_transposed() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{1, 2, 3}, {3, 1, 2}});
+    MinimaxSolver solver = new MinimaxSolverSimplexImpl();
+
+    // -A^T = {{-1, -3}, {-2, -1}, {-3, -2}}, shifted by 1 - (-3) = 4 and divided by -1 + 4 = 3
+    SparseColumns sparseColumns =
+        solver.new MatrixWrapper(matrix, true).toSparseColumns(-3, -1);
+    assertEquals(4.0, sparseColumns.getNonPositiveCompensate(), 0.0);
+    assertEquals(3.0, sparseColumns.getCompensatedMaximum(), 0.0);
+    assertEquals(2, sparseColumns.getNumberOfColumns());
+    assertArrayEquals(new int[] {0, 3, 6}, sparseColumns.getColumnStarts());
+    assertArrayEquals(new int[] {0, 1, 2, 0, 1, 2}, sparseColumns.getRowIndices());
+    assertArrayEquals(new double[] {1, 2.0 / 3, 1.0 / 3, 1.0 / 3, 1, 2.0 / 3},
+        sparseColumns.getValues(), 1e-12);
+  }
+}
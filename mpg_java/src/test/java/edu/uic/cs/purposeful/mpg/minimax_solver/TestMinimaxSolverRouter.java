@@ -0,0 +1,145 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.minimax_solver.impl.MinimaxSolverSimplexImpl;
+
+public class TestMinimaxSolverRouter {
+  private static class FailingSolver extends MinimaxSolver {
+    private int numberOfCalls = 0;
+
+    @Override
+    protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper matrixWrapper,
+        double minimum, double maximum) {
+      numberOfCalls++;
+      throw new PurposefulBaseException("Failed on purpose.");
+    }
+  }
+
+  private static class CrashingSolver extends MinimaxSolver {
+    private int numberOfCalls = 0;
+
+    @Override
+    protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper matrixWrapper,
+        double minimum, double maximum) {
+      numberOfCalls++;
+      throw new IllegalStateException("Crashed on purpose.");
+    }
+  }
+
+  private static class SlowSolver extends MinimaxSolverSimplexImpl {
+    @Override
+    protected Pair<double[], Double> findMaximizerProbabilities(MatrixWrapper matrixWrapper,
+        double minimum, double maximum) {
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException e) {
+        throw new PurposefulBaseException(e);
+      }
+      return super.findMaximizerProbabilities(matrixWrapper, minimum, maximum);
+    }
+  }
+
+  private ScoreMatrix createScoreMatrix() {
+    // too large for SmallGameSolver, so that each call reaches the backends
+    double[][] matrix = new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}};
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, matrix[rowIndex][columnIndex]);
+      }
+    }
+    return scoreMatrix;
+  }
+
+  private void assertSolution(Pair<double[], Double> actual) {
+    // p = (1/2, 0, 1/2), v = 4.5
+    assertEquals(4.5, actual.getRight().doubleValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertArrayEquals(new double[] {0.5, 0, 0.5}, actual.getLeft(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+
+  @Test
+  public void test_fall_back() {
+    FailingSolver failingSolver = new FailingSolver();
+    MinimaxSolver router = new MinimaxSolverRouter(
+        Arrays.asList(failingSolver, new MinimaxSolverSimplexImpl()), false);
+
+    try (MinimaxSolverSession session = router.openSession()) {
+      assertSolution(session.findMaximizerProbabilities(createScoreMatrix()));
+    }
+    assertEquals(1, failingSolver.numberOfCalls);
+  }
+
+  @Test
+  public void test_circuit_breaker() {
+    FailingSolver failingSolver = new FailingSolver();
+    MinimaxSolver router = new MinimaxSolverRouter(
+        Arrays.asList(failingSolver, new MinimaxSolverSimplexImpl()), false);
+
+    for (int count = 0; count < 5; count++) {
+      assertSolution(router.findMaximizerProbabilities(createScoreMatrix()));
+    }
+    // skipped once it has failed 3 times in a row
+    assertEquals(3, failingSolver.numberOfCalls);
+  }
+
+  @Test
+  public void test_fall_back_on_runtime_exception() {
+    CrashingSolver crashingSolver = new CrashingSolver();
+    MinimaxSolver router = new MinimaxSolverRouter(
+        Arrays.asList(crashingSolver, new MinimaxSolverSimplexImpl()), false);
+
+    try (MinimaxSolverSession session = router.openSession()) {
+      assertSolution(session.findMaximizerProbabilities(createScoreMatrix()));
+    }
+    for (int count = 0; count < 5; count++) {
+      assertSolution(router.findMaximizerProbabilities(createScoreMatrix()));
+    }
+    // it counts as a failure, so the circuit opens as well
+    assertEquals(3, crashingSolver.numberOfCalls);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void test_all_crashed() {
+    MinimaxSolver router = new MinimaxSolverRouter(Arrays.asList(new CrashingSolver()), false);
+    router.findMaximizerProbabilities(createScoreMatrix());
+  }
+
+  @Test
+  public void test_racing_crashed() {
+    MinimaxSolver router = new MinimaxSolverRouter(
+        Arrays.asList(new CrashingSolver(), new CrashingSolver(), new MinimaxSolverSimplexImpl()),
+        true);
+    // the third one enters the race once the first two have crashed
+    assertSolution(router.findMaximizerProbabilities(createScoreMatrix()));
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_all_failed() {
+    MinimaxSolver router = new MinimaxSolverRouter(Arrays.asList(new FailingSolver()), false);
+    router.findMaximizerProbabilities(createScoreMatrix());
+  }
+
+  @Test
+  public void test_racing() {
+    MinimaxSolver router = new MinimaxSolverRouter(
+        Arrays.asList(new SlowSolver(), new FailingSolver(), new MinimaxSolverSimplexImpl()),
+        true);
+
+    long startMillis = System.currentTimeMillis();
+    assertSolution(router.findMaximizerProbabilities(createScoreMatrix()));
+    // the slow one is not waited for
+    assertEquals(true, System.currentTimeMillis() - startMillis < 1000);
+  }
+}
@@ -0,0 +1,94 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+
+public class TestSmallGameSolver {
+  private ScoreMatrix createScoreMatrix(double[][] matrix) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, matrix[rowIndex][columnIndex]);
+      }
+    }
+
+    return scoreMatrix;
+  }
+
+  private void assertSolution(MinimaxSolution actual, double[] expectedMaximizerProbabilities,
+      double[] expectedMinimizerProbabilities, double expectedValue) {
+    assertNotNull(actual);
+    assertEquals(actual.getMaximizerValue(), actual.getMinimizerValue(), 0.0);
+    assertEquals(expectedValue, actual.getMaximizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertArrayEquals(expectedMaximizerProbabilities, actual.getMaximizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertArrayEquals(expectedMinimizerProbabilities, actual.getMinimizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+
+  @Test
+  public void test_saddle_point() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{4, 1, -3}, {3, 2, 5}, {0, 1, 6}});
+
+    assertSolution(SmallGameSolver.solve(matrix), new double[] {0, 1, 0}, new double[] {0, 1, 0},
+        2);
+  }
+
+  @Test
+  public void test_two_rows() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{2, 3, 1, 5}, {4, 1, 6, 0}});
+
+    // p = (5/7, 2/7), q = (0, 5/7, 2/7, 0), v = 17/7
+    assertSolution(SmallGameSolver.solve(matrix), new double[] {5.0 / 7, 2.0 / 7},
+        new double[] {0, 5.0 / 7, 2.0 / 7, 0}, 17.0 / 7);
+  }
+
+  @Test
+  public void test_two_columns() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{-2, 3}, {3, -4}, {-5, -5}});
+
+    // the last row is dominated; p = (7/12, 5/12, 0), q = (7/12, 5/12), v = 1/12
+    assertSolution(SmallGameSolver.solve(matrix), new double[] {7.0 / 12, 5.0 / 12, 0},
+        new double[] {7.0 / 12, 5.0 / 12}, 1.0 / 12);
+  }
+
+  @Test
+  public void test_flat_line() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{1, 5}, {4, 4}, {6, 2}});
+
+    // the minimizer may play the first column with any probability in [1/4, 1/2]
+    MinimaxSolution actual = SmallGameSolver.solve(matrix);
+    assertNotNull(actual);
+    assertEquals(4, actual.getMaximizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertArrayEquals(new double[] {0, 1, 0}, actual.getMaximizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    double firstColumnProbability = actual.getMinimizerProbabilities()[0];
+    assertEquals(0.375, firstColumnProbability, 0.125 + 1e-6);
+  }
+
+  @Test
+  public void test_dominated_strategies() {
+    ScoreMatrix matrix =
+        createScoreMatrix(new double[][] {{3, 0, 4}, {0, 3, 4}, {0, 0, 5}, {3, 0, 4}});
+
+    // the last column, the third row and the duplicated last row are dominated
+    assertSolution(SmallGameSolver.solve(matrix), new double[] {0.5, 0.5, 0, 0},
+        new double[] {0.5, 0.5, 0}, 1.5);
+  }
+
+  @Test
+  public void test_not_small() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}});
+
+    assertNull(SmallGameSolver.solve(matrix));
+  }
+}
@@ -4,13 +4,24 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.common.WorkerThreadPool;
+import edu.uic.cs.purposeful.mpg.minimax_solver.DominancePresolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
 import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverSession;
 
 public class TestMinimaxSolverGurobiImpl {
   private MinimaxSolver solver;
@@ -31,6 +42,70 @@ public class TestMinimaxSolverGurobiImpl {
     return scoreMatrix;
   }
 
+  private static double[] randomScores(Random random, int length, double lower, double upper) {
+    double[] scores = new double[length];
+    for (int index = 0; index < length; index++) {
+      scores[index] = lower + (upper - lower) * random.nextDouble();
+    }
+    return scores;
+  }
+
+  private static ScoreMatrix randomScoreMatrix(Random random, int numberOfRows,
+      int numberOfColumns, double lower, double upper) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < numberOfRows; rowIndex++) {
+      scoreMatrix.appendRow(randomScores(random, numberOfColumns, lower, upper));
+    }
+    return scoreMatrix;
+  }
+
+  /**
+   * A copy of the row made strictly worse for the maximizer, so it is dominated by the row.
+   */
+  private static double[] dominatedRow(ScoreMatrix scoreMatrix, int rowIndex) {
+    double[] row = new double[scoreMatrix.getColumnSize()];
+    for (int columnIndex = 0; columnIndex < row.length; columnIndex++) {
+      row[columnIndex] = scoreMatrix.get(rowIndex, columnIndex) - 0.5;
+    }
+    return row;
+  }
+
+  /**
+   * A copy of the column made strictly worse for the minimizer, so it is dominated by the column.
+   */
+  private static double[] dominatedColumn(ScoreMatrix scoreMatrix, int columnIndex) {
+    double[] column = new double[scoreMatrix.getRowSize()];
+    for (int rowIndex = 0; rowIndex < column.length; rowIndex++) {
+      column[rowIndex] = scoreMatrix.get(rowIndex, columnIndex) + 0.5;
+    }
+    return column;
+  }
+
+  /**
+   * The session's incremental models must end up with what a from-scratch solve finds; random
+   * scores keep the equilibrium unique, so the probabilities can be compared too.
+   */
+  private void assertSameAsFromScratch(MinimaxSolverSession session, ScoreMatrix matrix) {
+    double precision = ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision();
+    MinimaxSolution expected = solver.findEquilibrium(matrix);
+
+    MinimaxSolution actual = session.findEquilibrium(matrix);
+    assertEquals(expected.getMaximizerValue(), actual.getMaximizerValue(), precision);
+    assertEquals(expected.getMinimizerValue(), actual.getMinimizerValue(), precision);
+    assertArrayEquals(expected.getMaximizerProbabilities(), actual.getMaximizerProbabilities(),
+        precision);
+    assertArrayEquals(expected.getMinimizerProbabilities(), actual.getMinimizerProbabilities(),
+        precision);
+
+    Pair<double[], Double> actualMaximizer = session.findMaximizerProbabilities(matrix);
+    assertEquals(expected.getMaximizerValue(), actualMaximizer.getRight(), precision);
+    assertArrayEquals(expected.getMaximizerProbabilities(), actualMaximizer.getLeft(), precision);
+
+    Pair<double[], Double> actualMinimizer = session.findMinimizerProbabilities(matrix);
+    assertEquals(expected.getMinimizerValue(), actualMinimizer.getRight(), precision);
+    assertArrayEquals(expected.getMinimizerProbabilities(), actualMinimizer.getLeft(), precision);
+  }
+
   @Test
   public void test_1() {
     ScoreMatrix matrix = createScoreMatrix(new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}});
@@ -242,4 +317,174 @@ public class TestMinimaxSolverGurobiImpl {
     assertArrayEquals(new double[] {0.48, 0.24, 0.16, 0.12}, actualMinimizer.getLeft(),
         ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
+
+  @Test
+  public void test_12() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}});
+
+    MinimaxSolution actual = solver.findEquilibrium(matrix);
+
+    // p = (1/2, 0, 1/2), q = (1/4, 0, 3/4), v = 4.5, from one LP and its duals
+    assertEquals(actual.getMaximizerValue(), actual.getMinimizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(4.5, actual.getMaximizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+
+    assertArrayEquals(new double[] {0.5, 0, 0.5}, actual.getMaximizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+
+    assertArrayEquals(new double[] {0.25, 0, 0.75}, actual.getMinimizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+
+  @Test
+  public void test_environments_bounded() throws Exception {
+    int numberOfEnvironments = MinimaxSolverGurobiImpl.getNumberOfEnvironments();
+    // as many games as the objective function's evaluations would solve, several times over
+    for (int evaluation = 0; evaluation < 5; evaluation++) {
+      List<Future<MinimaxSolution>> futures = new ArrayList<>();
+      for (int game = 0; game < 2 * MPGConfig.THREAD_POOL_SIZE; game++) {
+        ScoreMatrix matrix = randomScoreMatrix(new Random(game), 5, 5, -1, 1);
+        Callable<MinimaxSolution> task = () -> solver.findEquilibrium(matrix);
+        futures.add(WorkerThreadPool.getInstance().submit(task));
+      }
+      for (Future<MinimaxSolution> future : futures) {
+        future.get();
+      }
+    }
+    // at most one more per worker
+    assertTrue(MinimaxSolverGurobiImpl.getNumberOfEnvironments()
+        - numberOfEnvironments <= MPGConfig.THREAD_POOL_SIZE);
+  }
+
+  @Test
+  public void test_session_grows() {
+    Random random = new Random(1);
+    ScoreMatrix matrix = randomScoreMatrix(random, 3, 3, -1, 1);
+    try (MinimaxSolverSession session = solver.openSession()) {
+      assertSameAsFromScratch(session, matrix);
+      for (int iteration = 0; iteration < 6; iteration++) {
+        matrix.appendRow(randomScores(random, matrix.getColumnSize(), -1, 1));
+        assertSameAsFromScratch(session, matrix);
+        matrix.appendColumn(randomScores(random, matrix.getRowSize(), -1, 1));
+        assertSameAsFromScratch(session, matrix);
+      }
+    }
+  }
+
+  @Test
+  public void test_session_another_matrix() {
+    Random random = new Random(2);
+    try (MinimaxSolverSession session = solver.openSession()) {
+      ScoreMatrix matrix = randomScoreMatrix(random, 6, 5, -1, 1);
+      assertSameAsFromScratch(session, matrix);
+      // smaller, and with the same sizes
+      assertSameAsFromScratch(session, randomScoreMatrix(random, 4, 4, -1, 1));
+      assertSameAsFromScratch(session, randomScoreMatrix(random, 4, 4, 2, 3));
+      // the first one again, grown since
+      matrix.appendRow(randomScores(random, matrix.getColumnSize(), -1, 1));
+      assertSameAsFromScratch(session, matrix);
+    }
+  }
+
+  @Test
+  public void test_session_compaction() {
+    Random random = new Random(3);
+    ScoreMatrix matrix = randomScoreMatrix(random, 7, 7, -1, 1);
+    try (MinimaxSolverSession session = solver.openSession()) {
+      assertSameAsFromScratch(session, matrix);
+
+      // the same sizes afterwards, but the cells have moved
+      matrix.retain(new boolean[] {true, false, true, true, true, true, true},
+          new boolean[] {true, true, true, true, false, true, true});
+      matrix.appendRow(randomScores(random, matrix.getColumnSize(), -1, 1));
+      matrix.appendColumn(randomScores(random, matrix.getRowSize(), -1, 1));
+      assertEquals(7, matrix.getRowSize());
+      assertEquals(7, matrix.getColumnSize());
+      assertSameAsFromScratch(session, matrix);
+
+      matrix.retain(null, null);
+      assertSameAsFromScratch(session, matrix);
+
+      matrix.appendColumn(randomScores(random, matrix.getRowSize(), -1, 1));
+      assertSameAsFromScratch(session, matrix);
+    }
+  }
+
+  @Test
+  public void test_session_shrinks() {
+    Random random = new Random(4);
+    ScoreMatrix matrix = randomScoreMatrix(random, 8, 8, -1, 1);
+    try (MinimaxSolverSession session = solver.openSession()) {
+      assertSameAsFromScratch(session, matrix);
+
+      matrix.retain(new boolean[] {true, false, true, false, true, true, true, true}, null);
+      assertSameAsFromScratch(session, matrix);
+
+      matrix.retain(null, new boolean[] {false, true, true, true, false, true, true, true});
+      assertSameAsFromScratch(session, matrix);
+
+      matrix.retain(new boolean[] {false, true, true, true, true, true},
+          new boolean[] {true, true, true, false, true, true});
+      assertSameAsFromScratch(session, matrix);
+    }
+  }
+
+  @Test
+  public void test_session_presolved() {
+    Random random = new Random(6);
+    ScoreMatrix matrix = randomScoreMatrix(random, 5, 5, -1, 1);
+    DominancePresolver.resetCounters();
+    try (MinimaxSolverSession session = new MinimaxSolverGurobiImpl(true).openSession()) {
+      assertSameAsFromScratch(session, matrix);
+      for (int iteration = 0; iteration < 6; iteration++) {
+        // the dominated strategies are left out of the models, while a random one may make some
+        // of them kept again, and the models rebuilt
+        matrix.appendRow(dominatedRow(matrix, random.nextInt(matrix.getRowSize())));
+        assertSameAsFromScratch(session, matrix);
+        matrix.appendColumn(dominatedColumn(matrix, random.nextInt(matrix.getColumnSize())));
+        assertSameAsFromScratch(session, matrix);
+        matrix.appendRow(randomScores(random, matrix.getColumnSize(), -1, 1));
+        assertSameAsFromScratch(session, matrix);
+        matrix.appendColumn(randomScores(random, matrix.getRowSize(), -1, 1));
+        assertSameAsFromScratch(session, matrix);
+      }
+    }
+
+    assertTrue(DominancePresolver.getNumberOfReducedGames() > 0);
+    assertTrue(DominancePresolver.getNumberOfRemovedRows() > 0);
+    assertTrue(DominancePresolver.getNumberOfRemovedColumns() > 0);
+    assertTrue(
+        DominancePresolver.getNumberOfRemainingCells() < DominancePresolver.getNumberOfCells());
+  }
+
+  @Test
+  public void test_session_crosses_positivity_shift() {
+    Random random = new Random(5);
+    // all positive, so the maximizer's model is built without any shift
+    ScoreMatrix matrix = randomScoreMatrix(random, 4, 4, 1, 2);
+    try (MinimaxSolverSession session = solver.openSession()) {
+      assertSameAsFromScratch(session, matrix);
+
+      // a new minimum at 0, then below 0, breaks the maximizer's shift
+      double[] row = randomScores(random, matrix.getColumnSize(), 1, 2);
+      row[1] = 0;
+      matrix.appendRow(row);
+      assertSameAsFromScratch(session, matrix);
+      double[] column = randomScores(random, matrix.getRowSize(), 1, 2);
+      column[2] = -3;
+      matrix.appendColumn(column);
+      assertSameAsFromScratch(session, matrix);
+
+      // a new maximum breaks the minimizer's, whose scores are negated
+      row = randomScores(random, matrix.getColumnSize(), 1, 2);
+      row[0] = 10;
+      matrix.appendRow(row);
+      assertSameAsFromScratch(session, matrix);
+
+      // within both shifts again
+      matrix.appendColumn(randomScores(random, matrix.getRowSize(), -2, 9));
+      assertSameAsFromScratch(session, matrix);
+    }
+  }
 }
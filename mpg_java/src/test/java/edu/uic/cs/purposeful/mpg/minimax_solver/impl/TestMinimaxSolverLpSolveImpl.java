@@ -10,6 +10,7 @@ import org.junit.Test;
 
 import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
 import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
 
 public class TestMinimaxSolverLpSolveImpl {
@@ -242,4 +243,23 @@ public class TestMinimaxSolverLpSolveImpl {
     assertArrayEquals(new double[] {0.48, 0.24, 0.16, 0.12}, actualMinimizer.getLeft(),
         ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
+
+  @Test
+  public void test_12() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}});
+
+    MinimaxSolution actual = solver.findEquilibrium(matrix);
+
+    // p = (1/2, 0, 1/2), q = (1/4, 0, 3/4), v = 4.5, from one LP and its duals
+    assertEquals(actual.getMaximizerValue(), actual.getMinimizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(4.5, actual.getMaximizerValue(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+
+    assertArrayEquals(new double[] {0.5, 0, 0.5}, actual.getMaximizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+
+    assertArrayEquals(new double[] {0.25, 0, 0.75}, actual.getMinimizerProbabilities(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
 }
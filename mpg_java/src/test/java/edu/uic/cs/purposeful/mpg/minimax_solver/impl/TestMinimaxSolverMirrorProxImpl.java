@@ -0,0 +1,183 @@
+package edu.uic.cs.purposeful.mpg.minimax_solver.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.MPGConfig;
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.minimax_solver.DominancePresolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolution;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolver;
+import edu.uic.cs.purposeful.mpg.minimax_solver.MinimaxSolverSession;
+
+public class TestMinimaxSolverMirrorProxImpl {
+  private MinimaxSolver solver;
+
+  @Before
+  public void initializeSolverInstance() {
+    solver = new MinimaxSolverMirrorProxImpl();
+  }
+
+  private ScoreMatrix createScoreMatrix(double[][] matrix) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, matrix[rowIndex][columnIndex]);
+      }
+    }
+
+    return scoreMatrix;
+  }
+
+  /**
+   * The value is within half of the duality gap from the game value, and each strategy guarantees
+   * the value up to the whole gap.
+   */
+  private void assertSolution(double expectedValue, double[][] matrix, MinimaxSolution actual) {
+    double gap = MPGConfig.MIRROR_PROX_DUALITY_GAP * (max(matrix) - min(matrix))
+        + ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision();
+    assertEquals(actual.getMaximizerValue(), actual.getMinimizerValue(), 0.0);
+    assertEquals(expectedValue, actual.getMaximizerValue(), gap / 2);
+
+    for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+      double payoff = 0.0;
+      for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+        payoff += actual.getMaximizerProbabilities()[rowIndex] * matrix[rowIndex][columnIndex];
+      }
+      assertTrue(payoff + " < " + expectedValue, payoff >= expectedValue - gap);
+    }
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      double payoff = 0.0;
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        payoff += actual.getMinimizerProbabilities()[columnIndex] * matrix[rowIndex][columnIndex];
+      }
+      assertTrue(payoff + " > " + expectedValue, payoff <= expectedValue + gap);
+    }
+  }
+
+  private double max(double[][] matrix) {
+    double max = Double.NEGATIVE_INFINITY;
+    for (double[] row : matrix) {
+      for (double value : row) {
+        max = Math.max(max, value);
+      }
+    }
+    return max;
+  }
+
+  private double min(double[][] matrix) {
+    double min = Double.POSITIVE_INFINITY;
+    for (double[] row : matrix) {
+      for (double value : row) {
+        min = Math.min(min, value);
+      }
+    }
+    return min;
+  }
+
+  @Test
+  public void test_1() {
+    double[][] matrix = new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}};
+    assertSolution(4.5, matrix, solver.findEquilibrium(createScoreMatrix(matrix)));
+  }
+
+  @Test
+  public void test_2() {
+    double[][] matrix = new double[][] {{2, 3, 1, 5}, {4, 1, 6, 0}};
+    assertSolution(17.0 / 7, matrix, solver.findEquilibrium(createScoreMatrix(matrix)));
+  }
+
+  @Test
+  public void test_3() {
+    double[][] matrix = new double[][] {{1, -2, 3, -4}, {0, 1, -2, 3}, {0, 0, 1, -2}, {0, 0, 0, 1}};
+    assertSolution(1.0 / 12, matrix, solver.findEquilibrium(createScoreMatrix(matrix)));
+  }
+
+  @Test
+  public void test_4() {
+    ScoreMatrix matrix = createScoreMatrix(new double[][] {{7, 7}, {7, 7}});
+
+    MinimaxSolution actual = solver.findEquilibrium(matrix);
+
+    assertEquals(7, actual.getMaximizerValue(), 0.0);
+    assertEquals(7, actual.getMinimizerValue(), 0.0);
+  }
+
+  @Test
+  public void test_restart() {
+    // column 4 is in the support, but its averaged probability shrinks to about 1e-19 over the
+    // restarts
+    double[][] matrix = new double[][] {{1, 1, 0, 0, 0, 0, 0, 1, 1, 1, 1, 0},
+        {0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0}, {1, 1, 1, 0, 0, 0, 0, 0, 1, 1, 1, 0},
+        {1, 0, 0, 0, 1, 0, 0, 1, 0, 1, 0, 1}, {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 1},
+        {0, 1, 0, 1, 50, 0, 0, 0, 1, 0, 0, 1}, {0, 1, 1, 0, 0, 0, 0, 0, 1, 0, 0, 1},
+        {0, 1, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0}};
+    assertSolution(51.0 / 205, matrix, solver.findEquilibrium(createScoreMatrix(matrix)));
+  }
+
+  @Test
+  public void test_warm_start() {
+    double[][] matrix = new double[][] {{1, 2, 3, 3, 6}, {2, 6, 1, 3, 3}, {3, 1, 3, 6, 2},
+        {3, 3, 6, 2, 1}, {6, 3, 2, 1, 3}};
+    ScoreMatrix scoreMatrix = createScoreMatrix(new double[][] {{1, 2}, {2, 6}});
+
+    try (MinimaxSolverSession session = solver.openSession()) {
+      session.findEquilibrium(scoreMatrix);
+      // grow the game the way the double oracle method does
+      for (int columnIndex = 2; columnIndex < matrix[0].length; columnIndex++) {
+        double[] column = new double[scoreMatrix.getRowSize()];
+        for (int rowIndex = 0; rowIndex < column.length; rowIndex++) {
+          column[rowIndex] = matrix[rowIndex][columnIndex];
+        }
+        scoreMatrix.appendColumn(column);
+        session.findEquilibrium(scoreMatrix);
+      }
+      for (int rowIndex = 2; rowIndex < matrix.length; rowIndex++) {
+        scoreMatrix.appendRow(matrix[rowIndex]);
+        session.findEquilibrium(scoreMatrix);
+      }
+
+      assertSolution(3, matrix, session.findEquilibrium(scoreMatrix));
+    }
+  }
+
+  @Test
+  public void test_warm_start_presolved() {
+    // test_1's game, with rows that are worse and columns that are larger than one of its own
+    double[][] core = new double[][] {{0, 4, 6}, {5, 7, 4}, {9, 6, 3}};
+    double[][] matrix = new double[8][8];
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        matrix[rowIndex][columnIndex] = core[rowIndex % core.length][columnIndex % core.length]
+            - ((rowIndex >= core.length) ? 1 : 0) + ((columnIndex >= core.length) ? 1 : 0);
+      }
+    }
+    ScoreMatrix scoreMatrix = createScoreMatrix(core);
+
+    DominancePresolver.resetCounters();
+    try (MinimaxSolverSession session = new MinimaxSolverMirrorProxImpl(true).openSession()) {
+      session.findEquilibrium(scoreMatrix);
+      for (int index = core.length; index < matrix.length; index++) {
+        double[] column = new double[scoreMatrix.getRowSize()];
+        for (int rowIndex = 0; rowIndex < column.length; rowIndex++) {
+          column[rowIndex] = matrix[rowIndex][index];
+        }
+        scoreMatrix.appendColumn(column);
+        session.findEquilibrium(scoreMatrix);
+        scoreMatrix.appendRow(Arrays.copyOf(matrix[index], scoreMatrix.getColumnSize()));
+        session.findEquilibrium(scoreMatrix);
+      }
+
+      assertSolution(4.5, matrix, session.findEquilibrium(scoreMatrix));
+    }
+    assertTrue(DominancePresolver.getNumberOfReducedGames() > 0);
+    assertTrue(DominancePresolver.getNumberOfRemovedRows() > 0);
+    assertTrue(DominancePresolver.getNumberOfRemovedColumns() > 0);
+  }
+}
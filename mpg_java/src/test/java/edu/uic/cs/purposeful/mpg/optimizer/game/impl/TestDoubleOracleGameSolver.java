@@ -0,0 +1,540 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.common.ScoreMatrix;
+import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.minimax_solver.impl.MinimaxSolverSimplexImpl;
+import edu.uic.cs.purposeful.mpg.optimizer.game.EquilibriumTolerance;
+import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+import no.uib.cipr.matrix.Vector;
+
+public class TestDoubleOracleGameSolver {
+  private static final int MIN_NUM_OF_SCORES_PER_TASK = 16;
+
+  /**
+   * A plain matrix game, each permutation is the index of a row or a column.
+   */
+  private static class MatrixGameTarget implements OptimizationTarget<Integer, double[][]> {
+    private double[][] matrix;
+
+    @Override
+    public void initialize(double[][] matrix, boolean duringTraining) {
+      this.matrix = matrix;
+    }
+
+    @Override
+    public double computeScore(Integer maximizerPermutation, Integer minimizerPermutation) {
+      return matrix[maximizerPermutation][minimizerPermutation];
+    }
+
+    @Override
+    public Set<Integer> getInitialMaximizerPermutations() {
+      return Collections.singleton(0);
+    }
+
+    @Override
+    public Set<Integer> getInitialMinimizerPermutations() {
+      return Collections.singleton(0);
+    }
+
+    @Override
+    public double[] computeLagrangePotentials(double[] thetas) {
+      return new double[0];
+    }
+
+    @Override
+    public double aggregateLagrangePotentials(Integer minimizerPermutation,
+        double[] lagrangePotentials) {
+      return 0.0;
+    }
+
+    @Override
+    public Pair<Integer, Double> findBestMaximizerResponsePermutation(
+        double[] minimizerProbabilities, LinkedHashSet<Integer> existingMinimizerPermutations,
+        double[] lagrangePotentials) {
+      Pair<Integer, Double> bestResponse = null;
+      for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+        double value = 0.0;
+        int index = 0;
+        for (int columnIndex : existingMinimizerPermutations) {
+          value += minimizerProbabilities[index++] * matrix[rowIndex][columnIndex];
+        }
+        if (bestResponse == null || value > bestResponse.getRight()) {
+          bestResponse = Pair.of(rowIndex, value);
+        }
+      }
+      return bestResponse;
+    }
+
+    @Override
+    public Pair<Integer, Double> findBestMinimizerResponsePermutation(
+        double[] maximizerProbabilities, LinkedHashSet<Integer> existingMaximizerPermutations,
+        double[] lagrangePotentials) {
+      Pair<Integer, Double> bestResponse = null;
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        double value = 0.0;
+        int index = 0;
+        for (int rowIndex : existingMaximizerPermutations) {
+          value += maximizerProbabilities[index++] * matrix[rowIndex][columnIndex];
+        }
+        if (bestResponse == null || value < bestResponse.getRight()) {
+          bestResponse = Pair.of(columnIndex, value);
+        }
+      }
+      return bestResponse;
+    }
+
+    @Override
+    public boolean isLegalMaximizerPermutation(Integer permutation) {
+      return permutation != null;
+    }
+
+    @Override
+    public boolean isLegalMinimizerPermutation(Integer permutation) {
+      return permutation != null;
+    }
+
+    @Override
+    public Integer getGoldenPermutation() {
+      return null;
+    }
+
+    @Override
+    public Vector getGoldenFeatureValues() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Vector computeExpectedFeatureValues(double[] minimizerProbabilities,
+        LinkedHashSet<Integer> minimizerPermutations) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Counts the scores computed, which may be on the fork-join pool.
+   */
+  private static class CountingMatrixGameTarget extends MatrixGameTarget {
+    private final AtomicInteger numberOfScores = new AtomicInteger();
+
+    @Override
+    public double computeScore(Integer maximizerPermutation, Integer minimizerPermutation) {
+      numberOfScores.incrementAndGet();
+      return super.computeScore(maximizerPermutation, minimizerPermutation);
+    }
+  }
+
+  /**
+   * Counts the scores of the pairs it has scored before.
+   */
+  private static class ScoreRecordingMatrixGameTarget extends MatrixGameTarget {
+    private final Set<List<Integer>> scoredPairs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger numberOfScoresAgain = new AtomicInteger();
+
+    @Override
+    public double computeScore(Integer maximizerPermutation, Integer minimizerPermutation) {
+      if (!scoredPairs.add(Arrays.asList(maximizerPermutation, minimizerPermutation))) {
+        numberOfScoresAgain.incrementAndGet();
+      }
+      return super.computeScore(maximizerPermutation, minimizerPermutation);
+    }
+  }
+
+  private double[][] createMatrix(long seed, int size) {
+    Random random = new Random(seed);
+    double[][] matrix = new double[size][size];
+    for (double[] row : matrix) {
+      for (int columnIndex = 0; columnIndex < size; columnIndex++) {
+        row[columnIndex] = random.nextInt(10);
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Both players respond at once.
+   */
+  private DoubleOracleGameSolver<Integer> createSimultaneousSolver(MatrixGameTarget target) {
+    return new DoubleOracleGameSolver<>(target, true, 0, 0, 0, 0,
+        DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+  }
+
+  /**
+   * The minimizer responds first, and then the maximizer.
+   */
+  private DoubleOracleGameSolver<Integer> createAlternateSolver(MatrixGameTarget target) {
+    return new DoubleOracleGameSolver<>(target, false, 0, 0, 0, 0,
+        DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+  }
+
+  private double solveFullGame(double[][] matrix) {
+    ScoreMatrix scoreMatrix = new ScoreMatrix();
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+        scoreMatrix.put(rowIndex, columnIndex, matrix[rowIndex][columnIndex]);
+      }
+    }
+    return new MinimaxSolverSimplexImpl().findMaximizerProbabilities(scoreMatrix).getRight();
+  }
+
+  /**
+   * Both players' strategies are optimal in the full game, so the restricted game the solver has
+   * scored agrees with the matrix, at the precision of the rounded probabilities.
+   */
+  private void assertEquilibrium(double[][] matrix, double gameValue,
+      DoubleOracleGameSolver<Integer> solver) {
+    double precision = ValuePrecision.POINT_5_ZEROS_ONE.getValuePrecision();
+    double[] maximizerProbabilities = solver.getMaximizerProbabilities();
+    double[] minimizerProbabilities = solver.getMinimizerProbabilities();
+    for (int columnIndex = 0; columnIndex < matrix[0].length; columnIndex++) {
+      double value = 0.0;
+      int index = 0;
+      for (int rowIndex : solver.getMaximizerPermutations()) {
+        value += maximizerProbabilities[index++] * matrix[rowIndex][columnIndex];
+      }
+      assertTrue(value >= gameValue - precision);
+    }
+    for (int rowIndex = 0; rowIndex < matrix.length; rowIndex++) {
+      double value = 0.0;
+      int index = 0;
+      for (int columnIndex : solver.getMinimizerPermutations()) {
+        value += minimizerProbabilities[index++] * matrix[rowIndex][columnIndex];
+      }
+      assertTrue(value <= gameValue + precision);
+    }
+  }
+
+  @Test
+  public void test_simultaneous() {
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 12);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+
+      DoubleOracleGameSolver<Integer> solver = createSimultaneousSolver(target);
+      assertTrue(solver.solve(new double[0]));
+      assertEquals(solveFullGame(matrix), solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void test_simultaneous_oracle_fails() {
+    MatrixGameTarget target = new MatrixGameTarget() {
+      @Override
+      public Pair<Integer, Double> findBestMaximizerResponsePermutation(
+          double[] minimizerProbabilities, LinkedHashSet<Integer> existingMinimizerPermutations,
+          double[] lagrangePotentials) {
+        throw new IllegalStateException();
+      }
+    };
+    target.initialize(createMatrix(0, 12), true);
+
+    // the maximizer's oracle fails on the pool, and its exception reaches the caller as is
+    createSimultaneousSolver(target).solve(new double[0]);
+  }
+
+  @Test
+  public void test_parallel_scoring() {
+    for (long seed = 0; seed < 3; seed++) {
+      // large enough for the new rows and columns to be scored on the fork-join pool
+      double[][] matrix = createMatrix(seed, 100);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+
+      DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target, true, 0, 2000,
+          20000, MIN_NUM_OF_SCORES_PER_TASK, DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+      assertTrue(solver.solve(new double[0]));
+      assertTrue(solver.getMaximizerPermutations().size() > MIN_NUM_OF_SCORES_PER_TASK);
+      assertEquals(solveFullGame(matrix), solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    }
+  }
+
+  @Test
+  public void test_tolerance() {
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+      double gameValue = solveFullGame(matrix);
+
+      DoubleOracleGameSolver<Integer> exactSolver = createSimultaneousSolver(target);
+      assertTrue(exactSolver.solve(new double[0], null, EquilibriumTolerance.EXACT));
+      assertEquals(0.0, exactSolver.getDualityGap(),
+          ValuePrecision.POINT_5_ZEROS_ONE.getValuePrecision());
+
+      // the restricted game's value is within the gap as well
+      DoubleOracleGameSolver<Integer> solver = createSimultaneousSolver(target);
+      assertTrue(solver.solve(new double[0], null, EquilibriumTolerance.absolute(1.0)));
+      assertTrue(solver.getDualityGap() <= 1.0);
+      assertTrue(Math.abs(gameValue - solver.getMaximizerValue()) <= solver.getDualityGap()
+          + ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      assertTrue(solver.getNumberOfIterations() <= exactSolver.getNumberOfIterations());
+    }
+  }
+
+  @Test
+  public void test_alternate() {
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+
+      // the initial permutations of some of them, e.g. seed 0's, are already the minimizer's best
+      // response, so the restricted game's value stays the same, but the maximizer still responds
+      DoubleOracleGameSolver<Integer> solver = createAlternateSolver(target);
+      assertTrue(solver.solve(new double[0], null, EquilibriumTolerance.EXACT));
+      assertEquals(solveFullGame(matrix), solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      assertEquals(0.0, solver.getDualityGap(),
+          ValuePrecision.POINT_5_ZEROS_ONE.getValuePrecision());
+      assertTrue(solver.getNumberOfIterations() > 1);
+    }
+  }
+
+  @Test
+  public void test_alternate_tolerance() {
+    EquilibriumTolerance[] tolerances =
+        {EquilibriumTolerance.absolute(1.0), EquilibriumTolerance.relative(0.2)};
+    int numberOfEarlyStops = 0;
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+      double gameValue = solveFullGame(matrix);
+
+      DoubleOracleGameSolver<Integer> exactSolver = createAlternateSolver(target);
+      assertTrue(exactSolver.solve(new double[0], null, EquilibriumTolerance.EXACT));
+
+      for (EquilibriumTolerance tolerance : tolerances) {
+        DoubleOracleGameSolver<Integer> solver = createAlternateSolver(target);
+        assertTrue(solver.solve(new double[0], null, tolerance));
+        assertTrue(solver.getNumberOfIterations() <= exactSolver.getNumberOfIterations());
+        if (solver.getNumberOfIterations() == exactSolver.getNumberOfIterations()) {
+          continue;
+        }
+
+        // stopped at the gap, which bounds the game's value from both sides of the restricted
+        // game's, as the minimizer's strategy has answered the maximizer's latest response
+        numberOfEarlyStops++;
+        double dualityGap = solver.getDualityGap();
+        double minimizerValue = solver.getMinimizerValue();
+        assertTrue(dualityGap > 0.0);
+        assertTrue(dualityGap <= tolerance.getEpsilon()
+            * (tolerance.isRelative() ? Math.abs(gameValue) + dualityGap : 1.0));
+        assertTrue(Math.abs(gameValue - minimizerValue) <= dualityGap
+            + ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      }
+    }
+    assertTrue(numberOfEarlyStops > 0);
+  }
+
+  @Test
+  public void test_alternate_max_number_of_permutations() {
+    int maxNumberOfPermutations = 3;
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+
+      // the tolerance's cap is below the solver's own one, so the solve gives up at it
+      DoubleOracleGameSolver<Integer> solver = createAlternateSolver(target);
+      assertTrue(!solver.solve(new double[0], null,
+          EquilibriumTolerance.EXACT.withMaxNumberOfPermutations(maxNumberOfPermutations)));
+      int numberOfMaximizerPermutations = solver.getMaximizerPermutations().size();
+      int numberOfMinimizerPermutations = solver.getMinimizerPermutations().size();
+      assertTrue(numberOfMaximizerPermutations <= maxNumberOfPermutations);
+      assertTrue(numberOfMinimizerPermutations <= maxNumberOfPermutations);
+      assertEquals(maxNumberOfPermutations,
+          Math.max(numberOfMaximizerPermutations, numberOfMinimizerPermutations));
+      // the last gap hasn't been within the tolerance, or the solve would have stopped there
+      assertTrue(solver.getDualityGap() > 0.0);
+    }
+  }
+
+  @Test
+  public void test_evict_idle() {
+    for (boolean respondsSimultaneously : new boolean[] {true, false}) {
+      int numberOfEvictedPermutations = 0;
+      for (long seed = 0; seed < 10; seed++) {
+        double[][] matrix = createMatrix(seed, 30);
+        MatrixGameTarget target = new MatrixGameTarget();
+        target.initialize(matrix, true);
+
+        DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target,
+            respondsSimultaneously, 0, 0, 0, 0, DoubleOracleGameSolver.EvictionPolicy.IDLE, 2);
+        assertTrue(solver.solve(new double[0]));
+        assertEquals(solveFullGame(matrix), solver.getMaximizerValue(),
+            ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+        assertEquals(solver.getMaximizerPermutations().size(),
+            solver.getMaximizerProbabilities().length);
+        assertEquals(solver.getMinimizerPermutations().size(),
+            solver.getMinimizerProbabilities().length);
+        numberOfEvictedPermutations += solver.getNumberOfEvictedPermutations();
+      }
+      assertTrue(numberOfEvictedPermutations > 0);
+    }
+  }
+
+  @Test
+  public void test_evict_when_full() {
+    // about the size of the games' supports, so that a game often fills up before it is solved
+    int maxNumberOfPermutations = 20;
+    EquilibriumTolerance tolerance =
+        EquilibriumTolerance.EXACT.withMaxNumberOfPermutations(maxNumberOfPermutations);
+    for (boolean respondsSimultaneously : new boolean[] {true, false}) {
+      int numberOfEvictedPermutations = 0;
+      int numberOfSolvedGamesWithoutEviction = 0;
+      for (long seed = 0; seed < 10; seed++) {
+        double[][] matrix = createMatrix(seed, 30);
+        MatrixGameTarget target = new MatrixGameTarget();
+        target.initialize(matrix, true);
+
+        DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target,
+            respondsSimultaneously, 0, 0, 0, 0, DoubleOracleGameSolver.EvictionPolicy.WHEN_FULL,
+            2);
+        assertTrue(solver.solve(new double[0], null, tolerance));
+        assertEquals(solveFullGame(matrix), solver.getMaximizerValue(),
+            ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+        assertTrue(solver.getMaximizerPermutations().size() <= maxNumberOfPermutations);
+        assertTrue(solver.getMinimizerPermutations().size() <= maxNumberOfPermutations);
+        numberOfEvictedPermutations += solver.getNumberOfEvictedPermutations();
+
+        DoubleOracleGameSolver<Integer> nonEvictingSolver = new DoubleOracleGameSolver<>(target,
+            respondsSimultaneously, 0, 0, 0, 0, DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+        if (nonEvictingSolver.solve(new double[0], null, tolerance)) {
+          numberOfSolvedGamesWithoutEviction++;
+        }
+      }
+      assertTrue(numberOfEvictedPermutations > 0);
+      // the same games give up at the cap if nothing is evicted
+      assertTrue(numberOfSolvedGamesWithoutEviction < 10);
+    }
+  }
+
+  @Test
+  public void test_evicted_permutations_added_again() {
+    for (boolean respondsSimultaneously : new boolean[] {true, false}) {
+      int numberOfScoresAgain = 0;
+      for (long seed = 0; seed < 10; seed++) {
+        double[][] matrix = createMatrix(seed, 30);
+        double gameValue = solveFullGame(matrix);
+
+        // without the cached scores, a permutation added again after it is evicted is scored again
+        ScoreRecordingMatrixGameTarget target = new ScoreRecordingMatrixGameTarget();
+        target.initialize(matrix, true);
+        DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target,
+            respondsSimultaneously, 0, 0, 0, 0, DoubleOracleGameSolver.EvictionPolicy.IDLE, 2);
+        assertTrue(solver.solve(new double[0]));
+        numberOfScoresAgain += target.numberOfScoresAgain.get();
+
+        // with them, it finds its own scores, never the ones of a permutation evicted from the
+        // pool, whose ID may have been given to it, as the pool keeps fewer than a solve plays
+        target = new ScoreRecordingMatrixGameTarget();
+        target.initialize(matrix, true);
+        solver = new DoubleOracleGameSolver<>(target, respondsSimultaneously, 0, 2, 100, 0,
+            DoubleOracleGameSolver.EvictionPolicy.IDLE, 2);
+        for (int solve = 0; solve < 3; solve++) {
+          assertTrue(solver.solve(new double[0]));
+          assertEquals(gameValue, solver.getMaximizerValue(),
+              ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+          assertEquilibrium(matrix, gameValue, solver);
+        }
+      }
+      assertTrue(numberOfScoresAgain > 0);
+    }
+  }
+
+  @Test
+  public void test_warm_start() {
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      MatrixGameTarget target = new MatrixGameTarget();
+      target.initialize(matrix, true);
+      double gameValue = solveFullGame(matrix);
+
+      DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target, true, 5, 0, 0,
+          0, DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+      assertTrue(solver.solve(new double[0]));
+      int numberOfColdStartIterations = solver.getNumberOfIterations();
+      long numberOfWarmStartedSolves = DoubleOracleGameSolver.getNumberOfWarmStartedSolves();
+
+      // the second solve starts from the first one's support, and ends at the same value
+      assertTrue(solver.solve(new double[0]));
+      assertEquals(numberOfWarmStartedSolves + 1,
+          DoubleOracleGameSolver.getNumberOfWarmStartedSolves());
+      assertEquals(gameValue, solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      assertEquals(Math.max(0, numberOfColdStartIterations - solver.getNumberOfIterations()),
+          solver.getNumberOfSavedIterations());
+    }
+  }
+
+  @Test
+  public void test_cached_scores() {
+    for (long seed = 0; seed < 10; seed++) {
+      double[][] matrix = createMatrix(seed, 20);
+      CountingMatrixGameTarget target = new CountingMatrixGameTarget();
+      target.initialize(matrix, true);
+      double gameValue = solveFullGame(matrix);
+
+      // fewer cached permutations than a solve plays, the solve's own ones are kept anyway
+      DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target, true, 0, 2,
+          1000, 0, DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+      assertTrue(solver.solve(new double[0]));
+      assertEquals(gameValue, solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      int numberOfScores = target.numberOfScores.get();
+
+      assertTrue(solver.solve(new double[0]));
+      assertEquals(gameValue, solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      assertTrue(target.numberOfScores.get() - numberOfScores <= numberOfScores);
+      numberOfScores = target.numberOfScores.get();
+
+      // all the permutations are cached, so the same solve again computes no score
+      solver = new DoubleOracleGameSolver<>(target, true, 0, 1000, 1000, 0,
+          DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+      assertTrue(solver.solve(new double[0]));
+      int numberOfColdScores = target.numberOfScores.get() - numberOfScores;
+      assertTrue(solver.solve(new double[0]));
+      assertEquals(numberOfScores + numberOfColdScores, target.numberOfScores.get());
+      assertEquals(gameValue, solver.getMaximizerValue(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    }
+  }
+
+  @Test
+  public void test_cold_start() {
+    double[][] matrix = createMatrix(0, 20);
+    MatrixGameTarget target = new MatrixGameTarget();
+    target.initialize(matrix, true);
+
+    // with no warm start permutations, every solve starts from the initial ones only
+    DoubleOracleGameSolver<Integer> solver = new DoubleOracleGameSolver<>(target, true, 0, 0, 0,
+        0, DoubleOracleGameSolver.EvictionPolicy.NONE, 0);
+    assertTrue(solver.solve(new double[0]));
+    int numberOfColdStartIterations = solver.getNumberOfIterations();
+    long numberOfWarmStartedSolves = DoubleOracleGameSolver.getNumberOfWarmStartedSolves();
+    assertTrue(solver.solve(new double[0]));
+    assertEquals(numberOfWarmStartedSolves,
+        DoubleOracleGameSolver.getNumberOfWarmStartedSolves());
+    assertEquals(numberOfColdStartIterations, solver.getNumberOfIterations());
+    assertEquals(0, solver.getNumberOfSavedIterations());
+  }
+}
@@ -0,0 +1,183 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+
+public class TestPermutationPool {
+  @SuppressWarnings("unchecked")
+  private static OptimizationTarget<String, Void> createTarget(
+      ToLongFunction<String> fingerprint) {
+    // only fingerprint() is called
+    return (OptimizationTarget<String, Void>) Proxy.newProxyInstance(
+        TestPermutationPool.class.getClassLoader(), new Class<?>[] {OptimizationTarget.class},
+        (proxy, method, args) -> fingerprint.applyAsLong((String) args[0]));
+  }
+
+  private static PermutationPool<String> createPool(int maxNumberOfPermutations,
+      int maxNumberOfScores) {
+    return new PermutationPool<>(createTarget(String::hashCode), maxNumberOfPermutations,
+        maxNumberOfScores);
+  }
+
+  @Test
+  public void test_cached() {
+    PermutationPool<String> pool = createPool(10, 10);
+    int abc = pool.intern("abc");
+    int a = pool.intern("a");
+
+    assertTrue(Double.isNaN(pool.findRawScore(abc, a)));
+    pool.putRawScore(abc, a, 2.0);
+    assertTrue(Double.isNaN(pool.findRawScore(a, abc)));
+    pool.putRawScore(a, abc, -2.0);
+    assertEquals(2.0, pool.findRawScore(abc, a), 0.0);
+    assertEquals(-2.0, pool.findRawScore(a, abc), 0.0);
+    assertEquals(2, pool.getNumberOfHits());
+    assertEquals(2, pool.getNumberOfMisses());
+    assertEquals(abc, pool.intern("abc"));
+  }
+
+  @Test
+  public void test_evicted() {
+    PermutationPool<String> pool = createPool(10, 2);
+    int a = pool.intern("a");
+    int b = pool.intern("b");
+    int c = pool.intern("c");
+    int d = pool.intern("d");
+
+    pool.putRawScore(a, b, 1.0);
+    pool.putRawScore(c, d, 2.0);
+    // "a" and "b" are the least recently used ones
+    assertEquals(2.0, pool.findRawScore(c, d), 0.0);
+    pool.putRawScore(b, c, 3.0);
+    assertTrue(Double.isNaN(pool.findRawScore(a, b)));
+    assertEquals(2.0, pool.findRawScore(c, d), 0.0);
+    assertEquals(3.0, pool.findRawScore(b, c), 0.0);
+    assertEquals(2, pool.getNumberOfScores());
+    // the IDs are bounded on their own
+    assertEquals(a, pool.intern("a"));
+  }
+
+  @Test
+  public void test_permutations_evicted() {
+    PermutationPool<String> pool = createPool(2, 10);
+    int a = pool.intern("a");
+    int b = pool.intern("b");
+    pool.putRawScore(a, b, 1.0);
+    pool.putRawScore(b, a, -1.0);
+    pool.putRawScore(b, b, 0.0);
+
+    pool.unpinAll();
+    int c = pool.intern("c");
+    assertEquals(2, pool.getNumberOfPermutations());
+    // "a" is evicted with its scores, so it never hits them again, and its ID may go to "c"
+    assertEquals(1, pool.getNumberOfScores());
+    assertEquals(0.0, pool.findRawScore(b, b), 0.0);
+    assertTrue(Double.isNaN(pool.findRawScore(c, b)));
+    assertTrue(Double.isNaN(pool.findRawScore(b, c)));
+    int newA = pool.intern("a");
+    assertNotEquals(c, newA);
+    assertTrue(Double.isNaN(pool.findRawScore(newA, b)));
+    assertTrue(Double.isNaN(pool.findRawScore(b, newA)));
+  }
+
+  @Test
+  public void test_pinned() {
+    PermutationPool<String> pool = createPool(2, 10);
+    int a = pool.intern("a");
+    int b = pool.intern("b");
+    int c = pool.intern("c");
+    pool.putRawScore(a, c, 1.0);
+    pool.putRawScore(b, c, 2.0);
+
+    // all of them are played by the same solve, so none is evicted until the next one
+    assertEquals(3, pool.getNumberOfPermutations());
+    assertEquals(a, pool.intern("a"));
+    assertEquals(b, pool.intern("b"));
+    assertEquals(c, pool.intern("c"));
+    assertEquals(1.0, pool.findRawScore(pool.intern("a"), pool.intern("c")), 0.0);
+
+    pool.unpinAll();
+    assertEquals(2, pool.getNumberOfPermutations());
+    // "b" is the least recently used one
+    assertEquals(a, pool.intern("a"));
+    assertEquals(c, pool.intern("c"));
+    assertEquals(1, pool.getNumberOfScores());
+    assertTrue(Double.isNaN(pool.findRawScore(pool.intern("b"), c)));
+    assertEquals(1.0, pool.findRawScore(a, c), 0.0);
+  }
+
+  @Test
+  public void test_collided() {
+    // all the strings of the same length collide
+    PermutationPool<String> pool =
+        new PermutationPool<>(createTarget(permutation -> permutation.length()), 2, 10);
+    int a = pool.intern("a");
+    int b = pool.intern("b");
+    pool.putRawScore(a, b, 1.0);
+    assertEquals(a, pool.intern(new String("a")));
+    assertEquals(b, pool.intern(new String("b")));
+    assertEquals(1.0, pool.findRawScore(a, b), 0.0);
+
+    // "a", which holds the fingerprint, is evicted, and "b" is still found
+    pool.unpinAll();
+    int c = pool.intern("c");
+    assertEquals(b, pool.intern("b"));
+    pool.putRawScore(b, c, 2.0);
+    assertEquals(2, pool.getNumberOfPermutations());
+    assertEquals(1, pool.getNumberOfScores());
+
+    pool.unpinAll();
+    int newA = pool.intern("a");
+    assertEquals(c, pool.intern("c"));
+    assertNotEquals(c, newA);
+    assertTrue(Double.isNaN(pool.findRawScore(newA, c)));
+    assertEquals(2, pool.getNumberOfPermutations());
+  }
+
+  @Test
+  public void test_random() {
+    // against plain maps, with a few collisions, and both kinds of eviction
+    Random random = new Random(7);
+    PermutationPool<String> pool =
+        new PermutationPool<>(createTarget(permutation -> permutation.hashCode() % 5), 6, 12);
+    Map<String, Double> expectedRawScores = new HashMap<>();
+    for (int solve = 0; solve < 200; solve++) {
+      pool.unpinAll();
+      String[] permutations = new String[1 + random.nextInt(8)];
+      int[] permutationIds = new int[permutations.length];
+      for (int index = 0; index < permutations.length; index++) {
+        permutations[index] = String.valueOf(random.nextInt(12));
+        permutationIds[index] = pool.intern(permutations[index]);
+      }
+      for (int pair = 0; pair < 10; pair++) {
+        int maximizerIndex = random.nextInt(permutations.length);
+        int minimizerIndex = random.nextInt(permutations.length);
+        String key = permutations[maximizerIndex] + "," + permutations[minimizerIndex];
+        double rawScore = pool.findRawScore(permutationIds[maximizerIndex],
+            permutationIds[minimizerIndex]);
+        if (Double.isNaN(rawScore)) {
+          rawScore = random.nextDouble();
+          pool.putRawScore(permutationIds[maximizerIndex], permutationIds[minimizerIndex],
+              rawScore);
+          expectedRawScores.put(key, rawScore);
+        } else {
+          assertEquals(key, expectedRawScores.get(key), rawScore, 0.0);
+        }
+      }
+      assertTrue(pool.getNumberOfScores() <= 12);
+      assertTrue(pool.getNumberOfPermutations() <= Math.max(6, permutations.length));
+    }
+    assertTrue(pool.getNumberOfHits() > 0);
+  }
+}
@@ -0,0 +1,55 @@
+package edu.uic.cs.purposeful.mpg.optimizer.game.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
+
+public class TestPermutationStore {
+  @SuppressWarnings("unchecked")
+  private OptimizationTarget<String, Void> createTarget() {
+    // only fingerprint() is called, all the strings of the same length collide
+    return (OptimizationTarget<String, Void>) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {OptimizationTarget.class},
+        (proxy, method, args) -> (long) ((String) args[0]).length());
+  }
+
+  @Test
+  public void test_intern() {
+    PermutationStore<String> store = new PermutationStore<>(createTarget());
+
+    assertEquals(0, store.intern("a"));
+    assertEquals(1, store.intern("abc"));
+    assertEquals(0, store.intern(new String("a")));
+    assertEquals(2, store.size());
+    assertEquals("abc", store.get(1));
+  }
+
+  @Test
+  public void test_collided() {
+    PermutationStore<String> store = new PermutationStore<>(createTarget());
+
+    assertEquals(0, store.intern("a"));
+    assertEquals(1, store.intern("b"));
+    assertEquals(2, store.intern("c"));
+    assertEquals(1, store.intern("b"));
+    assertEquals(0, store.intern("a"));
+    assertEquals(3, store.size());
+  }
+
+  @Test
+  public void test_as_list() {
+    PermutationStore<String> store = new PermutationStore<>(createTarget());
+    store.intern("a");
+    store.intern("bb");
+    store.intern("ccc");
+
+    List<String> permutations = store.asList(Arrays.asList(2, 0));
+    assertEquals(Arrays.asList("ccc", "a"), permutations);
+  }
+}
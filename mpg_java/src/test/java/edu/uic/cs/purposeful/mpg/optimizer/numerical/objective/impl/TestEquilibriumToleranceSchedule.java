@@ -0,0 +1,45 @@
+package edu.uic.cs.purposeful.mpg.optimizer.numerical.objective.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.mpg.optimizer.game.EquilibriumTolerance;
+
+public class TestEquilibriumToleranceSchedule {
+  @Test
+  public void test_tighten() {
+    EquilibriumToleranceSchedule schedule = new EquilibriumToleranceSchedule(0.1, 20);
+    assertEquals(0.1, schedule.getTolerance().getEpsilon(), 0.0);
+    assertEquals(20, schedule.getTolerance().getMaxNumberOfPermutations());
+
+    schedule.update(10.0, Double.NaN);
+    assertEquals(0.1, schedule.getTolerance().getEpsilon(), 0.0);
+
+    // the gradient norm shrinks to a quarter
+    schedule.update(2.5, Double.NaN);
+    assertEquals(0.025, schedule.getTolerance().getEpsilon(), 1e-12);
+    assertEquals(80, schedule.getTolerance().getMaxNumberOfPermutations());
+
+    // it never loosens again
+    schedule.update(5.0, 0.01);
+    assertEquals(0.025, schedule.getTolerance().getEpsilon(), 1e-12);
+
+    // the value improvement shrinks to a tenth of the first one
+    schedule.update(5.0, 0.001);
+    assertEquals(0.01, schedule.getTolerance().getEpsilon(), 1e-12);
+    assertEquals(200, schedule.getTolerance().getMaxNumberOfPermutations());
+
+    schedule.update(1e-8, Double.NaN);
+    assertSame(EquilibriumTolerance.EXACT, schedule.getTolerance());
+  }
+
+  @Test
+  public void test_disabled() {
+    EquilibriumToleranceSchedule schedule = new EquilibriumToleranceSchedule(0.0, 20);
+    schedule.update(10.0, 0.1);
+    schedule.update(1.0, 0.01);
+    assertSame(EquilibriumTolerance.EXACT, schedule.getTolerance());
+  }
+}
@@ -6,13 +6,16 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
+import edu.uic.cs.purposeful.mpg.MPGConfig;
 import edu.uic.cs.purposeful.mpg.common.Regularization;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.optimizer.game.impl.DoubleOracleGameSolver;
 import edu.uic.cs.purposeful.mpg.target.OptimizationTarget;
 import no.uib.cipr.matrix.DenseVector;
 import no.uib.cipr.matrix.Vector;
@@ -123,6 +126,16 @@ public class TestMinimizationObjectiveFunctionImpl extends Assert {
     }
   }
 
+  static class ThreadRecordingTarget extends MockTarget {
+    static final Set<Thread> THREADS = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public double[] computeLagrangePotentials(double[] thetas) {
+      THREADS.add(Thread.currentThread());
+      return super.computeLagrangePotentials(thetas);
+    }
+  }
+
   @Test
   public void testGetValueAndGradients() {
     List<Integer> initialDataList = new ArrayList<>();
@@ -189,4 +202,42 @@ public class TestMinimizationObjectiveFunctionImpl extends Assert {
     assertArrayEquals(expectedGradients, actualGradients,
         ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
+
+  @Test
+  public void testGetValueWarmStarted() {
+    List<Integer> initialDataList = new ArrayList<>();
+    initialDataList.add(0);
+    initialDataList.add(1);
+    MinimizationObjectiveFunctionImpl<BitSet, Integer> objectiveFunction =
+        new MinimizationObjectiveFunctionImpl<>(MockTarget.class, initialDataList, 50);
+
+    double[] thetas = new double[] {1.4, 2.3, 3};
+    double coldStartedValue = objectiveFunction.getValue(thetas);
+    long numberOfWarmStartedSolves = DoubleOracleGameSolver.getNumberOfWarmStartedSolves();
+    // the second games start from the first ones' supports, and end at the same values
+    double warmStartedValue = objectiveFunction.getValue(thetas);
+    assertTrue(DoubleOracleGameSolver.getNumberOfWarmStartedSolves()
+        >= numberOfWarmStartedSolves + initialDataList.size());
+    assertEquals(coldStartedValue, warmStartedValue,
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+
+  @Test
+  public void testWorkerThreadsReused() {
+    List<Integer> initialDataList = new ArrayList<>();
+    for (int index = 0; index < 4; index++) {
+      initialDataList.add(index);
+    }
+    MinimizationObjectiveFunctionImpl<BitSet, Integer> objectiveFunction =
+        new MinimizationObjectiveFunctionImpl<>(ThreadRecordingTarget.class, initialDataList);
+
+    // the games of all the evaluations are solved by the same workers, so is the per-thread state
+    // of the solvers, e.g. the Gurobi environments, bounded
+    double[] thetas = new double[] {1.4, 2.3, 3};
+    for (int evaluation = 0; evaluation <= MPGConfig.THREAD_POOL_SIZE; evaluation++) {
+      objectiveFunction.getValue(thetas);
+    }
+    assertTrue(ThreadRecordingTarget.THREADS.size() + " threads",
+        ThreadRecordingTarget.THREADS.size() <= MPGConfig.THREAD_POOL_SIZE);
+  }
 }
@@ -3,6 +3,7 @@ package edu.uic.cs.purposeful.mpg.target.binary;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -60,6 +61,18 @@ public class TestAbstractBinaryOptimizationTarget extends Assert {
       public double computeScore(BitSet maximizerPermutation, BitSet minimizerPermutation) {
         throw new UnsupportedOperationException();
       }
+
+      @Override
+      public void computePreparedScoresAgainstMinimizers(PackedBitSet maximizerPermutation,
+          List<PackedBitSet> minimizerPermutations, int fromIndex, int toIndex, double[] scores) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void computePreparedScoresAgainstMaximizers(List<PackedBitSet> maximizerPermutations,
+          PackedBitSet minimizerPermutation, int fromIndex, int toIndex, double[] scores) {
+        throw new UnsupportedOperationException();
+      }
     };
 
     double[] goldenTagValues = new double[] {1, 0, 0, 1};
@@ -160,6 +173,21 @@ public class TestAbstractBinaryOptimizationTarget extends Assert {
     assertArrayEquals(expected, actual, ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
 
+  @Test
+  public void testPackChangedPermutation() {
+    BitSet permutation = new BitSet();
+    permutation.set(0, 2);
+    long fingerprint = binaryOptimizationTarget.fingerprint(permutation);
+    assertEquals(2, binaryOptimizationTarget.pack(permutation).cardinality());
+
+    // packed again as it is now, not as it was the first time
+    permutation.set(3);
+    assertEquals(3, binaryOptimizationTarget.pack(permutation).cardinality());
+    assertNotEquals(fingerprint, binaryOptimizationTarget.fingerprint(permutation));
+    assertEquals(binaryOptimizationTarget.pack(permutation).fingerprint(),
+        binaryOptimizationTarget.fingerprint(permutation));
+  }
+
   @Test
   public void testGetGoldenPermutation() {
     BitSet actual = binaryOptimizationTarget.getGoldenPermutation();
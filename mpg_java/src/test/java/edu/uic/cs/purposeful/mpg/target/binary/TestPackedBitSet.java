@@ -0,0 +1,83 @@
+package edu.uic.cs.purposeful.mpg.target.binary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestPackedBitSet {
+  @Test
+  public void test_intersection_cardinality() {
+    Random random = new Random(0);
+    for (int testTime = 0; testTime < 200; testTime++) {
+      // of different lengths and densities, so that the trailing words don't line up, and both
+      // encodings meet each other
+      BitSet bits = randomBitSet(random, random.nextInt(300), random.nextDouble() * 0.1);
+      BitSet otherBits = randomBitSet(random, random.nextInt(300), random.nextDouble());
+      PackedBitSet packedBits = new PackedBitSet(bits);
+      PackedBitSet packedOtherBits = new PackedBitSet(otherBits);
+      PackedBitSet packedBitsAgain = new PackedBitSet(bits);
+
+      BitSet intersection = (BitSet) bits.clone();
+      intersection.and(otherBits);
+      assertEquals(bits.cardinality(), packedBits.cardinality());
+      assertEquals(intersection.cardinality(), packedBits.intersectionCardinality(packedOtherBits));
+      assertEquals(intersection.cardinality(), packedOtherBits.intersectionCardinality(packedBits));
+      assertEquals(bits.cardinality(), packedBits.intersectionCardinality(packedBitsAgain));
+      assertEquals(packedBits.fingerprint(), packedBitsAgain.fingerprint());
+    }
+  }
+
+  @Test
+  public void test_encoding() {
+    BitSet sparseBits = new BitSet();
+    sparseBits.set(3);
+    sparseBits.set(500);
+    BitSet denseBits = new BitSet();
+    denseBits.set(0, 200);
+    assertTrue(new PackedBitSet(sparseBits).isSparse());
+    assertFalse(new PackedBitSet(denseBits).isSparse());
+    assertEquals(1,
+        new PackedBitSet(sparseBits).intersectionCardinality(new PackedBitSet(denseBits)));
+  }
+
+  @Test
+  public void test_fingerprint() {
+    BitSet bits = new BitSet(100);
+    bits.set(64);
+    // the trailing zero words are not a part of it
+    BitSet longerBits = new BitSet(1000);
+    longerBits.set(64);
+    BitSet otherBits = new BitSet(100);
+    otherBits.set(65);
+    assertEquals(new PackedBitSet(bits).fingerprint(), new PackedBitSet(longerBits).fingerprint());
+    assertNotEquals(new PackedBitSet(bits).fingerprint(),
+        new PackedBitSet(otherBits).fingerprint());
+    assertNotEquals(new PackedBitSet(new BitSet()).fingerprint(),
+        new PackedBitSet(bits).fingerprint());
+  }
+
+  @Test
+  public void test_empty() {
+    PackedBitSet empty = new PackedBitSet(new BitSet());
+    BitSet bits = new BitSet();
+    bits.set(0, 100);
+    assertEquals(0, empty.cardinality());
+    assertEquals(0, empty.intersectionCardinality(new PackedBitSet(bits)));
+  }
+
+  private BitSet randomBitSet(Random random, int numOfBits, double density) {
+    BitSet bits = new BitSet(numOfBits);
+    for (int bitIndex = 0; bitIndex < numOfBits; bitIndex++) {
+      if (random.nextDouble() < density) {
+        bits.set(bitIndex);
+      }
+    }
+    return bits;
+  }
+}
@@ -2,11 +2,13 @@ package edu.uic.cs.purposeful.mpg.target.binary.f1;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
@@ -22,6 +24,7 @@ import com.google.common.collect.Iterables;
 
 import edu.uic.cs.purposeful.common.collection.CollectionUtils;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import edu.uic.cs.purposeful.mpg.target.binary.TestAbstractBinaryOptimizationTarget;
 import no.uib.cipr.matrix.DenseMatrix;
 import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
@@ -82,6 +85,40 @@ public class TestBinaryF1 extends TestAbstractBinaryOptimizationTarget {
     assertEquals(2.0 * 2 / (4 + 5), actual, ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
 
+  @Test
+  public void testComputeScores() {
+    int totalNumOfBits = 100;
+    BinaryF1 binaryF1 = buildBinaryF1(totalNumOfBits);
+    Random random = new Random(0);
+    List<BitSet> permutations = new ArrayList<>();
+    permutations.add(new BitSet());
+    for (int count = 0; count < 20; count++) {
+      BitSet permutation = new BitSet();
+      for (int index = 0; index < totalNumOfBits; index++) {
+        if (random.nextBoolean()) {
+          permutation.set(index);
+        }
+      }
+      permutations.add(permutation);
+    }
+
+    for (BitSet permutation : permutations) {
+      double[] rowScores = new double[permutations.size()];
+      binaryF1.computeScoresAgainstMinimizers(permutation, permutations, 0, permutations.size(),
+          rowScores);
+      double[] columnScores = new double[permutations.size()];
+      // only a part of the column
+      binaryF1.computeScoresAgainstMaximizers(permutations, permutation, 5, permutations.size(),
+          columnScores);
+      for (int index = 0; index < permutations.size(); index++) {
+        assertEquals(binaryF1.computeScore(permutation, permutations.get(index)), rowScores[index],
+            0.0);
+        assertEquals(index < 5 ? 0.0 : binaryF1.computeScore(permutations.get(index), permutation),
+            columnScores[index], 0.0);
+      }
+    }
+  }
+
   @Test
   public void testGetInitialMaximizerPermutations() {
     int totalNumOfBits = 10;
@@ -169,6 +206,23 @@ public class TestBinaryF1 extends TestAbstractBinaryOptimizationTarget {
         ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
 
+  @Test
+  public void testDescribePermutation() {
+    BinaryF1 binaryF1 = buildBinaryF1(5);
+    BitSet permutation = new BitSet(); // 01101
+    permutation.set(1);
+    permutation.set(2);
+    permutation.set(4);
+    double[] lagrangePotentials = new double[] {1, 2, 3, 4, 5};
+
+    PermutationMetadata metadata = binaryF1.describePermutation(permutation, lagrangePotentials);
+    assertEquals(binaryF1.aggregateLagrangePotentials(permutation, lagrangePotentials),
+        metadata.getAggregatedLagrangePotential(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(3, metadata.getCardinality());
+    assertArrayEquals(new int[] {1, 2, 4}, metadata.getSetBitIndices());
+  }
+
   @Test
   public void testIsLegalMaximizerPermutation() {
     int totalNumOfBits = 10;
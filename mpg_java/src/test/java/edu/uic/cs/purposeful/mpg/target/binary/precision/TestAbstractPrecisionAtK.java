@@ -4,8 +4,10 @@ import static org.hamcrest.CoreMatchers.hasItem;
 
 import java.util.BitSet;
 import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
@@ -24,6 +26,7 @@ import com.google.common.collect.Sets;
 
 import edu.uic.cs.purposeful.common.collection.CollectionUtils;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import edu.uic.cs.purposeful.mpg.target.binary.AbstractBinaryOptimizationTarget;
 import edu.uic.cs.purposeful.mpg.target.binary.TestAbstractBinaryOptimizationTarget;
 
@@ -60,6 +63,35 @@ public class TestAbstractPrecisionAtK extends TestAbstractBinaryOptimizationTarg
     return precisionAtK;
   }
 
+  @Test
+  public void testFindBestMaximizerResponsePermutations() {
+    AbstractPrecisionAtK precisionAtK = newInstance(4, 2);
+    LinkedHashSet<BitSet> minimizerActions = new LinkedHashSet<>();
+    minimizerActions.add(BitSet.valueOf(new long[] {Long.parseLong("0011", 2)}));
+    minimizerActions.add(BitSet.valueOf(new long[] {Long.parseLong("0001", 2)}));
+    minimizerActions.add(BitSet.valueOf(new long[] {Long.parseLong("0100", 2)}));
+    double[] minimizerProbabilities = new double[] {0.6, 0.1, 0.3};
+    double[] lagrangePotentials = new double[4];
+    List<PermutationMetadata> minimizerMetadata = new ArrayList<>();
+    for (BitSet minimizerAction : minimizerActions) {
+      minimizerMetadata.add(precisionAtK.describePermutation(minimizerAction, lagrangePotentials));
+    }
+
+    // marginal probabilities are (0.7, 0.6, 0.3, 0), bit #1 is swapped for #2 and then #3
+    List<Pair<BitSet, Double>> actual = precisionAtK.findBestMaximizerResponsePermutations(
+        minimizerProbabilities, minimizerActions, minimizerMetadata, lagrangePotentials, 3);
+    assertEquals(3, actual.size());
+    assertEquals(BitSet.valueOf(new long[] {Long.parseLong("0011", 2)}), actual.get(0).getLeft());
+    assertEquals(0.65, actual.get(0).getRight(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(BitSet.valueOf(new long[] {Long.parseLong("0101", 2)}), actual.get(1).getLeft());
+    assertEquals(0.5, actual.get(1).getRight(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+    assertEquals(BitSet.valueOf(new long[] {Long.parseLong("1001", 2)}), actual.get(2).getLeft());
+    assertEquals(0.35, actual.get(2).getRight(),
+        ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+  }
+
   @Test
   public void testComputeScore() {
     BitSet maximizerPermutation = new BitSet(10);
@@ -78,6 +110,53 @@ public class TestAbstractPrecisionAtK extends TestAbstractBinaryOptimizationTarg
     assertEquals(expected, actual, ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
   }
 
+  @Test
+  public void testComputeScores() {
+    int totalNumOfBits = 100;
+    int k = 30;
+    AbstractPrecisionAtK precisionAtK = newInstance(totalNumOfBits, k);
+    Random random = new Random(0);
+    List<BitSet> maximizerPermutations = new ArrayList<>();
+    List<BitSet> minimizerPermutations = new ArrayList<>();
+    minimizerPermutations.add(new BitSet());
+    for (int count = 0; count < 20; count++) {
+      BitSet maximizerPermutation = new BitSet();
+      while (maximizerPermutation.cardinality() < k) {
+        maximizerPermutation.set(random.nextInt(totalNumOfBits));
+      }
+      maximizerPermutations.add(maximizerPermutation);
+
+      BitSet minimizerPermutation = new BitSet();
+      for (int index = 0; index < totalNumOfBits; index++) {
+        if (random.nextBoolean()) {
+          minimizerPermutation.set(index);
+        }
+      }
+      minimizerPermutations.add(minimizerPermutation);
+    }
+
+    for (BitSet maximizerPermutation : maximizerPermutations) {
+      double[] rowScores = new double[minimizerPermutations.size()];
+      precisionAtK.computeScoresAgainstMinimizers(maximizerPermutation, minimizerPermutations, 0,
+          minimizerPermutations.size(), rowScores);
+      for (int index = 0; index < minimizerPermutations.size(); index++) {
+        assertEquals(precisionAtK.computeScore(maximizerPermutation,
+            minimizerPermutations.get(index)), rowScores[index], 0.0);
+      }
+    }
+    for (BitSet minimizerPermutation : minimizerPermutations) {
+      double[] columnScores = new double[maximizerPermutations.size()];
+      // only a part of the column
+      precisionAtK.computeScoresAgainstMaximizers(maximizerPermutations, minimizerPermutation, 5,
+          maximizerPermutations.size(), columnScores);
+      for (int index = 0; index < maximizerPermutations.size(); index++) {
+        assertEquals(index < 5 ? 0.0
+            : precisionAtK.computeScore(maximizerPermutations.get(index), minimizerPermutation),
+            columnScores[index], 0.0);
+      }
+    }
+  }
+
   @Test
   public void testFindBestMaximizerResponsePermutation() {
     for (int totalNumOfBits = 3; totalNumOfBits <= 15; totalNumOfBits++) {
@@ -2,9 +2,11 @@ package edu.uic.cs.purposeful.mpg.target.binary.precision;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
@@ -20,6 +22,7 @@ import com.google.common.collect.Sets;
 
 import edu.uic.cs.purposeful.common.collection.CollectionUtils;
 import edu.uic.cs.purposeful.mpg.common.ValuePrecision;
+import edu.uic.cs.purposeful.mpg.target.PermutationMetadata;
 import edu.uic.cs.purposeful.mpg.target.binary.AbstractBinaryOptimizationTarget;
 
 public class TestPrecisionAtK extends TestAbstractPrecisionAtK {
@@ -129,6 +132,42 @@ public class TestPrecisionAtK extends TestAbstractPrecisionAtK {
     assertThat(expected.getValue(), hasItem(actual.getLeft()));
   }
 
+  @Test
+  public void testFindBestMinimizerResponsePermutationByMetadata() {
+    Random random = new Random(13);
+    for (int totalNumOfBits = 3; totalNumOfBits <= 12; totalNumOfBits++) {
+      int k = random.nextInt(totalNumOfBits) + 1;
+      double[] lagrangePotentials = new double[totalNumOfBits];
+      for (int index = 0; index < totalNumOfBits; index++) {
+        lagrangePotentials[index] = -1 + 2 * random.nextDouble(); // range [-1, 1)
+      }
+
+      LinkedHashSet<BitSet> maximizerPermutations =
+          generateAllPossiblePermutations(totalNumOfBits, k);
+      double[] maximizerProbabilities =
+          generateProbabilities(random, maximizerPermutations.size());
+      // the actions not played add nothing, not even their Lagrange potentials
+      for (int index = 0; index < maximizerProbabilities.length; index += 2) {
+        maximizerProbabilities[index] = 0.0;
+      }
+      Entry<Double, HashSet<BitSet>> expected = bruteForceFindBestMinimizerResponsePermutation(
+          maximizerProbabilities, maximizerPermutations, lagrangePotentials, totalNumOfBits, k);
+
+      PrecisionAtK precisionAtK = newInstance(totalNumOfBits, k);
+      List<PermutationMetadata> maximizerMetadata = new ArrayList<>();
+      for (BitSet maximizerPermutation : maximizerPermutations) {
+        maximizerMetadata
+            .add(precisionAtK.describePermutation(maximizerPermutation, lagrangePotentials));
+      }
+      Pair<BitSet, Double> actual = precisionAtK.findBestMinimizerResponsePermutation(
+          maximizerProbabilities, maximizerPermutations, maximizerMetadata, lagrangePotentials);
+
+      assertEquals(expected.getKey(), actual.getRight(),
+          ValuePrecision.POINT_6_ZEROS_ONE.getValuePrecision());
+      assertThat(expected.getValue(), hasItem(actual.getLeft()));
+    }
+  }
+
   private Entry<Double, HashSet<BitSet>> bruteForceFindBestMinimizerResponsePermutation(
       double[] maximizerProbabilities, LinkedHashSet<BitSet> maximizerPermutations,
       double[] lagrangePotentials, int totalNumOfBits, int k) {
@@ -0,0 +1,277 @@
+package edu.uic.cs.purposeful.mpg.target.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+import edu.uic.cs.purposeful.common.assertion.PurposefulBaseException;
+import edu.uic.cs.purposeful.mpg.target.common.GeneralFMeasureMaximizer.PositionSelector;
+import no.uib.cipr.matrix.sparse.LinkedSparseMatrix;
+
+public class TestGeneralFMeasureMaximizer {
+  /**
+   * The responses by the definition: W[k][s] = 1 / (k + s + 2) built explicitly, the scores
+   * <code>2 * P * W</code> minus the Lagrange potentials, and each column of them fully sorted.
+   */
+  private static List<Pair<BitSet, Double>> referenceGfm(double p0, LinkedSparseMatrix matrixP,
+      double[] lagrangePotentials, int maxNumOfResponses) {
+    int numOfPositions = matrixP.numRows();
+    boolean findMaximize = lagrangePotentials == null;
+    double[][] matrixW = new double[numOfPositions][numOfPositions];
+    for (int k = 0; k < numOfPositions; k++) {
+      for (int s = 0; s < numOfPositions; s++) {
+        matrixW[k][s] = 1.0 / (k + s + 2);
+      }
+    }
+
+    double[] values = new double[numOfPositions + 1];
+    BitSet[] permutations = new BitSet[numOfPositions + 1];
+    values[0] = p0;
+    permutations[0] = new BitSet(numOfPositions);
+    for (int s = 0; s < numOfPositions; s++) {
+      double[] scores = new double[numOfPositions];
+      Integer[] positions = new Integer[numOfPositions];
+      for (int i = 0; i < numOfPositions; i++) {
+        scores[i] = findMaximize ? 0.0 : -lagrangePotentials[i];
+        for (int k = 0; k < numOfPositions; k++) {
+          scores[i] += 2 * matrixP.get(i, k) * matrixW[k][s];
+        }
+        positions[i] = i;
+      }
+      // the best first, the ties broken by the positions (the later ones first when maximizing)
+      Comparator<Integer> order = Comparator.<Integer>comparingDouble(i -> scores[i])
+          .thenComparingInt(i -> i);
+      Arrays.sort(positions, findMaximize ? order.reversed() : order);
+
+      permutations[s + 1] = new BitSet(numOfPositions);
+      for (int index = 0; index <= s; index++) {
+        values[s + 1] += scores[positions[index]];
+        permutations[s + 1].set(positions[index]);
+      }
+    }
+
+    // the best values first, the (stable) ties to the fewer ones
+    Integer[] numsOfOnes = new Integer[numOfPositions + 1];
+    for (int numOfOnes = 0; numOfOnes <= numOfPositions; numOfOnes++) {
+      numsOfOnes[numOfOnes] = numOfOnes;
+    }
+    Comparator<Integer> byValue = Comparator.comparingDouble(numOfOnes -> values[numOfOnes]);
+    Arrays.sort(numsOfOnes, findMaximize ? byValue.reversed() : byValue);
+    List<Pair<BitSet, Double>> responses = new ArrayList<>();
+    for (int index = 0; index < Math.min(maxNumOfResponses, numsOfOnes.length); index++) {
+      responses.add(Pair.of(permutations[numsOfOnes[index]], values[numsOfOnes[index]]));
+    }
+    return responses;
+  }
+
+  private static void assertSameResponses(List<Pair<BitSet, Double>> expected,
+      List<Pair<BitSet, Double>> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int index = 0; index < expected.size(); index++) {
+      assertEquals(expected.get(index).getLeft(), actual.get(index).getLeft());
+      // W is applied in another order
+      double expectedValue = expected.get(index).getRight();
+      assertEquals(expectedValue, actual.get(index).getRight(),
+          1e-9 * Math.max(1.0, Math.abs(expectedValue)));
+    }
+  }
+
+  private static double[] randomLagrangePotentials(Random random, int numOfPositions) {
+    return randomLagrangePotentials(random, numOfPositions, 0.1);
+  }
+
+  private static double[] randomLagrangePotentials(Random random, int numOfPositions,
+      double scale) {
+    double[] lagrangePotentials = new double[numOfPositions];
+    for (int index = 0; index < numOfPositions; index++) {
+      lagrangePotentials[index] = random.nextGaussian() * scale;
+    }
+    return lagrangePotentials;
+  }
+
+  /**
+   * Maximizing, and minimizing with small and large Lagrange potentials, for any number of
+   * responses.
+   */
+  private static void assertSameAsReference(Random random, LinkedSparseMatrix matrixP) {
+    int numOfPositions = matrixP.numRows();
+    double p0 = random.nextDouble() / 5;
+    GeneralFMeasureMaximizer maximizer = new GeneralFMeasureMaximizer(numOfPositions, 0);
+    for (double[] lagrangePotentials : Arrays.asList(null,
+        randomLagrangePotentials(random, numOfPositions, 0.1),
+        randomLagrangePotentials(random, numOfPositions, 1.0))) {
+      for (int maxNumOfResponses = 1; maxNumOfResponses <= numOfPositions + 2;
+          maxNumOfResponses++) {
+        assertSameResponses(referenceGfm(p0, matrixP, lagrangePotentials, maxNumOfResponses),
+            maximizer.gfm(p0, matrixP, lagrangePotentials, maxNumOfResponses));
+      }
+    }
+  }
+
+  @Test
+  public void test_reference() {
+    Random random = new Random(0);
+    for (int testTime = 0; testTime < 100; testTime++) {
+      int numOfPositions = 1 + random.nextInt(60);
+      // a few permutations' marginal probabilities, of a few cardinalities
+      LinkedSparseMatrix matrixP = new LinkedSparseMatrix(numOfPositions, numOfPositions);
+      for (int permutationIndex = 0; permutationIndex < 5; permutationIndex++) {
+        int numOfOnes = 1 + random.nextInt(numOfPositions);
+        double probability = random.nextDouble() / 5;
+        for (int index = 0; index < numOfOnes; index++) {
+          matrixP.add(random.nextInt(numOfPositions), numOfOnes - 1, probability);
+        }
+      }
+      double p0 = random.nextDouble() / 5;
+      double[] lagrangePotentials =
+          (testTime % 2 == 0) ? null : randomLagrangePotentials(random, numOfPositions);
+
+      GeneralFMeasureMaximizer maximizer = new GeneralFMeasureMaximizer(numOfPositions, 0);
+      for (int maxNumOfResponses : new int[] {1, 3}) {
+        assertSameResponses(referenceGfm(p0, matrixP, lagrangePotentials, maxNumOfResponses),
+            maximizer.gfm(p0, matrixP, lagrangePotentials, maxNumOfResponses));
+      }
+    }
+  }
+
+  @Test
+  public void test_bounds() {
+    Random random = new Random(1);
+    for (int testTime = 0; testTime < 30; testTime++) {
+      int numOfPositions = 1 + random.nextInt(30);
+      // probabilities concentrated on a few positions, so that most cardinalities are bounded off
+      LinkedSparseMatrix matrixP = new LinkedSparseMatrix(numOfPositions, numOfPositions);
+      for (int index = 0; index < numOfPositions; index++) {
+        matrixP.add(random.nextInt(Math.min(3, numOfPositions)), random.nextInt(numOfPositions),
+            random.nextDouble() / numOfPositions);
+      }
+      assertSameAsReference(random, matrixP);
+    }
+  }
+
+  @Test
+  public void test_negative_entries() {
+    Random random = new Random(2);
+    for (int testTime = 0; testTime < 30; testTime++) {
+      int numOfPositions = 1 + random.nextInt(30);
+      // not probabilities, so neither bound holds
+      LinkedSparseMatrix matrixP = new LinkedSparseMatrix(numOfPositions, numOfPositions);
+      for (int index = 0; index < 2 * numOfPositions; index++) {
+        matrixP.add(random.nextInt(numOfPositions), random.nextInt(numOfPositions),
+            random.nextGaussian());
+      }
+      assertSameAsReference(random, matrixP);
+    }
+  }
+
+  @Test
+  public void test_zero_columns() {
+    Random random = new Random(3);
+    for (int testTime = 0; testTime < 30; testTime++) {
+      int numOfPositions = 1 + random.nextInt(30);
+      LinkedSparseMatrix matrixP = new LinkedSparseMatrix(numOfPositions, numOfPositions);
+      // all zeros at first, then only a few of the columns have entries
+      if (testTime > 0) {
+        for (int index = 0; index < numOfPositions; index++) {
+          matrixP.add(random.nextInt(numOfPositions), random.nextInt(Math.min(2, numOfPositions)),
+              random.nextDouble() / numOfPositions);
+        }
+      }
+      // and the explicit zeros are no entries either
+      for (int index = 0; index < numOfPositions; index++) {
+        matrixP.set(random.nextInt(numOfPositions), random.nextInt(numOfPositions), 0.0);
+      }
+      assertSameAsReference(random, matrixP);
+    }
+  }
+
+  @Test
+  public void test_position_selector() {
+    Random random = new Random(4);
+    int threshold = PositionSelector.INSERTION_SORT_THRESHOLD;
+    for (int numOfPositions : new int[] {1, 2, threshold - 1, threshold, threshold + 1,
+        threshold + 2, 2 * threshold + 1, 100}) {
+      for (boolean findMaximize : new boolean[] {true, false}) {
+        PositionSelector selector = new PositionSelector(numOfPositions, findMaximize);
+        // all ties, heavy ties, and (almost surely) none
+        for (int numOfDistinctScores : new int[] {1, 2, 3, 0}) {
+          Integer[] expectedPositions = new Integer[numOfPositions];
+          for (int index = 0; index < numOfPositions; index++) {
+            selector.scores[index] = (numOfDistinctScores > 0)
+                ? random.nextInt(numOfDistinctScores) : random.nextGaussian();
+            expectedPositions[index] = index;
+          }
+          double[] scores = selector.scores.clone();
+          Comparator<Integer> order = Comparator.<Integer>comparingDouble(i -> scores[i])
+              .thenComparingInt(i -> i);
+          Arrays.sort(expectedPositions, findMaximize ? order.reversed() : order);
+
+          // up to all of them
+          for (int numOfOnes = 0; numOfOnes <= numOfPositions; numOfOnes++) {
+            double expectedValue = 0.0;
+            BitSet expectedPermutation = new BitSet(numOfPositions);
+            int[] expectedBest = new int[numOfOnes];
+            for (int index = 0; index < numOfOnes; index++) {
+              expectedValue += scores[expectedPositions[index]];
+              expectedPermutation.set(expectedPositions[index]);
+              expectedBest[index] = expectedPositions[index];
+            }
+
+            assertEquals(expectedValue, selector.selectBest(numOfOnes), 0.0);
+            assertArrayEquals(expectedBest, Arrays.copyOf(selector.positions, numOfOnes));
+            assertEquals(expectedPermutation, selector.toPermutation(numOfOnes));
+          }
+        }
+      }
+    }
+  }
+
+  @Test(expected = PurposefulBaseException.class)
+  public void test_position_selector_more_than_all() {
+    PositionSelector selector = new PositionSelector(3, true);
+    selector.selectBest(4);
+  }
+
+  @Test
+  public void test_parallel_sweep() {
+    Random random = new Random(0);
+    for (int testTime = 0; testTime < 50; testTime++) {
+      int numOfPositions = 1 + random.nextInt(100);
+      // a few permutations' marginal probabilities, of a few cardinalities
+      LinkedSparseMatrix matrixP = new LinkedSparseMatrix(numOfPositions, numOfPositions);
+      for (int permutationIndex = 0; permutationIndex < 5; permutationIndex++) {
+        int numOfOnes = 1 + random.nextInt(numOfPositions);
+        for (int index = 0; index < numOfOnes; index++) {
+          matrixP.add(random.nextInt(numOfPositions), numOfOnes - 1, 0.2);
+        }
+      }
+      double[] lagrangePotentials = null;
+      if (testTime % 2 == 1) {
+        lagrangePotentials = new double[numOfPositions];
+        for (int index = 0; index < numOfPositions; index++) {
+          lagrangePotentials[index] = random.nextGaussian() * 0.1;
+        }
+      }
+
+      List<Pair<BitSet, Double>> expected = new GeneralFMeasureMaximizer(numOfPositions, 0)
+          .gfm(0.1, matrixP, lagrangePotentials, 3);
+      assertSameResponses(referenceGfm(0.1, matrixP, lagrangePotentials, 3), expected);
+      for (int minNumOfColumnsPerTask : new int[] {1, 7}) {
+        // the same responses, whichever block evaluates or skips which cardinalities
+        List<Pair<BitSet, Double>> actual =
+            new GeneralFMeasureMaximizer(numOfPositions, minNumOfColumnsPerTask).gfm(0.1,
+                matrixP, lagrangePotentials, 3);
+        assertEquals(expected, actual);
+      }
+    }
+  }
+}